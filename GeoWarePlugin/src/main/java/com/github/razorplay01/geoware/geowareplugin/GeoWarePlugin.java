@@ -3,7 +3,29 @@ package com.github.razorplay01.geoware.geowareplugin;
 import co.aikar.commands.PaperCommandManager;
 import com.github.razorplay01.geoware.geowarecommon.GeoWareCommon;
 import com.github.razorplay01.geoware.geowareplugin.command.*;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSessionRegistry;
+import com.github.razorplay01.geoware.geowareplugin.game.LaunchDispatcher;
+import com.github.razorplay01.geoware.geowareplugin.game.LaunchSettings;
+import com.github.razorplay01.geoware.geowareplugin.game.RoundManager;
+import com.github.razorplay01.geoware.geowareplugin.game.RoundSettings;
+import com.github.razorplay01.geoware.geowareplugin.game.ScoreGuard;
+import com.github.razorplay01.geoware.geowareplugin.game.ScoreGuardSettings;
+import com.github.razorplay01.geoware.geowareplugin.game.SessionSettings;
+import com.github.razorplay01.geoware.geowareplugin.listener.GameSessionListener;
+import com.github.razorplay01.geoware.geowareplugin.listener.PointsCacheListener;
+import com.github.razorplay01.geoware.geowareplugin.listener.SelectorIndexListener;
+import com.github.razorplay01.geoware.geowareplugin.metrics.MetricsServer;
+import com.github.razorplay01.geoware.geowareplugin.metrics.MetricsSettings;
 import com.github.razorplay01.geoware.geowareplugin.network.PacketListener;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketMetrics;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketProcessor;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketSettings;
+import com.github.razorplay01.geoware.geowareplugin.replication.ReplicationService;
+import com.github.razorplay01.geoware.geowareplugin.replication.ReplicationSettings;
+import com.github.razorplay01.geoware.geowareplugin.selector.SelectorEngine;
+import com.github.razorplay01.geoware.geowareplugin.storage.BackupSettings;
+import com.github.razorplay01.geoware.geowareplugin.storage.LeaderboardSettings;
+import com.github.razorplay01.geoware.geowareplugin.storage.StorageSettings;
 import com.github.razorplay01.geoware.geowareplugin.util.UtilMessage;
 import lombok.Getter;
 import net.minecraft.core.component.DataComponentType;
@@ -15,6 +37,7 @@ import org.bukkit.plugin.java.JavaPlugin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.SQLException;
 
 import static com.github.razorplay01.geoware.geowarecommon.GeoWareCommon.PACKET_BASE_CHANNEL;
@@ -26,18 +49,52 @@ public final class GeoWarePlugin extends JavaPlugin {
     public static final Logger LOGGER = LoggerFactory.getLogger(PLUGIN_NAME);
     private PaperCommandManager commandManager;
     private PointsManager pointsManager;
+    private GameSessionRegistry gameSessions;
+    private SelectorEngine selectors;
+    private LaunchDispatcher launchDispatcher;
+    private RoundManager rounds;
+    private ScoreGuard scoreGuard;
+    private PacketMetrics packetMetrics;
+    private PacketProcessor packetProcessor;
+    /**
+     * Replicación de los puntos entre servidores, o null si está desactivada.
+     */
+    private ReplicationService replication;
+    /**
+     * Endpoint de métricas, o null si está desactivado.
+     */
+    private MetricsServer metricsServer;
 
     @Override
     public void onEnable() {
+        saveDefaultConfig();
         GeoWareCommon.registerPackets();
+        PacketSettings packetSettings = PacketSettings.fromConfig(getConfig().getConfigurationSection("packets"));
+        packetMetrics = new PacketMetrics(packetSettings);
+        gameSessions = new GameSessionRegistry(SessionSettings.fromConfig(getConfig().getConfigurationSection("sessions")));
+        gameSessions.start(this);
+        selectors = new SelectorEngine(gameSessions);
+        getServer().getOnlinePlayers().forEach(selectors::track);
+        getServer().getPluginManager().registerEvents(new SelectorIndexListener(selectors), this);
+        scoreGuard = new ScoreGuard(ScoreGuardSettings.fromConfig(getConfig().getConfigurationSection("score-guard")), gameSessions);
+        launchDispatcher = new LaunchDispatcher(LaunchSettings.fromConfig(getConfig().getConfigurationSection("launch")));
+        rounds = new RoundManager(RoundSettings.fromConfig(getConfig().getConfigurationSection("round")), gameSessions, launchDispatcher);
         registerCommands();
-        registerPacketChannels();
+        registerPacketChannels(packetSettings);
 
         try {
-            pointsManager = new PointsManager(getDataFolder());
+            pointsManager = new PointsManager(getDataFolder(),
+                    StorageSettings.fromConfig(getConfig().getConfigurationSection("storage")),
+                    LeaderboardSettings.fromConfig(getConfig().getConfigurationSection("leaderboard")),
+                    BackupSettings.fromConfig(getConfig().getConfigurationSection("backup")));
+            pointsManager.getScoreUpdates().start(this);
+            startReplication();
+            getServer().getPluginManager().registerEvents(new PointsCacheListener(pointsManager), this);
+            getServer().getPluginManager().registerEvents(new GameSessionListener(gameSessions, scoreGuard), this);
+            getServer().getOnlinePlayers().forEach(player -> pointsManager.loadPlayer(player.getUniqueId()));
             getLogger().info("Sistema de puntos iniciado correctamente.");
-        } catch (SQLException e) {
-            getLogger().severe("Error al iniciar la base de datos: " + e.getMessage());
+        } catch (SQLException | IOException e) {
+            getLogger().severe("Error al iniciar el almacenamiento de puntos: " + e.getMessage());
             getServer().getPluginManager().disablePlugin(this);
         }
 
@@ -48,20 +105,77 @@ public final class GeoWarePlugin extends JavaPlugin {
             getLogger().warning("PlaceholderAPI no encontrado. Los placeholders no estarán disponibles.");
         }
 
+        if (isEnabled()) {
+            startMetrics();
+        }
         UtilMessage.sendStartupMessage(this);
     }
 
-    private void registerPacketChannels() {
+    private void startMetrics() {
+        MetricsSettings settings = MetricsSettings.fromConfig(getConfig().getConfigurationSection("metrics"));
+        if (!settings.enabled()) {
+            return;
+        }
+        MetricsServer server = new MetricsServer(settings, this);
+        try {
+            server.start();
+            metricsServer = server;
+        } catch (IOException e) {
+            LOGGER.error("Could not open the metrics endpoint on {}:{}", settings.host(), settings.port(), e);
+        }
+    }
+
+    private void startReplication() {
+        ReplicationSettings settings = ReplicationSettings.fromConfig(getConfig().getConfigurationSection("replication"));
+        if (!settings.enabled()) {
+            return;
+        }
+        try {
+            settings = settings.withStoredNodeId(getDataFolder());
+        } catch (IOException e) {
+            LOGGER.error("Error reading or saving the replication node id, replication disabled", e);
+            return;
+        }
+        ReplicationService service = new ReplicationService(settings, getDataFolder());
+        if (!service.lockNode()) {
+            return;
+        }
+        replication = service;
+        pointsManager.addListener(replication);
+        replication.start(pointsManager.getRankIndex());
+    }
+
+    private void registerPacketChannels(PacketSettings settings) {
         getServer().getMessenger().registerOutgoingPluginChannel(this, PACKET_BASE_CHANNEL);
-        getServer().getMessenger().registerIncomingPluginChannel(this, PACKET_BASE_CHANNEL, new PacketListener());
+        packetProcessor = new PacketProcessor(settings, packetMetrics);
+        getServer().getMessenger().registerIncomingPluginChannel(this, PACKET_BASE_CHANNEL, new PacketListener(packetProcessor));
     }
 
     @Override
     public void onDisable() {
+        if (metricsServer != null) {
+            metricsServer.shutdown();
+        }
+        if (gameSessions != null) {
+            gameSessions.stop();
+        }
+        if (packetProcessor != null) {
+            getServer().getMessenger().unregisterIncomingPluginChannel(this, PACKET_BASE_CHANNEL);
+            packetProcessor.shutdown();
+        }
+        if (packetMetrics != null) {
+            packetMetrics.shutdown();
+        }
+        if (rounds != null && pointsManager != null) {
+            rounds.shutdown();
+        }
         if (pointsManager != null) {
             pointsManager.closeConnection();
             getLogger().info("Conexión a la base de datos cerrada.");
         }
+        if (replication != null) {
+            replication.shutdown();
+        }
         UtilMessage.sendShutdownMessage(this);
     }
 
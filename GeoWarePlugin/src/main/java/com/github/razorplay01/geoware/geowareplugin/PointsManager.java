@@ -1,257 +1,368 @@
 package com.github.razorplay01.geoware.geowareplugin;
 
 import com.github.razorplay01.geoware.geowarecommon.util.Pair;
-import com.github.razorplay01.geoware.geowareplugin.network.PacketSender;
-import org.bukkit.Bukkit;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSession;
+import com.github.razorplay01.geoware.geowareplugin.network.ScoreUpdateCoalescer;
+import com.github.razorplay01.geoware.geowareplugin.season.SeasonManager;
+import com.github.razorplay01.geoware.geowareplugin.storage.BackupService;
+import com.github.razorplay01.geoware.geowareplugin.storage.BackupSettings;
+import com.github.razorplay01.geoware.geowareplugin.storage.BulkChange;
+import com.github.razorplay01.geoware.geowareplugin.storage.LeaderboardService;
+import com.github.razorplay01.geoware.geowareplugin.storage.LeaderboardSettings;
+import com.github.razorplay01.geoware.geowareplugin.storage.PointsStore;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import com.github.razorplay01.geoware.geowareplugin.storage.ScoreEvent;
+import com.github.razorplay01.geoware.geowareplugin.storage.StorageSettings;
+import com.github.razorplay01.geoware.geowareplugin.storage.WindowedRankings;
+import lombok.Getter;
 import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.sql.*;
+import java.io.IOException;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-
-import static com.github.razorplay01.geoware.geowareplugin.network.PacketSender.sendScoreUpdaterPacketToClient;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
- * Gestiona los puntos de los jugadores en un servidor de Minecraft utilizando una base de datos SQLite.
+ * Gestiona los puntos de los jugadores en un servidor de Minecraft sobre el backend de almacenamiento configurado.
  */
 public class PointsManager {
-    private final Connection databaseConnection;
-    private static final String TABLE_NAME = "Puntos";
-    private static final String POINTS_COLUMN = "puntos";
-    private static final int TOP_LIMIT = 12;
+    /**
+     * Backend de persistencia (SQLite, diario mapeado en memoria o solo memoria).
+     */
+    @Getter
+    private final PointsStore store;
+
+    /**
+     * Puntos de los jugadores conectados. Se carga al iniciar sesión desde {@link #rankIndex}, se actualiza
+     * tras cada cambio confirmado y se descarta al desconectarse. Las escrituras en la caché se hacen con su
+     * monitor adquirido para que una carga no pise un cambio confirmado a la vez; las lecturas no lo toman.
+     */
+    private final Map<UUID, Integer> pointsCache = new ConcurrentHashMap<>();
+
+    /**
+     * Ranking completo en memoria, reconstruido desde el backend al arrancar y actualizado tras cada cambio.
+     */
+    @Getter
+    private final RankIndex rankIndex = new RankIndex();
+
+    /**
+     * Top y bottom precalculados fuera del hilo principal a partir de {@link #rankIndex}.
+     */
+    @Getter
+    private final LeaderboardService leaderboard;
 
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(20);
+    /**
+     * Envío agrupado por tick de la puntuación a los jugadores cuyos puntos o posición han cambiado.
+     */
+    @Getter
+    private final ScoreUpdateCoalescer scoreUpdates;
+
+    /**
+     * Copias de seguridad periódicas del backend y exportación del ranking.
+     */
+    @Getter
+    private final BackupService backups;
+
+    /**
+     * Temporadas de puntos, guardadas en seasons.yml.
+     */
+    @Getter
+    private final SeasonManager seasons;
+
+    /**
+     * Rankings diarios, semanales y de temporada.
+     */
+    @Getter
+    private final WindowedRankings windowedRankings;
 
     /**
-     * Crea una nueva instancia de PointsManager y establece la conexión a la base de datos.
+     * Oyentes adicionales de los cambios confirmados, como la replicación entre servidores.
+     */
+    private final List<PointsStore.Listener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crea una nueva instancia de PointsManager y abre el backend de almacenamiento configurado.
      *
-     * @param dataFolder Carpeta donde se almacenará el archivo de la base de datos
+     * @param dataFolder          Carpeta donde se almacenarán los datos
+     * @param settings            Parámetros del almacenamiento
+     * @param leaderboardSettings Parámetros de la instantánea del leaderboard
+     * @param backupSettings      Parámetros de las copias de seguridad
      * @throws SQLException Si ocurre un error al conectar con la base de datos
+     * @throws IOException  Si ocurre un error al abrir el diario de puntos
      */
-    public PointsManager(File dataFolder) throws SQLException {
-        File databaseFile = new File(dataFolder, "puntos.db");
-        databaseFile.getParentFile().mkdirs();
-        String url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
-        databaseConnection = DriverManager.getConnection(url);
-        initializeDatabase();
+    public PointsManager(File dataFolder, StorageSettings settings, LeaderboardSettings leaderboardSettings,
+                         BackupSettings backupSettings) throws SQLException, IOException {
+        store = PointsStore.open(dataFolder, settings);
+        rebuildRankIndex();
+        leaderboard = new LeaderboardService(rankIndex, leaderboardSettings);
+        scoreUpdates = new ScoreUpdateCoalescer(rankIndex, leaderboardSettings.notifyPositionChanges());
+        seasons = new SeasonManager(new File(dataFolder, "seasons.yml"));
+        windowedRankings = new WindowedRankings(store, seasons);
+        store.setActiveWindows(windowedRankings::activeWindows);
+        store.setListener(new PointsStore.Listener() {
+            @Override
+            public void onPointsChanged(UUID uuid, String name, int points) {
+                rankIndex.update(uuid, name, points);
+                synchronized (pointsCache) {
+                    pointsCache.replace(uuid, points);
+                }
+                scoreUpdates.markDirty(uuid);
+                leaderboard.markDirty();
+                listeners.forEach(listener -> listener.onPointsChanged(uuid, name, points));
+            }
+
+            @Override
+            public void onAllPointsReset() {
+                rankIndex.resetAll();
+                synchronized (pointsCache) {
+                    pointsCache.replaceAll((uuid, points) -> 0);
+                }
+                scoreUpdates.markAllDirty();
+                leaderboard.markDirty();
+                listeners.forEach(PointsStore.Listener::onAllPointsReset);
+            }
+
+            @Override
+            public void onWindowPointsChanged(String window, UUID uuid, String name, int points) {
+                windowedRankings.onWindowPointsChanged(window, uuid, name, points);
+            }
+        });
+        backups = new BackupService(store, settings.backend(), backupSettings, dataFolder);
+        GeoWarePlugin.LOGGER.info("Points storage backend: {}", settings.backend());
     }
 
     /**
-     * Inicializa la tabla de puntos en la base de datos si no existe.
-     *
-     * @throws SQLException Si ocurre un error al crear la tabla
+     * Añade un oyente que recibe cada cambio confirmado después de actualizar el ranking local, en el
+     * hilo de escritura del backend.
      */
-    private void initializeDatabase() throws SQLException {
-        String createTableQuery = "CREATE TABLE IF NOT EXISTS " + TABLE_NAME +
-                " (uuid TEXT PRIMARY KEY, nombre TEXT, " + POINTS_COLUMN + " INTEGER)";
-        try (Statement statement = databaseConnection.createStatement()) {
-            statement.execute(createTableQuery);
+    public void addListener(PointsStore.Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Carga en el índice de clasificación todos los registros del backend.
+     */
+    private void rebuildRankIndex() throws SQLException, IOException {
+        for (RankIndex.RankEntry entry : store.loadAll()) {
+            rankIndex.update(entry.uuid(), entry.name(), entry.points());
         }
+        GeoWarePlugin.LOGGER.info("Rank index rebuilt with {} players", rankIndex.size());
     }
 
     /**
-     * Cierra la conexión a la base de datos de manera segura.
+     * Confirma las escrituras pendientes y cierra el backend de manera segura.
      */
     public void closeConnection() {
-        try {
-            if (databaseConnection != null && !databaseConnection.isClosed()) {
-                databaseConnection.close();
-            }
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error closing database connection", e);
+        scoreUpdates.stop();
+        leaderboard.shutdown();
+        backups.shutdown();
+        store.close();
+        seasons.shutdown();
+    }
+
+    /**
+     * Carga en caché los puntos de un jugador a partir del ranking en memoria, que contiene a todos los
+     * jugadores, por lo que no consulta el backend.
+     *
+     * @param uuid UUID del jugador
+     */
+    public void loadPlayer(UUID uuid) {
+        synchronized (pointsCache) {
+            pointsCache.putIfAbsent(uuid, Math.max(0, rankIndex.pointsOf(uuid)));
         }
     }
 
+    public boolean isLoaded(UUID uuid) {
+        return pointsCache.containsKey(uuid);
+    }
+
+    /**
+     * Descarta de la caché los puntos de un jugador.
+     *
+     * @param uuid UUID del jugador
+     */
+    public void unloadPlayer(UUID uuid) {
+        synchronized (pointsCache) {
+            pointsCache.remove(uuid);
+        }
+        scoreUpdates.forget(uuid);
+    }
+
     /**
      * Añade puntos al total de un jugador.
      *
      * @param player Jugador al que se añadirán los puntos
      * @param amount Cantidad de puntos a añadir
+     * @return Futuro con el nuevo total, completado tras confirmarse la escritura
      */
-    public void addPoints(Player player, int amount) {
-        modifyPoints(player, amount, true);
+    public CompletableFuture<Integer> addPoints(Player player, int amount) {
+        return store.add(player.getUniqueId(), player.getName(), amount);
     }
 
     /**
-     * Resta puntos del total de un jugador.
+     * Resta puntos del total de un jugador. El total nunca baja de cero.
      *
      * @param player Jugador al que se restarán los puntos
      * @param amount Cantidad de puntos a restar
+     * @return Futuro con el nuevo total, completado tras confirmarse la escritura
      */
-    public void subtractPoints(Player player, int amount) {
-        modifyPoints(player, amount, false);
+    public CompletableFuture<Integer> subtractPoints(Player player, int amount) {
+        return store.subtract(player.getUniqueId(), player.getName(), amount);
     }
 
     /**
-     * Modifica los puntos de un jugador (suma o resta).
+     * Suma la puntuación de una partida al total del jugador y la registra en el historial del minijuego.
      *
-     * @param player     Jugador cuyos puntos serán modificados
-     * @param amount     Cantidad de puntos a modificar
-     * @param isAddition Indica si se suma (true) o resta (false)
+     * @param player  Jugador que ha terminado la partida
+     * @param session Partida a la que se atribuye la puntuación, o null si no se conoce
+     * @param score   Puntos obtenidos
+     * @return Futuro con el nuevo total, completado tras confirmarse la escritura
      */
-    private void modifyPoints(Player player, int amount, boolean isAddition) {
-        String uuid = player.getUniqueId().toString();
-        String playerName = player.getName();
-
-        executorService.submit(() -> {
-            try {
-                int currentPoints = getPlayerPoints(player);
-                int updatedPoints = isAddition ? currentPoints + amount : Math.max(0, currentPoints - amount);
-
-                String upsertQuery = "INSERT OR REPLACE INTO " + TABLE_NAME +
-                        " (uuid, nombre, " + POINTS_COLUMN + ") VALUES (?, ?, ?)";
-                try (PreparedStatement statement = databaseConnection.prepareStatement(upsertQuery)) {
-                    statement.setString(1, uuid);
-                    statement.setString(2, playerName);
-                    statement.setInt(3, updatedPoints);
-                    statement.executeUpdate();
-                }
-            } catch (SQLException e) {
-                GeoWarePlugin.LOGGER.error("Error modifying points for player {}", playerName, e);
-            }
-        });
+    public CompletableFuture<Integer> recordGameScore(Player player, GameSession session, int score) {
+        return recordGameScore(player.getUniqueId(), player.getName(), session, score);
+    }
 
-        sendScoreUpdaterPacketToClient(player);
+    /**
+     * Igual que {@link #recordGameScore(Player, GameSession, int)}, sin tocar la API de Bukkit, para
+     * llamarlo desde cualquier hilo.
+     *
+     * @param uuid    UUID del jugador
+     * @param name    Nombre del jugador
+     * @param session Partida a la que se atribuye la puntuación, o null si no se conoce
+     * @param score   Puntos obtenidos
+     * @return Futuro con el nuevo total, completado tras confirmarse la escritura
+     */
+    public CompletableFuture<Integer> recordGameScore(UUID uuid, String name, GameSession session, int score) {
+        ScoreEvent event = new ScoreEvent(uuid, name,
+                session == null ? ScoreEvent.UNKNOWN_GAME : session.game().getId(),
+                score, System.currentTimeMillis(), session == null ? 0 : session.sessionId());
+        return store.recordScore(event);
+    }
+
+    /**
+     * Registra las puntuaciones de una ronda completa en una única escritura.
+     *
+     * @param events Puntuaciones a registrar
+     * @return Futuro con el nuevo total tras cada puntuación, completado tras confirmarse la escritura
+     */
+    public CompletableFuture<List<RankIndex.RankEntry>> recordScores(List<ScoreEvent> events) {
+        return store.recordScores(events);
     }
 
     /**
      * Restablece los puntos de un jugador a cero.
      *
      * @param player Jugador cuyos puntos serán reiniciados
+     * @return Futuro completado tras confirmarse la escritura
      */
-    public void resetPlayerPoints(Player player) {
-        String uuid = player.getUniqueId().toString();
-        String resetQuery = "UPDATE " + TABLE_NAME + " SET " + POINTS_COLUMN + " = 0 WHERE uuid = ?";
-
-        try (PreparedStatement statement = databaseConnection.prepareStatement(resetQuery)) {
-            statement.setString(1, uuid);
-            statement.executeUpdate();
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error resetting points for player {}", player.getName(), e);
-        }
-        sendScoreUpdaterPacketToClient(player);
+    public CompletableFuture<Void> resetPlayerPoints(Player player) {
+        return store.reset(player.getUniqueId());
     }
 
     /**
      * Restablece los puntos de todos los jugadores a cero.
+     *
+     * @return Futuro completado tras confirmarse la escritura
      */
-    public void resetAllPoints() {
-        String resetAllQuery = "UPDATE " + TABLE_NAME + " SET " + POINTS_COLUMN + " = 0";
-        try (Statement statement = databaseConnection.createStatement()) {
-            statement.execute(resetAllQuery);
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error resetting all players' points", e);
-        }
-        Bukkit.getOnlinePlayers().forEach(PacketSender::sendScoreUpdaterPacketToClient);
+    public CompletableFuture<Void> resetAllPoints() {
+        return store.resetAll();
+    }
+
+    /**
+     * Aplica una lista de cambios en una única escritura, incluidos jugadores desconectados.
+     *
+     * @param changes Cambios a aplicar en orden
+     * @return Futuro con el total final de cada jugador afectado
+     */
+    public CompletableFuture<List<RankIndex.RankEntry>> applyBulk(List<BulkChange> changes) {
+        return store.applyBulk(changes);
     }
 
     /**
-     * Obtiene los puntos actuales de un jugador.
+     * Obtiene los puntos actuales de un jugador desde la caché en memoria.
      *
      * @param player Jugador cuyos puntos se consultarán
-     * @return Cantidad de puntos del jugador, 0 si no tiene registro o en caso de error
+     * @return Cantidad de puntos del jugador, 0 si no tiene registro
      */
     public int getPlayerPoints(Player player) {
-        String uuid = player.getUniqueId().toString();
-        String selectQuery = "SELECT " + POINTS_COLUMN + " FROM " + TABLE_NAME + " WHERE uuid = ?";
-
-        try (PreparedStatement statement = databaseConnection.prepareStatement(selectQuery)) {
-            statement.setString(1, uuid);
-            try (ResultSet result = statement.executeQuery()) {
-                return result.next() ? result.getInt(POINTS_COLUMN) : 0;
-            }
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error retrieving points for player {}", player.getName(), e);
-            return 0;
+        Integer points = pointsCache.get(player.getUniqueId());
+        if (points != null) {
+            return points;
+        }
+        if (player.isOnline()) {
+            loadPlayer(player.getUniqueId());
         }
+        return Math.max(0, rankIndex.pointsOf(player.getUniqueId()));
     }
 
+    /**
+     * Obtiene los puntos y la posición de un jugador a partir del índice de clasificación en memoria.
+     *
+     * @param player Jugador a consultar
+     * @return Par (puntos, posición), o (0, 0) si el jugador no tiene registro
+     */
     public Pair<Integer, Integer> obtenerPuntosYPosicion(Player player) {
-        String uuid = player.getUniqueId().toString();
-        try (Statement stmt = databaseConnection.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT uuid, puntos FROM Puntos ORDER BY puntos DESC")) {
-            int posicion = 0;
-            int puntos = 0;
-            while (rs.next()) {
-                posicion++;
-                if (rs.getString("uuid").equals(uuid)) {
-                    puntos = rs.getInt("puntos");
-                    break;
-                }
-            }
-            if (posicion == 0) {
-                return new Pair<>(0, 0);
-            }
-            return new Pair<>(puntos, posicion);
-        } catch (SQLException e) {
-            e.printStackTrace();
+        RankIndex.Standing standing = rankIndex.standingOf(player.getUniqueId());
+        if (standing == null) {
             return new Pair<>(0, 0);
         }
+        return new Pair<>(standing.points(), standing.position());
     }
 
     /**
-     * Obtiene la lista de los 10 jugadores con más puntos.
+     * Obtiene la lista de los jugadores con más puntos desde la instantánea del leaderboard.
      *
      * @return Lista de cadenas con formato "nombre: puntos"
      */
     public List<String> getTopPlayers() {
         List<String> topPlayers = new ArrayList<>();
-        String topQuery = "SELECT nombre, " + POINTS_COLUMN + " FROM " + TABLE_NAME +
-                " ORDER BY " + POINTS_COLUMN + " DESC LIMIT " + TOP_LIMIT;
-
-        try (Statement statement = databaseConnection.createStatement();
-             ResultSet result = statement.executeQuery(topQuery)) {
-            while (result.next()) {
-                topPlayers.add(result.getString("nombre") + ": " + result.getInt(POINTS_COLUMN));
-            }
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error retrieving top players", e);
+        for (RankIndex.RankEntry entry : leaderboard.getSnapshot().top()) {
+            topPlayers.add(entry.name() + ": " + entry.points());
         }
         return topPlayers;
     }
 
     /**
-     * Obtiene la lista de los 12 jugadores con más puntos, mostrando solo sus nombres.
+     * Obtiene la lista de los jugadores con más puntos, mostrando solo sus nombres.
      *
      * @return Lista de nombres de usuario
      */
     public List<String> getTop12Players() {
         List<String> topPlayers = new ArrayList<>();
-        String topQuery = "SELECT nombre FROM " + TABLE_NAME +
-                " ORDER BY " + POINTS_COLUMN + " DESC LIMIT " + TOP_LIMIT;
-
-        try (Statement statement = databaseConnection.createStatement();
-             ResultSet result = statement.executeQuery(topQuery)) {
-            while (result.next()) {
-                topPlayers.add(result.getString("nombre"));
-            }
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error retrieving top players", e);
+        for (RankIndex.RankEntry entry : leaderboard.getSnapshot().top()) {
+            topPlayers.add(entry.name());
         }
         return topPlayers;
     }
 
     /**
-     * Obtiene la lista de los 10 jugadores con menos puntos (excluyendo cero).
+     * Obtiene los nombres de los jugadores con más puntos en una ventana de tiempo.
+     *
+     * @param window Clave de la ventana, ver {@link WindowedRankings#resolve(String)}
+     * @param limit  Número máximo de jugadores
+     * @return Futuro con la lista de nombres de usuario, de mayor a menor
+     */
+    public CompletableFuture<List<String>> getTopPlayerNames(String window, int limit) {
+        return windowedRankings.top(window, limit)
+                .thenApply(entries -> entries.stream().map(RankIndex.RankEntry::name).toList());
+    }
+
+    /**
+     * Obtiene la lista de los jugadores con menos puntos (excluyendo cero) desde la instantánea del leaderboard.
      *
      * @return Lista de cadenas con formato "nombre: puntos"
      */
     public List<String> getBottomPlayers() {
         List<String> bottomPlayers = new ArrayList<>();
-        String bottomQuery = "SELECT nombre, " + POINTS_COLUMN + " FROM " + TABLE_NAME +
-                " WHERE " + POINTS_COLUMN + " > 0 ORDER BY " + POINTS_COLUMN + " ASC LIMIT " + TOP_LIMIT;
-
-        try (Statement statement = databaseConnection.createStatement();
-             ResultSet result = statement.executeQuery(bottomQuery)) {
-            while (result.next()) {
-                bottomPlayers.add(result.getString("nombre") + ": " + result.getInt(POINTS_COLUMN));
-            }
-        } catch (SQLException e) {
-            GeoWarePlugin.LOGGER.error("Error retrieving bottom players", e);
+        for (RankIndex.RankEntry entry : leaderboard.getSnapshot().bottom()) {
+            bottomPlayers.add(entry.name() + ": " + entry.points());
         }
         return bottomPlayers;
     }
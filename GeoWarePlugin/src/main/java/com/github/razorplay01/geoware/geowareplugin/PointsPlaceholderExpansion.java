@@ -1,9 +1,14 @@
 package com.github.razorplay01.geoware.geowareplugin;
 
+import com.github.razorplay01.geoware.geowareplugin.game.GameSession;
+import com.github.razorplay01.geoware.geowareplugin.replication.ReplicationService;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+
 public class PointsPlaceholderExpansion extends PlaceholderExpansion {
     public PointsPlaceholderExpansion() {
     }
@@ -35,13 +40,108 @@ public class PointsPlaceholderExpansion extends PlaceholderExpansion {
 
     @Override
     public String onPlaceholderRequest(Player player, @NotNull String identifier) {
+        String lowerIdentifier = identifier.toLowerCase();
+        if (lowerIdentifier.startsWith("top_")) { // Placeholders %2dgamepoints_top_<n>_name% y %2dgamepoints_top_<n>_points%
+            return topPlaceholder(lowerIdentifier);
+        }
+
+        if (lowerIdentifier.startsWith("network_")) { // Placeholders de toda la red: %2dgamepoints_network_points%, ...
+            return networkPlaceholder(player, lowerIdentifier.substring("network_".length()));
+        }
+
+        if (lowerIdentifier.equals("sessions")) { // Placeholder %2dgamepoints_sessions%: partidas en curso
+            return String.valueOf(GeoWarePlugin.getInstance().getGameSessions().getActiveCount());
+        }
+
         if (player == null) {
             return ""; // Retorna vacío si no hay jugador (por ejemplo, en consola)
         }
 
-        if (identifier.toLowerCase().equals("points")) {// Placeholder %2dgamepoints_points%
-            return String.valueOf(GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(player));
+        PointsManager pointsManager = GeoWarePlugin.getInstance().getPointsManager();
+        switch (lowerIdentifier) {
+            case "points": // Placeholder %2dgamepoints_points%
+                return String.valueOf(pointsManager.getPlayerPoints(player));
+            case "rank": // Placeholder %2dgamepoints_rank%
+                return String.valueOf(pointsManager.getRankIndex().rankOf(player.getUniqueId()));
+            case "game": { // Placeholder %2dgamepoints_game%: minijuego que está jugando, vacío si ninguno
+                GameSession session = GeoWarePlugin.getInstance().getGameSessions().get(player.getUniqueId());
+                return session == null ? "" : session.game().getId();
+            }
+            case "game_remaining": { // Placeholder %2dgamepoints_game_remaining%: segundos hasta que termine
+                GameSession session = GeoWarePlugin.getInstance().getGameSessions().get(player.getUniqueId());
+                return session == null ? "0" : String.valueOf(session.remainingSeconds(System.currentTimeMillis()));
+            }
+            default:
+                return null; // Retorna null si el placeholder no es reconocido
+        }
+    }
+
+    /**
+     * Puntos, posición y top de toda la red, leídos del estado replicado sin consultar a otros servidores.
+     * Sin replicación activa coinciden con los de este servidor.
+     */
+    private String networkPlaceholder(Player player, String identifier) {
+        ReplicationService replication = GeoWarePlugin.getInstance().getReplication();
+        RankIndex index = replication == null
+                ? GeoWarePlugin.getInstance().getPointsManager().getRankIndex()
+                : replication.getNetworkIndex();
+        if (identifier.startsWith("top_")) { // %2dgamepoints_network_top_<n>_name% y %2dgamepoints_network_top_<n>_points%
+            String[] parts = identifier.split("_");
+            if (parts.length != 3) {
+                return null;
+            }
+            int position;
+            try {
+                position = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            List<RankIndex.RankEntry> top = position < 1 ? List.of() : index.top(position);
+            RankIndex.RankEntry entry = top.size() < position ? null : top.get(position - 1);
+            switch (parts[2]) {
+                case "name":
+                    return entry == null || entry.name() == null ? "" : entry.name();
+                case "points":
+                    return entry == null ? "0" : String.valueOf(entry.points());
+                default:
+                    return null;
+            }
+        }
+
+        if (player == null) {
+            return "";
+        }
+        switch (identifier) {
+            case "points": // %2dgamepoints_network_points%
+                return String.valueOf(Math.max(0, index.pointsOf(player.getUniqueId())));
+            case "rank": // %2dgamepoints_network_rank%
+                return String.valueOf(index.rankOf(player.getUniqueId()));
+            default:
+                return null;
+        }
+    }
+
+    private String topPlaceholder(String identifier) {
+        String[] parts = identifier.split("_");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        int position;
+        try {
+            position = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        RankIndex.RankEntry entry = GeoWarePlugin.getInstance().getPointsManager().getLeaderboard().getSnapshot().topAt(position);
+        switch (parts[2]) {
+            case "name":
+                return entry == null ? "" : entry.name();
+            case "points":
+                return entry == null ? "0" : String.valueOf(entry.points());
+            default:
+                return null;
         }
-        return null; // Retorna null si el placeholder no es reconocido
     }
-}
\ No newline at end of file
+}
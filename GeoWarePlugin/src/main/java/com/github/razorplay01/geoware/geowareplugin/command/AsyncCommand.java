@@ -0,0 +1,63 @@
+package com.github.razorplay01.geoware.geowareplugin.command;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Ejecución de comandos cuyo trabajo ocurre en el backend de almacenamiento.
+ * <p>
+ * El comando solo encola el trabajo desde el hilo principal; cuando el backend lo completa, la respuesta
+ * se construye y se envía de vuelta en el hilo principal a través del scheduler, junto con el tiempo que
+ * ha tardado en completarse.
+ */
+public final class AsyncCommand {
+    private AsyncCommand() {
+    }
+
+    /**
+     * @param sender Quien ejecutó el comando
+     * @param name   Nombre del comando para los registros de error
+     * @param work   Trabajo ya encolado en el backend
+     * @param reply  Termina el comando con el resultado y devuelve la respuesta; se llama en el hilo principal
+     */
+    public static <T> void run(CommandSender sender, String name, CompletableFuture<T> work, Function<T, Component> reply) {
+        long startedAt = System.nanoTime();
+        work.whenComplete((result, throwable) -> {
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+            if (throwable != null) {
+                GeoWarePlugin.LOGGER.error("Error executing command '{}'", name, throwable);
+            }
+            GeoWarePlugin plugin = GeoWarePlugin.getInstance();
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (sender instanceof Player player && !player.isOnline()) {
+                    return;
+                }
+                if (throwable != null) {
+                    sender.sendMessage(Component.text("Error al ejecutar el comando, revisa la consola.").color(NamedTextColor.RED));
+                    return;
+                }
+                sender.sendMessage(reply.apply(result)
+                        .append(Component.text(" (" + elapsedMs + " ms)").color(NamedTextColor.DARK_GRAY)));
+            });
+        });
+    }
+
+    /**
+     * Une varias líneas en un único mensaje.
+     */
+    public static Component lines(List<Component> lines) {
+        return Component.join(JoinConfiguration.newlines(), lines);
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.razorplay01.geoware.geowareplugin.command;
+
+import com.github.razorplay01.geoware.geowareplugin.storage.BulkChange;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interpretación de las operaciones masivas de puntos: listas de jugadores y archivos CSV con líneas
+ * {@code jugador,cantidad[,add|subtract|set]}, donde el jugador es un nombre o un UUID.
+ */
+public final class BulkPoints {
+    /**
+     * Nombres de jugador que se buscan por tick en el hilo principal al resolver un archivo.
+     */
+    private static final int NAME_LOOKUPS_PER_TICK = 200;
+
+    private BulkPoints() {
+    }
+
+    /**
+     * Línea de una operación masiva antes de resolver el jugador.
+     */
+    public record Row(String player, BulkChange.Operation operation, int amount) {
+    }
+
+    /**
+     * @param rows         Líneas válidas en orden
+     * @param invalidLines Líneas que no se pudieron interpretar
+     */
+    public record Parsed(List<Row> rows, int invalidLines) {
+    }
+
+    /**
+     * @param changes        Cambios listos para {@link com.github.razorplay01.geoware.geowareplugin.PointsManager#applyBulk(List)}
+     * @param unknownPlayers Jugadores que no se encontraron
+     * @param invalidLines   Líneas que no se pudieron interpretar
+     */
+    public record Resolved(List<BulkChange> changes, List<String> unknownPlayers, int invalidLines) {
+    }
+
+    public static Optional<BulkChange.Operation> parseOperation(String value) {
+        try {
+            return Optional.of(BulkChange.Operation.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Lee el archivo línea a línea y guarda en memoria solo las líneas válidas ya interpretadas, no el texto.
+     * Las líneas vacías y las que empiezan por '#' se ignoran, y también la primera de las demás si no tiene
+     * una cantidad numérica (cabecera).
+     *
+     * @param file             Archivo CSV
+     * @param defaultOperation Operación de las líneas sin tercera columna
+     */
+    public static Parsed readCsv(Path file, BulkChange.Operation defaultOperation) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        int invalid = 0;
+        boolean first = true;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                Optional<Row> row = parseRow(trimmed.split(","), defaultOperation);
+                if (row.isPresent()) {
+                    rows.add(row.get());
+                } else if (!first) {
+                    invalid++;
+                }
+                first = false;
+            }
+        }
+        return new Parsed(rows, invalid);
+    }
+
+    private static Optional<Row> parseRow(String[] columns, BulkChange.Operation defaultOperation) {
+        if (columns.length < 2 || columns.length > 3 || columns[0].isBlank()) {
+            return Optional.empty();
+        }
+        Optional<BulkChange.Operation> operation = columns.length == 3
+                ? parseOperation(columns[2])
+                : Optional.of(defaultOperation);
+        int amount;
+        try {
+            amount = Integer.parseInt(columns[1].trim());
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        if (amount < 0 || operation.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Row(columns[0].trim(), operation.get(), amount));
+    }
+
+    /**
+     * Traduce cada línea a un cambio por UUID sin bloquear el hilo principal. Las líneas con UUID se
+     * resuelven en el hilo llamante sin consultar a Bukkit, conservando el nombre ya registrado; los nombres
+     * se buscan en el hilo principal, como mucho {@value #NAME_LOOKUPS_PER_TICK} por tick.
+     *
+     * @return Futuro que se completa en el hilo principal con los cambios en el mismo orden que las líneas
+     */
+    public static CompletableFuture<Resolved> resolveAsync(Plugin plugin, Parsed parsed) {
+        List<Row> rows = parsed.rows();
+        BulkChange[] changes = new BulkChange[rows.size()];
+        List<Integer> byName = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            Optional<UUID> uuid = parseUuid(row.player());
+            if (uuid.isPresent()) {
+                changes[i] = new BulkChange(uuid.get(), null, row.operation(), row.amount());
+            } else {
+                byName.add(i);
+            }
+        }
+
+        CompletableFuture<Resolved> result = new CompletableFuture<>();
+        new BukkitRunnable() {
+            private int next;
+
+            @Override
+            public void run() {
+                try {
+                    int end = Math.min(byName.size(), next + NAME_LOOKUPS_PER_TICK);
+                    for (; next < end; next++) {
+                        int index = byName.get(next);
+                        Row row = rows.get(index);
+                        Optional<OfflinePlayer> player = findPlayer(row.player());
+                        if (player.isPresent()) {
+                            changes[index] = new BulkChange(player.get().getUniqueId(), player.get().getName(),
+                                    row.operation(), row.amount());
+                        }
+                    }
+                    if (next < byName.size()) {
+                        return;
+                    }
+                    cancel();
+                    List<BulkChange> resolved = new ArrayList<>(changes.length);
+                    List<String> unknown = new ArrayList<>();
+                    for (int i = 0; i < changes.length; i++) {
+                        if (changes[i] != null) {
+                            resolved.add(changes[i]);
+                        } else {
+                            unknown.add(rows.get(i).player());
+                        }
+                    }
+                    result.complete(new Resolved(resolved, unknown, parsed.invalidLines()));
+                } catch (RuntimeException e) {
+                    cancel();
+                    result.completeExceptionally(e);
+                }
+            }
+        }.runTaskTimer(plugin, 0, 1);
+        return result;
+    }
+
+    /**
+     * Traduce cada línea a un cambio por UUID. Debe llamarse en el hilo principal y solo con pocas líneas,
+     * como las de un comando; para archivos se usa {@link #resolveAsync}.
+     */
+    public static Resolved resolve(Parsed parsed) {
+        List<BulkChange> changes = new ArrayList<>(parsed.rows().size());
+        List<String> unknown = new ArrayList<>();
+        for (Row row : parsed.rows()) {
+            Optional<OfflinePlayer> player = findPlayer(row.player());
+            if (player.isEmpty()) {
+                unknown.add(row.player());
+                continue;
+            }
+            changes.add(new BulkChange(player.get().getUniqueId(), player.get().getName(), row.operation(), row.amount()));
+        }
+        return new Resolved(changes, unknown, parsed.invalidLines());
+    }
+
+    /**
+     * Busca un jugador conectado o desconectado por UUID o por nombre. Los nombres solo se buscan entre
+     * los jugadores que ya han entrado alguna vez, así que nunca se consulta a Mojang.
+     */
+    public static Optional<OfflinePlayer> findPlayer(String nameOrUuid) {
+        Optional<UUID> uuid = parseUuid(nameOrUuid);
+        if (uuid.isPresent()) {
+            return Optional.of(Bukkit.getOfflinePlayer(uuid.get()));
+        }
+        Player online = Bukkit.getPlayerExact(nameOrUuid);
+        if (online != null) {
+            return Optional.of(online);
+        }
+        return Optional.ofNullable(Bukkit.getOfflinePlayerIfCached(nameOrUuid));
+    }
+
+    private static Optional<UUID> parseUuid(String value) {
+        try {
+            return Optional.of(UUID.fromString(value));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
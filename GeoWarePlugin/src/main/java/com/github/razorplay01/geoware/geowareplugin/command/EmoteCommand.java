@@ -1,8 +1,8 @@
 package com.github.razorplay01.geoware.geowareplugin.command;
 
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
 import com.github.razorplay01.geoware.geowareplugin.network.PacketSender;
 import org.bukkit.Bukkit;
-import org.bukkit.GameMode;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -15,7 +15,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class EmoteCommand implements CommandExecutor, TabCompleter {
     private static final String PERMISSION = "geoware.2dgame.emote";
@@ -34,7 +33,13 @@ public class EmoteCommand implements CommandExecutor, TabCompleter {
 
         String target = args[0];
         String emoteId = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets;
+        try {
+            targets = GeoWarePlugin.getInstance().getSelectors().select(sender, target);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§c" + e.getMessage());
+            return true;
+        }
 
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
@@ -47,9 +52,7 @@ public class EmoteCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        for (Player player : targets) {
-            PacketSender.sendEmotePacketToClient(player, emoteId);
-        }
+        PacketSender.sendEmotePacketToClients(targets, emoteId);
         sender.sendMessage("§aEmote " + emoteId + " enviado a " + targets.size() + " jugador(es)");
 
         return true;
@@ -86,32 +89,4 @@ public class EmoteCommand implements CommandExecutor, TabCompleter {
 
         return completions;
     }
-
-    private Collection<Player> getTargetPlayers(String target) {
-        switch (target.toLowerCase()) {
-            case "all":
-                return (Collection<Player>) Bukkit.getOnlinePlayers();
-            case "allnotop":
-                return Bukkit.getOnlinePlayers().stream()
-                        .filter(player -> !player.isOp())
-                        .collect(Collectors.toList());
-            case "adventure":
-                return Bukkit.getOnlinePlayers().stream()
-                        .filter(player -> player.getGameMode() == GameMode.ADVENTURE)
-                        .collect(Collectors.toList());
-            case "survival":
-                return Bukkit.getOnlinePlayers().stream()
-                        .filter(player -> player.getGameMode() == GameMode.SURVIVAL)
-                        .collect(Collectors.toList());
-            case "spectator":
-                return Bukkit.getOnlinePlayers().stream()
-                        .filter(player -> player.getGameMode() == GameMode.SPECTATOR)
-                        .collect(Collectors.toList());
-            default:
-                Player player = Bukkit.getPlayer(target);
-                return player != null && player.isOnline() ?
-                        java.util.Collections.singletonList(player) :
-                        java.util.Collections.emptyList();
-        }
-    }
 }
\ No newline at end of file
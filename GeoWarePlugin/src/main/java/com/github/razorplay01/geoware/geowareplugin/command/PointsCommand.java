@@ -1,6 +1,17 @@
 package com.github.razorplay01.geoware.geowareplugin.command;
 
 import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.game.MiniGame;
+import com.github.razorplay01.geoware.geowareplugin.replication.ReplicationService;
+import com.github.razorplay01.geoware.geowareplugin.season.SeasonManager;
+import com.github.razorplay01.geoware.geowareplugin.selector.PlayerSelector;
+import com.github.razorplay01.geoware.geowareplugin.storage.BulkChange;
+import com.github.razorplay01.geoware.geowareplugin.storage.GameDailyTotal;
+import com.github.razorplay01.geoware.geowareplugin.storage.PointsStore;
+import com.github.razorplay01.geoware.geowareplugin.storage.PointsWriter;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import com.github.razorplay01.geoware.geowareplugin.storage.SqlitePointsStore;
+import com.github.razorplay01.geoware.geowareplugin.storage.WindowedRankings;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
@@ -11,9 +22,19 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class PointsCommand implements CommandExecutor, TabCompleter {
     public PointsCommand() {
@@ -22,7 +43,7 @@ public class PointsCommand implements CommandExecutor, TabCompleter {
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, String[] args) {
         if (args.length == 0) {
-            sender.sendMessage(Component.text("Uso: /2dgamepoints <top10|add|subtract|reset> [opciones]").color(NamedTextColor.RED));
+            sender.sendMessage(Component.text("Uso: /2dgamepoints <top10|add|subtract|reset|bulk|import|backup|stats|game|season|network> [opciones]").color(NamedTextColor.RED));
             return true;
         }
 
@@ -55,8 +76,52 @@ public class PointsCommand implements CommandExecutor, TabCompleter {
                 manejarReset(sender, args[1]);
                 break;
 
+            case "bulk":
+                if (args.length < 4) {
+                    sender.sendMessage(Component.text("Uso: /2dgamepoints bulk <add|subtract|set> <amount> <jugadores|all|allnotop|adventure|survival|spectator>").color(NamedTextColor.RED));
+                    return true;
+                }
+                manejarBulk(sender, args);
+                break;
+
+            case "import":
+                if (args.length < 2) {
+                    sender.sendMessage(Component.text("Uso: /2dgamepoints import <archivo.csv> [add|subtract|set]").color(NamedTextColor.RED));
+                    return true;
+                }
+                manejarImport(sender, args);
+                break;
+
+            case "backup":
+                hacerCopia(sender);
+                break;
+
+            case "stats":
+                enviarEstadisticas(sender);
+                break;
+
+            case "game":
+                if (args.length < 2) {
+                    sender.sendMessage(Component.text("Uso: /2dgamepoints game <juego>").color(NamedTextColor.RED));
+                    return true;
+                }
+                enviarTopJuego(sender, args[1]);
+                break;
+
+            case "season":
+                if (args.length < 2) {
+                    sender.sendMessage(Component.text("Uso: /2dgamepoints season <start <id>|end|top [id]>").color(NamedTextColor.RED));
+                    return true;
+                }
+                manejarTemporada(sender, args);
+                break;
+
+            case "network":
+                enviarTopRed(sender);
+                break;
+
             default:
-                sender.sendMessage(Component.text("Subcomando inválido. Usa: top10, add, subtract, reset").color(NamedTextColor.RED));
+                sender.sendMessage(Component.text("Subcomando inválido. Usa: top10, add, subtract, reset, bulk, import, backup, stats, game, season, network").color(NamedTextColor.RED));
                 break;
         }
         return true;
@@ -100,8 +165,8 @@ public class PointsCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        GeoWarePlugin.getInstance().getPointsManager().addPoints(target, amount);
-        sender.sendMessage(Component.text("Se han añadido " + amount + " puntos a " + username + ". Total: " + GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(target)).color(NamedTextColor.GREEN));
+        AsyncCommand.run(sender, "add", GeoWarePlugin.getInstance().getPointsManager().addPoints(target, amount), total ->
+                Component.text("Se han añadido " + amount + " puntos a " + username + ". Total: " + total).color(NamedTextColor.GREEN));
     }
 
     private void manejarSubtract(CommandSender sender, String username, String amountStr) {
@@ -120,27 +185,289 @@ public class PointsCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        GeoWarePlugin.getInstance().getPointsManager().subtractPoints(target, amount);
-        sender.sendMessage(Component.text("Se han restado " + amount + " puntos a " + username + ". Total: " + GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(target)).color(NamedTextColor.GREEN));
+        AsyncCommand.run(sender, "subtract", GeoWarePlugin.getInstance().getPointsManager().subtractPoints(target, amount), total ->
+                Component.text("Se han restado " + amount + " puntos a " + username + ". Total: " + total).color(NamedTextColor.GREEN));
     }
 
     private void manejarReset(CommandSender sender, String target) {
         if (target.equalsIgnoreCase("all")) {
-            GeoWarePlugin.getInstance().getPointsManager().resetAllPoints();
-            sender.sendMessage(Component.text("Se han reiniciado los puntos de todos los jugadores.").color(NamedTextColor.GREEN));
+            AsyncCommand.run(sender, "reset all", GeoWarePlugin.getInstance().getPointsManager().resetAllPoints(), ignored ->
+                    Component.text("Se han reiniciado los puntos de todos los jugadores.").color(NamedTextColor.GREEN));
         } else {
             Player player = Bukkit.getPlayerExact(target);
             if (player == null) {
                 sender.sendMessage(Component.text("Jugador '" + target + "' no encontrado o no está en línea.").color(NamedTextColor.RED));
                 return;
             }
-            GeoWarePlugin.getInstance().getPointsManager().resetPlayerPoints(player);
-            sender.sendMessage(Component.text("Se han reiniciado los puntos de " + target + ".").color(NamedTextColor.GREEN));
+            AsyncCommand.run(sender, "reset", GeoWarePlugin.getInstance().getPointsManager().resetPlayerPoints(player), ignored ->
+                    Component.text("Se han reiniciado los puntos de " + target + ".").color(NamedTextColor.GREEN));
+        }
+    }
+
+    /**
+     * Aplica la misma operación a una lista de jugadores (nombres o UUID, conectados o no, separados por
+     * comas o espacios) o a los jugadores conectados que cumplan un selector. Las comas dentro de los
+     * corchetes de un selector separan sus filtros, no jugadores.
+     */
+    private void manejarBulk(CommandSender sender, String[] args) {
+        Optional<BulkChange.Operation> operation = BulkPoints.parseOperation(args[1]);
+        if (operation.isEmpty()) {
+            sender.sendMessage(Component.text("Operación inválida. Usa: add, subtract, set").color(NamedTextColor.RED));
+            return;
+        }
+        int amount;
+        try {
+            amount = Integer.parseInt(args[2]);
+            if (amount < 0) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            sender.sendMessage(Component.text("La cantidad debe ser un número entero no negativo.").color(NamedTextColor.RED));
+            return;
+        }
+
+        List<BulkPoints.Row> rows = new ArrayList<>();
+        for (String target : String.join(",", Arrays.copyOfRange(args, 3, args.length)).split(",(?![^\\[]*])")) {
+            if (target.isBlank()) {
+                continue;
+            }
+            Optional<List<Player>> selected;
+            try {
+                selected = seleccionarConectados(sender, target.trim());
+            } catch (IllegalArgumentException e) {
+                sender.sendMessage(Component.text(e.getMessage()).color(NamedTextColor.RED));
+                return;
+            }
+            if (selected.isPresent()) {
+                selected.get().forEach(player -> rows.add(new BulkPoints.Row(player.getUniqueId().toString(), operation.get(), amount)));
+            } else {
+                rows.add(new BulkPoints.Row(target.trim(), operation.get(), amount));
+            }
+        }
+        aplicarBulk(sender, "bulk", CompletableFuture.completedFuture(BulkPoints.resolve(new BulkPoints.Parsed(rows, 0))));
+    }
+
+    /**
+     * Aplica un archivo CSV de la carpeta del plugin. El archivo se lee fuera del hilo principal, los
+     * nombres de jugador se buscan en él en tandas por tick y los cambios se confirman en una única escritura.
+     */
+    private void manejarImport(CommandSender sender, String[] args) {
+        Optional<BulkChange.Operation> operation = args.length >= 3
+                ? BulkPoints.parseOperation(args[2])
+                : Optional.of(BulkChange.Operation.ADD);
+        if (operation.isEmpty()) {
+            sender.sendMessage(Component.text("Operación inválida. Usa: add, subtract, set").color(NamedTextColor.RED));
+            return;
+        }
+        GeoWarePlugin plugin = GeoWarePlugin.getInstance();
+        Path folder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path file = folder.resolve(args[1]).normalize();
+        if (!file.startsWith(folder) || !Files.isRegularFile(file)) {
+            sender.sendMessage(Component.text("Archivo no encontrado en la carpeta del plugin: " + args[1]).color(NamedTextColor.RED));
+            return;
+        }
+
+        Executor async = task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+        CompletableFuture<BulkPoints.Resolved> resolved = CompletableFuture.supplyAsync(() -> {
+            try {
+                return BulkPoints.readCsv(file, operation.get());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, async).thenCompose(parsed -> BulkPoints.resolveAsync(plugin, parsed));
+        aplicarBulk(sender, "import", resolved);
+    }
+
+    private void aplicarBulk(CommandSender sender, String name, CompletableFuture<BulkPoints.Resolved> resolved) {
+        AsyncCommand.run(sender, name, resolved.thenCompose(request -> {
+            CompletableFuture<List<RankIndex.RankEntry>> totals = request.changes().isEmpty()
+                    ? CompletableFuture.completedFuture(List.of())
+                    : GeoWarePlugin.getInstance().getPointsManager().applyBulk(request.changes());
+            return totals.thenApply(players -> {
+                List<Component> lines = new ArrayList<>();
+                lines.add(Component.text("Se han aplicado " + request.changes().size() + " cambios a "
+                        + players.size() + " jugador(es).").color(NamedTextColor.GREEN));
+                if (!request.unknownPlayers().isEmpty()) {
+                    List<String> shown = request.unknownPlayers().subList(0, Math.min(10, request.unknownPlayers().size()));
+                    lines.add(Component.text("Jugadores no encontrados (" + request.unknownPlayers().size() + "): "
+                            + String.join(", ", shown) + (shown.size() < request.unknownPlayers().size() ? ", ..." : ""))
+                            .color(NamedTextColor.YELLOW));
+                }
+                if (request.invalidLines() > 0) {
+                    lines.add(Component.text("Líneas no válidas: " + request.invalidLines()).color(NamedTextColor.YELLOW));
+                }
+                return AsyncCommand.lines(lines);
+            });
+        }), Function.identity());
+    }
+
+    /**
+     * @return Los jugadores conectados que cumplen el selector, o vacío si es un nombre o UUID
+     * @throws IllegalArgumentException Si el selector no es válido
+     */
+    private static Optional<List<Player>> seleccionarConectados(CommandSender sender, String selector) {
+        if (!PlayerSelector.isSelector(selector)) {
+            return Optional.empty();
+        }
+        return Optional.of(GeoWarePlugin.getInstance().getSelectors().select(sender, selector));
+    }
+
+    private void hacerCopia(CommandSender sender) {
+        sender.sendMessage(Component.text("Haciendo copia de seguridad de los puntos...").color(NamedTextColor.YELLOW));
+        AsyncCommand.run(sender, "backup", GeoWarePlugin.getInstance().getPointsManager().getBackups().runNow(), result -> {
+            List<Component> lines = new ArrayList<>();
+            lines.add(Component.text(result.backup() == null
+                    ? "El backend actual no guarda datos en disco; no hay copia."
+                    : "Copia guardada en " + result.backup().getFileName()).color(NamedTextColor.GREEN));
+            if (result.export() != null) {
+                lines.add(Component.text("Ranking exportado a " + result.export().getFileName()
+                        + " (" + result.exportedEntries() + " jugadores)").color(NamedTextColor.GREEN));
+            }
+            return AsyncCommand.lines(lines);
+        });
+    }
+
+    private void enviarEstadisticas(CommandSender sender) {
+        PointsStore store = GeoWarePlugin.getInstance().getPointsManager().getStore();
+        sender.sendMessage(Component.text("=== Almacenamiento de puntos ===").color(NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("Backend: " + store.getClass().getSimpleName()).color(NamedTextColor.YELLOW));
+        if (!(store instanceof SqlitePointsStore sqliteStore)) {
+            return;
+        }
+        PointsWriter writer = sqliteStore.getWriter();
+        sender.sendMessage(Component.text("Cola: " + writer.getQueueDepth() + " pendientes, "
+                + writer.getSaturatedOffers() + " esperas por cola llena").color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text("Lotes: " + writer.getCommittedBatches() + " (" + writer.getCommittedWrites()
+                + " escrituras, " + writer.getFailedWrites() + " fallidas)").color(NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text(String.format("Commit: último %.2f ms, medio %.2f ms, máximo %.2f ms",
+                writer.getLastCommitNanos() / 1_000_000.0,
+                writer.getAverageCommitNanos() / 1_000_000.0,
+                writer.getMaxCommitNanos() / 1_000_000.0)).color(NamedTextColor.YELLOW));
+    }
+
+    /**
+     * Muestra el top 10 de toda la red a partir del estado replicado, sin consultar a otros servidores.
+     */
+    private void enviarTopRed(CommandSender sender) {
+        ReplicationService replication = GeoWarePlugin.getInstance().getReplication();
+        if (replication == null) {
+            sender.sendMessage(Component.text("La replicación entre servidores está desactivada.").color(NamedTextColor.RED));
+            return;
+        }
+        sender.sendMessage(Component.text("=== Top 10 de la red ===").color(NamedTextColor.GOLD));
+        List<RankIndex.RankEntry> top = replication.getNetworkIndex().top(10);
+        if (top.isEmpty()) {
+            sender.sendMessage(Component.text("No hay jugadores con puntos aún.").color(NamedTextColor.YELLOW));
+        }
+        for (int i = 0; i < top.size(); i++) {
+            // El nombre puede no haber llegado aún desde el servidor donde jugó
+            String name = top.get(i).name() == null ? top.get(i).uuid().toString() : top.get(i).name();
+            sender.sendMessage(Component.text("#" + (i + 1) + " " + name + ": " + top.get(i).points()).color(NamedTextColor.GREEN));
+        }
+        sender.sendMessage(Component.text("Servidor " + replication.getSettings().nodeId() + ", "
+                + replication.getKnownNodes() + " servidor(es) más, " + replication.getPlayers() + " jugadores; "
+                + replication.getPublished() + " estados publicados, " + replication.getApplied() + " aplicados"
+                + " (último intercambio: " + replication.getLastExchangeMs() + " ms)").color(NamedTextColor.GRAY));
+    }
+
+    /**
+     * Muestra el top 10 de un minijuego y sus puntos de los últimos 7 días a partir de los agregados del backend.
+     */
+    private void enviarTopJuego(CommandSender sender, String gameId) {
+        Optional<MiniGame> game = MiniGame.fromId(gameId);
+        if (game.isEmpty()) {
+            sender.sendMessage(Component.text("Juego desconocido: " + gameId).color(NamedTextColor.RED));
+            return;
+        }
+        String id = game.get().getId();
+        PointsStore store = GeoWarePlugin.getInstance().getPointsManager().getStore();
+        long today = LocalDate.now().toEpochDay();
+        AsyncCommand.run(sender, "game", store.gameTop(id, 10).thenCombine(store.gameDaily(id, today - 6, today), (top, daily) -> {
+            List<Component> lines = new ArrayList<>();
+            lines.add(Component.text("=== Top 10 " + id + " ===").color(NamedTextColor.GOLD));
+            if (top.isEmpty()) {
+                lines.add(Component.text("No hay puntuaciones registradas.").color(NamedTextColor.GRAY));
+            }
+            for (int i = 0; i < top.size(); i++) {
+                lines.add(Component.text((i + 1) + ". " + top.get(i).name() + ": " + top.get(i).points()).color(NamedTextColor.GREEN));
+            }
+            long points = daily.stream().mapToLong(GameDailyTotal::points).sum();
+            int events = daily.stream().mapToInt(GameDailyTotal::events).sum();
+            lines.add(Component.text("Últimos 7 días: " + points + " puntos en " + events + " partidas").color(NamedTextColor.YELLOW));
+            return lines;
+        }), AsyncCommand::lines);
+    }
+
+    private void manejarTemporada(CommandSender sender, String[] args) {
+        WindowedRankings rankings = GeoWarePlugin.getInstance().getPointsManager().getWindowedRankings();
+        SeasonManager seasons = GeoWarePlugin.getInstance().getPointsManager().getSeasons();
+        switch (args[1].toLowerCase()) {
+            case "start":
+                if (args.length < 3) {
+                    sender.sendMessage(Component.text("Uso: /2dgamepoints season start <id>").color(NamedTextColor.RED));
+                    return;
+                }
+                if (!SeasonManager.isValidId(args[2])) {
+                    sender.sendMessage(Component.text("El id de temporada solo puede tener letras, números, '_' y '-' (máximo 14).").color(NamedTextColor.RED));
+                    return;
+                }
+                if (seasons.find(args[2]).isPresent()) {
+                    sender.sendMessage(Component.text("La temporada '" + args[2] + "' ya existe.").color(NamedTextColor.RED));
+                    return;
+                }
+                SeasonManager.Season ended = rankings.startSeason(args[2]);
+                if (ended != null) {
+                    sender.sendMessage(Component.text("Temporada '" + ended.id() + "' terminada.").color(NamedTextColor.YELLOW));
+                }
+                sender.sendMessage(Component.text("Temporada '" + args[2] + "' iniciada.").color(NamedTextColor.GREEN));
+                break;
+
+            case "end":
+                SeasonManager.Season previous = rankings.endSeason();
+                if (previous == null) {
+                    sender.sendMessage(Component.text("No hay ninguna temporada activa.").color(NamedTextColor.RED));
+                } else {
+                    sender.sendMessage(Component.text("Temporada '" + previous.id() + "' terminada.").color(NamedTextColor.GREEN));
+                }
+                break;
+
+            case "top":
+                SeasonManager.Season season = args.length >= 3 ? seasons.find(args[2]).orElse(null) : seasons.getActive();
+                if (season == null) {
+                    sender.sendMessage(Component.text(args.length >= 3
+                            ? "Temporada desconocida: " + args[2]
+                            : "No hay ninguna temporada activa.").color(NamedTextColor.RED));
+                    return;
+                }
+                enviarTopTemporada(sender, rankings, season);
+                break;
+
+            default:
+                sender.sendMessage(Component.text("Uso: /2dgamepoints season <start <id>|end|top [id]>").color(NamedTextColor.RED));
+                break;
         }
     }
 
+    /**
+     * Muestra el top 10 de una temporada. La activa se sirve desde memoria; las terminadas se leen del
+     * backend fuera del hilo principal.
+     */
+    private void enviarTopTemporada(CommandSender sender, WindowedRankings rankings, SeasonManager.Season season) {
+        AsyncCommand.run(sender, "season top", rankings.top(WindowedRankings.seasonKey(season.id()), 10), top -> {
+            List<Component> lines = new ArrayList<>();
+            lines.add(Component.text("=== Top 10 temporada " + season.id()
+                    + (season.isActive() ? " (activa)" : "") + " ===").color(NamedTextColor.GOLD));
+            if (top.isEmpty()) {
+                lines.add(Component.text("No hay puntuaciones registradas.").color(NamedTextColor.GRAY));
+            }
+            for (int i = 0; i < top.size(); i++) {
+                lines.add(Component.text((i + 1) + ". " + top.get(i).name() + ": " + top.get(i).points()).color(NamedTextColor.GREEN));
+            }
+            return AsyncCommand.lines(lines);
+        });
+    }
 
-    private static final List<String> SUBCOMMANDS = Arrays.asList("top10", "add", "subtract", "reset");
+    private static final List<String> SUBCOMMANDS = Arrays.asList("top10", "add", "subtract", "reset", "bulk", "import", "backup", "stats", "game", "season", "network");
+    private static final List<String> BULK_OPERATIONS = Arrays.asList("add", "subtract", "set");
+    private static final List<String> SELECTORS = Arrays.asList("all", "allnotop", "adventure", "survival", "spectator");
 
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String alias, String[] args) {
@@ -168,7 +495,47 @@ public class PointsCommand implements CommandExecutor, TabCompleter {
                 if (subcommand.equals("reset") && "all".startsWith(input)) {
                     completions.add("all");
                 }
+            } else if (subcommand.equals("game")) {
+                completions.addAll(Arrays.stream(MiniGame.values())
+                        .map(MiniGame::getId)
+                        .filter(id -> id.startsWith(input))
+                        .toList());
+            } else if (subcommand.equals("bulk")) {
+                completions.addAll(BULK_OPERATIONS.stream()
+                        .filter(operation -> operation.startsWith(input))
+                        .toList());
+            } else if (subcommand.equals("import")) {
+                String[] files = GeoWarePlugin.getInstance().getDataFolder().list((dir, name) -> name.endsWith(".csv"));
+                if (files != null) {
+                    completions.addAll(Arrays.stream(files)
+                            .filter(name -> name.toLowerCase().startsWith(input))
+                            .toList());
+                }
+            } else if (subcommand.equals("season")) {
+                completions.addAll(Stream.of("start", "end", "top")
+                        .filter(action -> action.startsWith(input))
+                        .toList());
             }
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("import")) {
+            String input = args[2].toLowerCase();
+            completions.addAll(BULK_OPERATIONS.stream()
+                    .filter(operation -> operation.startsWith(input))
+                    .toList());
+        } else if (args.length >= 4 && args[0].equalsIgnoreCase("bulk")) {
+            String input = args[args.length - 1].toLowerCase();
+            completions.addAll(SELECTORS.stream()
+                    .filter(selector -> selector.startsWith(input))
+                    .toList());
+            completions.addAll(Bukkit.getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(name -> name.toLowerCase().startsWith(input))
+                    .toList());
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("season") && args[1].equalsIgnoreCase("top")) {
+            String input = args[2].toLowerCase();
+            completions.addAll(GeoWarePlugin.getInstance().getPointsManager().getSeasons().getHistory().stream()
+                    .map(SeasonManager.Season::id)
+                    .filter(id -> id.toLowerCase().startsWith(input))
+                    .toList());
         }
 
         return completions;
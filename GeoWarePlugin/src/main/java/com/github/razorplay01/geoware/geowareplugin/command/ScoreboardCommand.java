@@ -2,10 +2,11 @@ package com.github.razorplay01.geoware.geowareplugin.command;
 
 import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
 import com.github.razorplay01.geoware.geowareplugin.network.PacketSender;
+import com.github.razorplay01.geoware.geowareplugin.season.SeasonManager;
+import com.github.razorplay01.geoware.geowareplugin.selector.PlayerSelector;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
-import org.bukkit.GameMode;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,6 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class ScoreboardCommand implements CommandExecutor, TabCompleter {
@@ -30,7 +32,7 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
                              @NotNull String label, @NotNull String[] args) {
         if (args.length < 8) {
             sender.sendMessage(Component.text("Uso: /2dgamescoreboard <target> <fadeInMs> <stayMs> <fadeOutMs> <offsetX> <offsetY> <scale> \"<list>\"").color(NamedTextColor.RED));
-            sender.sendMessage(Component.text("Uso: /2dgamescoreboard <target> <fadeInMs> <stayMs> <fadeOutMs> <offsetX> <offsetY> <scale> auto").color(NamedTextColor.RED));
+            sender.sendMessage(Component.text("Uso: /2dgamescoreboard <target> <fadeInMs> <stayMs> <fadeOutMs> <offsetX> <offsetY> <scale> auto [all|daily|weekly|season|season:<id>]").color(NamedTextColor.RED));
             return true;
         }
 
@@ -38,7 +40,6 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
         long fadeInMs, stayMs, fadeOutMs;
         int offsetX, offsetY;
         float scale;
-        List<String> texts;
 
         try {
             fadeInMs = Long.parseLong(args[1]);
@@ -53,14 +54,26 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
         }
 
         String lastArg = args[7];
+        CompletableFuture<List<String>> texts;
         if (lastArg.equalsIgnoreCase("auto")) {
-            texts = plugin.getPointsManager().getTop12Players();
-            while (texts.size() < 12) {
-                texts.add("");
-            }
-            if (texts.size() > 12) {
-                texts = texts.subList(0, 12);
+            String windowName = args.length > 8 ? args[8] : "all";
+            if (windowName.equalsIgnoreCase("all")) {
+                texts = CompletableFuture.completedFuture(plugin.getPointsManager().getTop12Players());
+            } else {
+                String window = plugin.getPointsManager().getWindowedRankings().resolve(windowName);
+                if (window == null) {
+                    sender.sendMessage(Component.text("Error: Ventana no válida o sin temporada activa: " + windowName).color(NamedTextColor.RED));
+                    return true;
+                }
+                texts = plugin.getPointsManager().getTopPlayerNames(window, 12);
             }
+            texts = texts.thenApply(names -> {
+                List<String> padded = new ArrayList<>(names.subList(0, Math.min(12, names.size())));
+                while (padded.size() < 12) {
+                    padded.add("");
+                }
+                return padded;
+            });
         } else {
             String listRaw = String.join(" ", Arrays.copyOfRange(args, 7, args.length));
             if (!listRaw.startsWith("\"") || !listRaw.endsWith("\"")) {
@@ -69,48 +82,26 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
             }
 
             String listContent = listRaw.substring(1, listRaw.length() - 1);
-            texts = new ArrayList<>(Arrays.asList(listContent.split(",")));
-            for (int i = 0; i < texts.size(); i++) {
-                texts.set(i, texts.get(i).trim());
+            List<String> list = new ArrayList<>(Arrays.asList(listContent.split(",")));
+            for (int i = 0; i < list.size(); i++) {
+                list.set(i, list.get(i).trim());
             }
-            while (texts.size() < 12) {
-                texts.add("");
+            while (list.size() < 12) {
+                list.add("");
             }
+            texts = CompletableFuture.completedFuture(list);
         }
 
-        List<Player> targets = new ArrayList<>();
-        switch (target.toLowerCase()) {
-            case "all":
-                targets.addAll(Bukkit.getOnlinePlayers());
-                break;
-            case "allnotop":
-                targets.addAll(Bukkit.getOnlinePlayers().stream()
-                        .filter(p -> !p.isOp())
-                        .toList());
-                break;
-            case "adventure":
-                targets.addAll(Bukkit.getOnlinePlayers().stream()
-                        .filter(p -> p.getGameMode() == GameMode.ADVENTURE)
-                        .toList());
-                break;
-            case "survival":
-                targets.addAll(Bukkit.getOnlinePlayers().stream()
-                        .filter(p -> p.getGameMode() == GameMode.SURVIVAL)
-                        .toList());
-                break;
-            case "spectator":
-                targets.addAll(Bukkit.getOnlinePlayers().stream()
-                        .filter(p -> p.getGameMode() == GameMode.SPECTATOR)
-                        .toList());
-                break;
-            default:
-                Player player = Bukkit.getPlayer(target);
-                if (player != null && player.isOnline()) {
-                    targets.add(player);
-                } else {
-                    sender.sendMessage(Component.text("Jugador no encontrado: " + target).color(NamedTextColor.RED));
-                    return true;
-                }
+        List<Player> targets;
+        try {
+            targets = plugin.getSelectors().select(sender, target);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(Component.text(e.getMessage()).color(NamedTextColor.RED));
+            return true;
+        }
+        if (targets.isEmpty() && !PlayerSelector.isSelector(target)) {
+            sender.sendMessage(Component.text("Jugador no encontrado: " + target).color(NamedTextColor.RED));
+            return true;
         }
 
         if (targets.isEmpty()) {
@@ -118,10 +109,12 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        for (Player targetPlayer : targets) {
-            PacketSender.sendScoreboardPacketToClient(targetPlayer, texts, fadeInMs, stayMs, fadeOutMs, offsetX, offsetY, scale);
-        }
-        sender.sendMessage(Component.text("Scoreboard enviado a " + targets.size() + " jugador(es)").color(NamedTextColor.GREEN));
+        // Las ventanas cerradas se leen del backend fuera del hilo principal; el envío vuelve a él
+        AsyncCommand.run(sender, "scoreboard", texts, list -> {
+            List<Player> online = targets.stream().filter(Player::isOnline).toList();
+            PacketSender.sendScoreboardPacketToClients(online, list, fadeInMs, stayMs, fadeOutMs, offsetX, offsetY, scale);
+            return Component.text("Scoreboard enviado a " + targets.size() + " jugador(es)").color(NamedTextColor.GREEN);
+        });
         return true;
     }
 
@@ -161,6 +154,14 @@ public class ScoreboardCommand implements CommandExecutor, TabCompleter {
                     completions.add("auto");
                 }
                 break;
+            case 9: // ventana del modo auto
+                if (args[7].equalsIgnoreCase("auto")) {
+                    completions.addAll(Arrays.asList("all", "daily", "weekly", "season"));
+                    for (SeasonManager.Season season : plugin.getPointsManager().getSeasons().getHistory()) {
+                        completions.add("season:" + season.id());
+                    }
+                }
+                break;
         }
 
         // Filtrar basándose en lo que ya se escribió
@@ -1,21 +1,31 @@
 package com.github.razorplay01.geoware.geowareplugin.command;
 
 import co.aikar.commands.BaseCommand;
+import co.aikar.commands.ConditionFailedException;
 import co.aikar.commands.annotation.*;
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSession;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSessionRegistry;
+import com.github.razorplay01.geoware.geowareplugin.game.LaunchDispatcher;
+import com.github.razorplay01.geoware.geowareplugin.game.LaunchSettings;
+import com.github.razorplay01.geoware.geowareplugin.game.MiniGame;
+import com.github.razorplay01.geoware.geowareplugin.game.RoundManager;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketMetrics;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketProcessor;
 import com.github.razorplay01.geoware.geowareplugin.network.PacketSender;
 import org.bukkit.Bukkit;
-import org.bukkit.GameMode;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @CommandAlias("2dgame")
 @CommandPermission("geoware.2dgame")
 public class TwoDGameCommand extends BaseCommand {
+    private static final int SESSIONS_SHOWN = 10;
 
     @Subcommand("tetris")
     @CommandCompletion("@players|all|allnotop|adventure|survival|spectator 60|180|300 1.0|3.0|5.0")
@@ -24,15 +34,14 @@ public class TwoDGameCommand extends BaseCommand {
                          @Name("target") String target,
                          @Default("60") @Name("timeLimit") int timeLimit,
                          @Default("3.0") @Name("speed") float speed) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendTetrisPacketToClient(player, timeLimit, speed);
-        }
-        sender.sendMessage("§aPacket Tetris enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.TETRIS, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendTetrisPacketToClients(wave, waveTimeLimit, speed));
+        sender.sendMessage("§aPacket Tetris enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("hanoitowers")
@@ -42,15 +51,14 @@ public class TwoDGameCommand extends BaseCommand {
                               @Name("target") String target,
                               @Default("60") @Name("timeLimit") int timeLimit,
                               @Default("5") @Name("rings") @Conditions("limits:min=1,max=8") int rings) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendHanoiTowersPacketToClient(player, timeLimit, rings);
-        }
-        sender.sendMessage("§aPacket HanoiTowers enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.HANOI_TOWERS, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendHanoiTowersPacketToClients(wave, waveTimeLimit, rings));
+        sender.sendMessage("§aPacket HanoiTowers enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("donkeykong")
@@ -61,15 +69,14 @@ public class TwoDGameCommand extends BaseCommand {
                              @Default("60") @Name("timeLimit") int timeLimit,
                              @Default("80") @Name("spawnInterval") int spawnInterval,
                              @Default("0.7") @Name("spawnProb") float spawnProb) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendDonkeyKongPacketToClient(player, timeLimit, spawnInterval, spawnProb);
-        }
-        sender.sendMessage("§aPacket DonkeyKong enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.DONKEY_KONG, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendDonkeyKongPacketToClients(wave, waveTimeLimit, spawnInterval, spawnProb));
+        sender.sendMessage("§aPacket DonkeyKong enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("bubblepuzzle")
@@ -79,15 +86,14 @@ public class TwoDGameCommand extends BaseCommand {
                                @Name("target") String target,
                                @Default("60") @Name("timeLimit") int timeLimit,
                                @Default("1") @Name("level") @Conditions("limits:min=1,max=3") int level) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendBubblePuzzlePacketToClient(player, timeLimit, level);
-        }
-        sender.sendMessage("§aPacket BubblePuzzle enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.BUBBLE_PUZZLE, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendBubblePuzzlePacketToClients(wave, waveTimeLimit, level));
+        sender.sendMessage("§aPacket BubblePuzzle enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("arkanoid")
@@ -97,30 +103,28 @@ public class TwoDGameCommand extends BaseCommand {
                            @Name("target") String target,
                            @Default("60") @Name("timeLimit") int timeLimit,
                            @Default("1") @Name("level") @Conditions("limits:min=1,max=3") int level) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendArkanoidPacketToClient(player, timeLimit, level);
-        }
-        sender.sendMessage("§aPacket Arkanoid enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.ARKANOID, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendArkanoidPacketToClients(wave, waveTimeLimit, level));
+        sender.sendMessage("§aPacket Arkanoid enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
     @Subcommand("guitarhero")
     @CommandCompletion("@players|all|allnotop|adventure|survival|spectator")
     @Description("Inicia el juego GuitarHero para los jugadores objetivo")
     public void onGuitarHero(CommandSender sender,
                            @Name("target") String target) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendGuitarHeroPacketToClient(player);
-        }
-        sender.sendMessage("§aPacket GuitarHero enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.GUITAR_HERO, targets, 0,
+                (wave, waveTimeLimit) -> PacketSender.sendGuitarHeroPacketToClients(wave));
+        sender.sendMessage("§aPacket GuitarHero enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("fruitfocus")
@@ -131,15 +135,14 @@ public class TwoDGameCommand extends BaseCommand {
                              @Default("60") @Name("timeLimit") int timeLimit,
                              @Default("10") @Name("hideDuration") int hideDuration,
                              @Default("6") @Name("fruitsToHide") int fruitsToHide) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendFruitFocusPacketToClient(player, timeLimit, hideDuration, fruitsToHide);
-        }
-        sender.sendMessage("§aPacket FruitFocus enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.FRUIT_FOCUS, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendFruitFocusPacketToClients(wave, waveTimeLimit, hideDuration, fruitsToHide));
+        sender.sendMessage("§aPacket FruitFocus enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("galaga")
@@ -149,15 +152,14 @@ public class TwoDGameCommand extends BaseCommand {
                          @Name("target") String target,
                          @Default("60") @Name("timeLimit") int timeLimit,
                          @Default("1") @Name("level") @Conditions("limits:min=1,max=3") int level) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendGalagaPacketToClient(player, timeLimit, level);
-        }
-        sender.sendMessage("§aPacket Galaga enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.GALAGA, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendGalagaPacketToClients(wave, waveTimeLimit, level));
+        sender.sendMessage("§aPacket Galaga enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("keybind")
@@ -172,15 +174,14 @@ public class TwoDGameCommand extends BaseCommand {
             sender.sendMessage("§cLa probabilidad de spawn debe estar entre 0.0 y 100.0.");
             return;
         }
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendKeyBindPacketToClient(player, timeLimit, circleSpeed, spawnChance);
-        }
-        sender.sendMessage("§aPacket KeyBind enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.KEY_BIND, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendKeyBindPacketToClients(wave, waveTimeLimit, circleSpeed, spawnChance));
+        sender.sendMessage("§aPacket KeyBind enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("robotfactory")
@@ -192,15 +193,14 @@ public class TwoDGameCommand extends BaseCommand {
                                @Default("1.0") @Name("speed") float speed,
                                @Default("false") @Name("rotation") boolean rotation,
                                @Default("5") @Name("partQuantity") @Conditions("limits:min=1,max=10") int partQuantity) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendRobotFactoryPacketToClient(player, timeLimit, speed, rotation, partQuantity);
-        }
-        sender.sendMessage("§aPacket RobotFactory enviado a " + targets.size() + " jugador(es)");
+        LaunchDispatcher.Launch launch = launch(MiniGame.ROBOT_FACTORY, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendRobotFactoryPacketToClients(wave, waveTimeLimit, speed, rotation, partQuantity));
+        sender.sendMessage("§aPacket RobotFactory enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
     }
 
     @Subcommand("scarymaze")
@@ -210,41 +210,203 @@ public class TwoDGameCommand extends BaseCommand {
                             @Name("target") String target,
                             @Default("60") @Name("timeLimit") int timeLimit,
                             @Default("1") @Name("level") @Conditions("limits:min=1,max=3") int level) {
-        Collection<Player> targets = getTargetPlayers(target);
+        Collection<Player> targets = getTargetPlayers(sender, target);
+        if (targets.isEmpty()) {
+            sender.sendMessage("§cNo se encontraron jugadores válidos.");
+            return;
+        }
+        LaunchDispatcher.Launch launch = launch(MiniGame.SCARY_MAZE, targets, timeLimit,
+                (wave, waveTimeLimit) -> PacketSender.sendScaryMazePacketToClients(wave, waveTimeLimit, level));
+        sender.sendMessage("§aPacket ScaryMaze enviado a " + targets.size() + " jugador(es)" + describeWaves(launch));
+    }
+
+    @Subcommand("round status")
+    @Description("Muestra el estado de la ronda en curso")
+    public void onRoundStatus(CommandSender sender) {
+        RoundManager.Round round = GeoWarePlugin.getInstance().getRounds().getActive();
+        if (round == null) {
+            sender.sendMessage("§7No hay ninguna ronda en curso.");
+            return;
+        }
+        long remaining = Math.max(0, (round.deadline() - System.currentTimeMillis()) / 1000);
+        sender.sendMessage("§6Ronda de §e" + round.game().getId() + "§6: §f" + round.reported() + "/"
+                + round.expected().size() + " resultados §7(plazo en " + remaining + " s)");
+    }
+
+    @Subcommand("round end")
+    @Description("Termina la ronda en curso sin esperar a los resultados que faltan")
+    public void onRoundEnd(CommandSender sender) {
+        if (!GeoWarePlugin.getInstance().getRounds().finishNow()) {
+            sender.sendMessage("§cNo hay ninguna ronda en curso.");
+            return;
+        }
+        sender.sendMessage("§aRonda terminada, guardando resultados...");
+    }
+
+    @Subcommand("round")
+    @CommandCompletion("tetris|hanoitowers|donkeykong|bubblepuzzle|arkanoid|fruitfocus|galaga|keybind|robotfactory|scarymaze|guitarhero @players|all|allnotop|adventure|survival|spectator 60|180|300")
+    @Description("Lanza una ronda: guarda todos los resultados juntos al terminar y publica el scoreboard")
+    public void onRound(CommandSender sender,
+                        @Name("game") String gameId,
+                        @Name("target") String target,
+                        @Default("60") @Name("timeLimit") int timeLimit) {
+        Optional<MiniGame> game = MiniGame.fromId(gameId);
+        if (game.isEmpty()) {
+            sender.sendMessage("§cJuego inválido: " + gameId);
+            return;
+        }
+        Collection<Player> targets = getTargetPlayers(sender, target);
         if (targets.isEmpty()) {
             sender.sendMessage("§cNo se encontraron jugadores válidos.");
             return;
         }
-        for (Player player : targets) {
-            PacketSender.sendScaryMazePacketToClient(player, timeLimit, level);
-        }
-        sender.sendMessage("§aPacket ScaryMaze enviado a " + targets.size() + " jugador(es)");
-    }
-
-    private Collection<Player> getTargetPlayers(String target) {
-        return switch (target.toLowerCase()) {
-            case "all" -> (Collection<Player>) Bukkit.getOnlinePlayers();
-            case "allnotop" -> Bukkit.getOnlinePlayers().stream()
-                    .filter(player -> !player.isOp())
-                    .collect(Collectors.toList());
-            case "adventure" -> Bukkit.getOnlinePlayers().stream()
-                    .filter(player -> player.getGameMode() == GameMode.ADVENTURE)
-                    .collect(Collectors.toList());
-            case "survival" -> Bukkit.getOnlinePlayers().stream()
-                    .filter(player -> player.getGameMode() == GameMode.SURVIVAL)
-                    .collect(Collectors.toList());
-            case "spectator" -> Bukkit.getOnlinePlayers().stream()
-                    .filter(player -> player.getGameMode() == GameMode.SPECTATOR)
-                    .collect(Collectors.toList());
-            default -> {
-                Player player = Bukkit.getPlayer(target);
-                yield player != null && player.isOnline() ?
-                        Collections.singletonList(player) :
-                        Collections.emptyList();
-            }
+        int roundTimeLimit = game.get() == MiniGame.GUITAR_HERO ? 0 : timeLimit;
+        LaunchDispatcher.Launch launch;
+        try {
+            launch = GeoWarePlugin.getInstance().getRounds().start(sender, game.get(), targets, roundTimeLimit,
+                    defaultSender(game.get()));
+        } catch (IllegalStateException e) {
+            sender.sendMessage("§cYa hay una ronda en curso. Usa /2dgame round end para terminarla.");
+            return;
+        }
+        sender.sendMessage("§aRonda de " + game.get().getId() + " iniciada para " + targets.size() + " jugador(es)" + describeWaves(launch));
+    }
+
+    /**
+     * Lanzamiento de cada minijuego con los mismos valores por defecto que su subcomando.
+     */
+    private static LaunchDispatcher.WaveSender defaultSender(MiniGame game) {
+        return switch (game) {
+            case TETRIS -> (wave, timeLimit) -> PacketSender.sendTetrisPacketToClients(wave, timeLimit, 3.0f);
+            case HANOI_TOWERS -> (wave, timeLimit) -> PacketSender.sendHanoiTowersPacketToClients(wave, timeLimit, 5);
+            case DONKEY_KONG -> (wave, timeLimit) -> PacketSender.sendDonkeyKongPacketToClients(wave, timeLimit, 80, 0.7f);
+            case BUBBLE_PUZZLE -> (wave, timeLimit) -> PacketSender.sendBubblePuzzlePacketToClients(wave, timeLimit, 1);
+            case ARKANOID -> (wave, timeLimit) -> PacketSender.sendArkanoidPacketToClients(wave, timeLimit, 1);
+            case GUITAR_HERO -> (wave, timeLimit) -> PacketSender.sendGuitarHeroPacketToClients(wave);
+            case FRUIT_FOCUS -> (wave, timeLimit) -> PacketSender.sendFruitFocusPacketToClients(wave, timeLimit, 10, 6);
+            case GALAGA -> (wave, timeLimit) -> PacketSender.sendGalagaPacketToClients(wave, timeLimit, 1);
+            case KEY_BIND -> (wave, timeLimit) -> PacketSender.sendKeyBindPacketToClients(wave, timeLimit, 2.0f, 0.05f);
+            case ROBOT_FACTORY -> (wave, timeLimit) -> PacketSender.sendRobotFactoryPacketToClients(wave, timeLimit, 1.0f, false, 5);
+            case SCARY_MAZE -> (wave, timeLimit) -> PacketSender.sendScaryMazePacketToClients(wave, timeLimit, 1);
         };
     }
 
+    @Subcommand("launches")
+    @Description("Muestra cómo se están repartiendo los lanzamientos de minijuegos")
+    public void onLaunches(CommandSender sender) {
+        LaunchDispatcher dispatcher = GeoWarePlugin.getInstance().getLaunchDispatcher();
+        LaunchSettings settings = dispatcher.getSettings();
+        LaunchDispatcher.Stats stats = dispatcher.getStats();
+        String mode;
+        if (settings.spreadTicks() > 0) {
+            mode = "una oleada por tick durante " + settings.spreadTicks() + " ticks";
+        } else if (settings.waveSize() > 0) {
+            mode = "oleadas de " + settings.waveSize() + " jugadores cada " + settings.waveIntervalTicks() + " ticks";
+        } else {
+            mode = "todos a la vez";
+        }
+        sender.sendMessage("§6Reparto: §f" + mode + (settings.alignEnd() ? " §7(mismo final para todos)" : ""));
+        sender.sendMessage("§6Lanzamientos: §f" + stats.launches() + " §7(" + stats.staggered() + " en oleadas)");
+        sender.sendMessage("§6Oleadas enviadas: §f" + stats.wavesSent() + " §7(pendientes: " + stats.pendingWaves() + ")");
+        sender.sendMessage("§6Jugadores: §f" + stats.playersSent() + " §7(desconectados antes de su oleada: " + stats.skippedOffline() + ")");
+        sender.sendMessage("§6Oleada más grande: §f" + stats.largestWave() + " jugadores §7| §6Mayor reparto: §f" + stats.longestSpan() + " ticks");
+    }
+
+    @Subcommand("stats")
+    @Description("Muestra el tráfico de paquetes por tipo")
+    public void onStats(CommandSender sender) {
+        GeoWarePlugin plugin = GeoWarePlugin.getInstance();
+        PacketProcessor processor = plugin.getPacketProcessor();
+        PacketMetrics metrics = plugin.getPacketMetrics();
+        sender.sendMessage("§6Paquetes recibidos: §f" + processor.getReceivedPackets() + " §7(procesados: "
+                + processor.getProcessedPackets() + ", descartados: " + processor.getDroppedPackets()
+                + ", malformados: " + processor.getMalformedPackets() + ")");
+        describeTraffic(sender, "Salida", "codificación", metrics.snapshot(PacketMetrics.Direction.OUTBOUND));
+        describeTraffic(sender, "Entrada", "decodificación", metrics.snapshot(PacketMetrics.Direction.INBOUND));
+        sender.sendMessage("§6Registro del tráfico: " + (metrics.isLogging() ? "§aactivado" : "§7desactivado"));
+    }
+
+    @Subcommand("stats log")
+    @CommandCompletion("on|off")
+    @Description("Activa o desactiva el registro del tráfico de paquetes")
+    public void onStatsLog(CommandSender sender, @Name("state") String state) {
+        boolean enable;
+        if (state.equalsIgnoreCase("on")) {
+            enable = true;
+        } else if (state.equalsIgnoreCase("off")) {
+            enable = false;
+        } else {
+            sender.sendMessage("§cUsa on u off.");
+            return;
+        }
+        GeoWarePlugin.getInstance().getPacketMetrics().setLogging(enable);
+        sender.sendMessage("§aRegistro del tráfico de paquetes " + (enable ? "activado" : "desactivado"));
+    }
+
+    private static void describeTraffic(CommandSender sender, String title, String timing, List<PacketMetrics.Snapshot> snapshots) {
+        long messages = 0;
+        long bytes = 0;
+        for (PacketMetrics.Snapshot snapshot : snapshots) {
+            messages += snapshot.messages();
+            bytes += snapshot.bytes();
+        }
+        sender.sendMessage("§6" + title + ": §f" + messages + " paquetes, " + formatBytes(bytes));
+        for (PacketMetrics.Snapshot snapshot : snapshots) {
+            sender.sendMessage(String.format("§7- §e%s§7: %d, %s, %s media %.1f µs", snapshot.packetId(),
+                    snapshot.messages(), formatBytes(snapshot.bytes()), timing, snapshot.averageNanos() / 1_000.0));
+        }
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    @Subcommand("sessions")
+    @Description("Muestra las partidas en curso")
+    public void onSessions(CommandSender sender) {
+        GameSessionRegistry registry = GeoWarePlugin.getInstance().getGameSessions();
+        sender.sendMessage("§6Partidas en curso: §f" + registry.getActiveCount()
+                + " §7(iniciadas: " + registry.getStarted() + ", con puntuación: " + registry.getScored()
+                + ", vencidas: " + registry.getExpired() + ")");
+        registry.getActiveByGame().forEach((game, count) ->
+                sender.sendMessage("§7- §e" + game.getId() + "§7: §f" + count));
+
+        long now = System.currentTimeMillis();
+        List<GameSession> sessions = registry.getActive().stream()
+                .sorted(Comparator.comparingLong(GameSession::endsAt))
+                .toList();
+        for (GameSession session : sessions.subList(0, Math.min(SESSIONS_SHOWN, sessions.size()))) {
+            Player player = Bukkit.getPlayer(session.playerId());
+            String name = player == null ? session.playerId().toString() : player.getName();
+            sender.sendMessage("§7  " + name + ": §e" + session.game().getId() + " §7(termina en " + session.remainingSeconds(now) + " s)");
+        }
+        if (sessions.size() > SESSIONS_SHOWN) {
+            sender.sendMessage("§7  ... y " + (sessions.size() - SESSIONS_SHOWN) + " más");
+        }
+    }
+
+    private LaunchDispatcher.Launch launch(MiniGame game, Collection<Player> targets, int timeLimit, LaunchDispatcher.WaveSender waveSender) {
+        return GeoWarePlugin.getInstance().getLaunchDispatcher().launch(game, targets, timeLimit, waveSender);
+    }
+
+    private static String describeWaves(LaunchDispatcher.Launch launch) {
+        return launch.waves() > 1 ? " §7(" + launch.waves() + " oleadas en " + launch.spanTicks() + " ticks)" : "";
+    }
+
+    private static Collection<Player> getTargetPlayers(CommandSender sender, String target) {
+        try {
+            return GeoWarePlugin.getInstance().getSelectors().select(sender, target);
+        } catch (IllegalArgumentException e) {
+            throw new ConditionFailedException(e.getMessage());
+        }
+    }
+
     @CommandCompletion("@players|all|allnotop|adventure|survival|spectator")
     @CatchUnknown
     public void onDefault(CommandSender sender) {
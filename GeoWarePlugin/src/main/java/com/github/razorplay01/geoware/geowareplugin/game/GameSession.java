@@ -0,0 +1,33 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import java.util.UUID;
+
+/**
+ * Partida en curso de un jugador.
+ *
+ * @param playerId         UUID del jugador
+ * @param game             Minijuego lanzado
+ * @param sessionId        Identificador único de la partida
+ * @param startedAt        Instante de inicio en milisegundos desde epoch
+ * @param timeLimitSeconds Tiempo límite enviado al cliente, 0 si el minijuego no tiene
+ * @param endsAt           Instante en el que el cliente debería enviar la puntuación si no hay pausas
+ * @param expiresAt        Instante a partir del cual la partida se da por abandonada
+ */
+public record GameSession(UUID playerId, MiniGame game, long sessionId, long startedAt, int timeLimitSeconds,
+                          long endsAt, long expiresAt) {
+    /**
+     * Segundos de espera antes de que empiece la partida en el cliente.
+     */
+    public static final int CLIENT_INIT_DELAY_SECONDS = 5;
+    /**
+     * Segundos que el cliente muestra el resultado antes de enviar la puntuación.
+     */
+    public static final int CLIENT_RESULT_DELAY_SECONDS = 5;
+
+    /**
+     * @return Segundos que faltan para {@link #endsAt()}, nunca negativos
+     */
+    public long remainingSeconds(long now) {
+        return Math.max(0, (endsAt - now + 999) / 1000);
+    }
+}
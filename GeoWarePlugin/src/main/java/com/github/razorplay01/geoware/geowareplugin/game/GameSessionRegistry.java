@@ -0,0 +1,191 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Partidas en curso: qué minijuego está jugando cada jugador y cuándo debería terminar.
+ * <p>
+ * {@code PacketSender} abre una partida al enviar el paquete que lanza el minijuego y la puntuación que
+ * devuelve el cliente la cierra. Las partidas que nunca reciben puntuación (el jugador cerró el juego, se
+ * perdió el paquete...) vencen en una {@link TimerWheel} que se avanza una vez por segundo desde el hilo
+ * principal, en lugar de programar una tarea por partida. Cerrar una partida no la saca de la rueda: al
+ * vencer se comprueba si sigue siendo la actual del jugador.
+ */
+public class GameSessionRegistry {
+    private static final long WHEEL_TICK_MILLIS = 1_000;
+    private static final int WHEEL_SLOTS = 512;
+
+    private final Map<UUID, GameSession> sessions = new ConcurrentHashMap<>();
+    @Getter
+    private final SessionSettings settings;
+    private final TimerWheel<GameSession> expirations;
+
+    /**
+     * Los identificadores parten del reloj para no repetirse entre reinicios del servidor.
+     */
+    private final AtomicLong nextSessionId = new AtomicLong(System.currentTimeMillis() * 1_000);
+    private final LongAdder started = new LongAdder();
+    private final LongAdder scored = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    /**
+     * Partidas abiertas de cada minijuego, ajustadas en cada alta y baja de {@link #sessions} para leerlas
+     * desde cualquier hilo sin recorrer el mapa.
+     */
+    private final Map<MiniGame, LongAdder> activeByGame = new EnumMap<>(MiniGame.class);
+    private BukkitTask task;
+
+    public GameSessionRegistry(SessionSettings settings) {
+        this.settings = settings;
+        this.expirations = new TimerWheel<>(WHEEL_TICK_MILLIS, WHEEL_SLOTS, System.currentTimeMillis());
+        for (MiniGame game : MiniGame.values()) {
+            activeByGame.put(game, new LongAdder());
+        }
+    }
+
+    public void start(Plugin plugin) {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::expireStale, 20, 20);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Registra el lanzamiento de un minijuego, sustituyendo la partida anterior del jugador.
+     *
+     * @param playerId         UUID del jugador
+     * @param game             Minijuego lanzado
+     * @param timeLimitSeconds Tiempo límite enviado al cliente, 0 si el minijuego no tiene
+     * @return La nueva partida
+     */
+    public GameSession start(UUID playerId, MiniGame game, int timeLimitSeconds) {
+        long now = System.currentTimeMillis();
+        int playSeconds = timeLimitSeconds > 0 ? timeLimitSeconds : settings.untimedSeconds();
+        long endsAt = now + (GameSession.CLIENT_INIT_DELAY_SECONDS + playSeconds + GameSession.CLIENT_RESULT_DELAY_SECONDS) * 1000L;
+        GameSession session = new GameSession(playerId, game, nextSessionId.incrementAndGet(), now, timeLimitSeconds,
+                endsAt, endsAt + settings.graceSeconds() * 1000L);
+        activeByGame.get(game).increment();
+        GameSession previous = sessions.put(playerId, session);
+        if (previous != null) {
+            activeByGame.get(previous.game()).decrement();
+        }
+        expirations.schedule(session, session.expiresAt());
+        started.increment();
+        return session;
+    }
+
+    /**
+     * @return La partida en curso del jugador, o null si no tiene ninguna
+     */
+    public GameSession get(UUID playerId) {
+        return sessions.get(playerId);
+    }
+
+    /**
+     * Cierra la partida del jugador sin puntuación, por ejemplo al desconectarse.
+     */
+    public void end(UUID playerId) {
+        GameSession session = sessions.remove(playerId);
+        if (session != null) {
+            activeByGame.get(session.game()).decrement();
+        }
+    }
+
+    /**
+     * Cierra una partida concreta, solo si sigue siendo la actual del jugador.
+     *
+     * @return true si la partida estaba abierta y se ha cerrado con esta llamada
+     */
+    public boolean end(GameSession session) {
+        if (!sessions.remove(session.playerId(), session)) {
+            return false;
+        }
+        activeByGame.get(session.game()).decrement();
+        return true;
+    }
+
+    /**
+     * Cierra una partida al aceptar su puntuación.
+     *
+     * @return true si la partida estaba abierta y se ha cerrado con esta llamada
+     */
+    public boolean complete(GameSession session) {
+        if (!end(session)) {
+            return false;
+        }
+        scored.increment();
+        return true;
+    }
+
+    private void expireStale() {
+        List<GameSession> due = expirations.advance(System.currentTimeMillis());
+        for (GameSession session : due) {
+            if (end(session)) {
+                expired.increment();
+            }
+        }
+    }
+
+    public Collection<GameSession> getActive() {
+        return List.copyOf(sessions.values());
+    }
+
+    public int getActiveCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return Partidas abiertas de cada minijuego, sin los que no tienen ninguna
+     */
+    public Map<MiniGame, Integer> getActiveByGame() {
+        Map<MiniGame, Integer> counts = new EnumMap<>(MiniGame.class);
+        activeByGame.forEach((game, active) -> {
+            int count = (int) active.sum();
+            if (count > 0) {
+                counts.put(game, count);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * @return Partidas abiertas del minijuego
+     */
+    public long getActive(MiniGame game) {
+        return activeByGame.get(game).sum();
+    }
+
+    public long getStarted() {
+        return started.sum();
+    }
+
+    public long getScored() {
+        return scored.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    /**
+     * @return Vencimientos pendientes en la rueda, incluidos los de partidas ya cerradas
+     */
+    public int getPendingExpirations() {
+        return expirations.size();
+    }
+}
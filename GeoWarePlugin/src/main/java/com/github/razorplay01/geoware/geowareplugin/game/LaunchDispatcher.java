@@ -0,0 +1,161 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reparte el lanzamiento de un minijuego a muchos jugadores en oleadas separadas por unos ticks, para que
+ * los clientes no abran la pantalla todos a la vez ni lleguen juntos sus paquetes a la red.
+ * <p>
+ * La primera oleada sale en el mismo tick del comando y el resto se programa en el scheduler. Si
+ * {@link LaunchSettings#alignEnd()} está activo, cada oleada recibe un tiempo límite más corto según su
+ * retraso (redondeado al segundo, que es la unidad del paquete), de modo que la partida termina para todos
+ * a la misma hora. Todo se ejecuta en el hilo principal.
+ */
+public class LaunchDispatcher {
+    private static final int TICKS_PER_SECOND = 20;
+
+    /**
+     * Envía una oleada del minijuego.
+     */
+    @FunctionalInterface
+    public interface WaveSender {
+        /**
+         * @param wave             Jugadores de la oleada, todos conectados
+         * @param timeLimitSeconds Tiempo límite ajustado a la oleada
+         */
+        void send(List<Player> wave, int timeLimitSeconds);
+    }
+
+    /**
+     * Reparto elegido para un lanzamiento.
+     *
+     * @param players   Jugadores objetivo
+     * @param waves     Número de oleadas
+     * @param spanTicks Ticks entre la primera y la última oleada
+     */
+    public record Launch(int players, int waves, long spanTicks) {
+    }
+
+    /**
+     * @param launches       Lanzamientos despachados
+     * @param staggered      Lanzamientos repartidos en más de una oleada
+     * @param wavesSent      Oleadas ya enviadas
+     * @param playersSent    Jugadores a los que se ha enviado el minijuego
+     * @param skippedOffline Jugadores que se desconectaron antes de que saliera su oleada
+     * @param pendingWaves   Oleadas programadas que aún no han salido
+     * @param largestWave    Mayor número de jugadores enviados en un mismo tick
+     * @param longestSpan    Mayor separación en ticks entre la primera y la última oleada
+     */
+    public record Stats(long launches, long staggered, long wavesSent, long playersSent, long skippedOffline,
+                        int pendingWaves, int largestWave, long longestSpan) {
+    }
+
+    @Getter
+    private final LaunchSettings settings;
+    private final AtomicLong launches = new AtomicLong();
+    private final AtomicLong staggered = new AtomicLong();
+    private final AtomicLong wavesSent = new AtomicLong();
+    private final AtomicLong playersSent = new AtomicLong();
+    private final AtomicLong skippedOffline = new AtomicLong();
+    private final AtomicInteger pendingWaves = new AtomicInteger();
+    private final AtomicInteger largestWave = new AtomicInteger();
+    private final AtomicLong longestSpan = new AtomicLong();
+
+    public LaunchDispatcher(LaunchSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Lanza un minijuego a los jugadores objetivo repartiéndolos según la configuración.
+     *
+     * @param game             Minijuego lanzado, para los registros
+     * @param targets          Jugadores objetivo
+     * @param timeLimitSeconds Tiempo límite de la primera oleada; 0 si el minijuego no tiene
+     * @param sender           Envía cada oleada
+     */
+    public Launch launch(MiniGame game, Collection<? extends Player> targets, int timeLimitSeconds, WaveSender sender) {
+        List<Player> players = List.copyOf(targets);
+        int waveSize;
+        long intervalTicks;
+        if (settings.spreadTicks() > 0 && players.size() > 1) {
+            int waves = Math.min(players.size(), settings.spreadTicks());
+            waveSize = ceilDiv(players.size(), waves);
+            intervalTicks = Math.max(1, settings.spreadTicks() / waves);
+        } else if (settings.waveSize() > 0 && players.size() > settings.waveSize()) {
+            waveSize = settings.waveSize();
+            intervalTicks = settings.waveIntervalTicks();
+        } else {
+            waveSize = Math.max(1, players.size());
+            intervalTicks = 0;
+        }
+
+        int waves = ceilDiv(players.size(), waveSize);
+        Launch launch = new Launch(players.size(), waves, (waves - 1) * intervalTicks);
+        launches.incrementAndGet();
+        if (waves > 1) {
+            staggered.incrementAndGet();
+            longestSpan.accumulateAndGet(launch.spanTicks(), Math::max);
+            GeoWarePlugin.LOGGER.info("Launching {} to {} players in {} waves over {} ticks",
+                    game.getId(), players.size(), waves, launch.spanTicks());
+        }
+
+        for (int wave = 0; wave < waves; wave++) {
+            List<Player> wavePlayers = players.subList(wave * waveSize, Math.min(players.size(), (wave + 1) * waveSize));
+            long delayTicks = wave * intervalTicks;
+            int waveTimeLimit = adjustTimeLimit(timeLimitSeconds, delayTicks);
+            if (delayTicks == 0) {
+                sendWave(wavePlayers, waveTimeLimit, sender);
+            } else {
+                pendingWaves.incrementAndGet();
+                Bukkit.getScheduler().runTaskLater(GeoWarePlugin.getInstance(), () -> {
+                    pendingWaves.decrementAndGet();
+                    sendWave(wavePlayers, waveTimeLimit, sender);
+                }, delayTicks);
+            }
+        }
+        return launch;
+    }
+
+    private int adjustTimeLimit(int timeLimitSeconds, long delayTicks) {
+        if (!settings.alignEnd() || timeLimitSeconds <= 0) {
+            return timeLimitSeconds;
+        }
+        long delaySeconds = Math.round((double) delayTicks / TICKS_PER_SECOND);
+        return (int) Math.max(1, timeLimitSeconds - delaySeconds);
+    }
+
+    private void sendWave(List<Player> wave, int timeLimitSeconds, WaveSender sender) {
+        List<Player> online = new ArrayList<>(wave.size());
+        for (Player player : wave) {
+            if (player.isOnline()) {
+                online.add(player);
+            }
+        }
+        skippedOffline.addAndGet(wave.size() - online.size());
+        if (online.isEmpty()) {
+            return;
+        }
+        sender.send(online, timeLimitSeconds);
+        wavesSent.incrementAndGet();
+        playersSent.addAndGet(online.size());
+        largestWave.accumulateAndGet(online.size(), Math::max);
+    }
+
+    private static int ceilDiv(int dividend, int divisor) {
+        return dividend == 0 ? 0 : (dividend + divisor - 1) / divisor;
+    }
+
+    public Stats getStats() {
+        return new Stats(launches.get(), staggered.get(), wavesSent.get(), playersSent.get(), skippedOffline.get(),
+                pendingWaves.get(), largestWave.get(), longestSpan.get());
+    }
+}
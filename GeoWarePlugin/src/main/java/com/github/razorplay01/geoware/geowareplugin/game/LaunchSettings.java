@@ -0,0 +1,27 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Reparto de los lanzamientos de minijuegos leído de la sección {@code launch} del config.yml.
+ *
+ * @param waveSize          Jugadores por oleada; con menos objetivos se lanza todo a la vez (0 = sin oleadas)
+ * @param waveIntervalTicks Ticks entre dos oleadas
+ * @param spreadTicks       Si es mayor que 0, reparte los jugadores en una oleada por tick durante este
+ *                          número de ticks, en lugar de usar {@code waveSize}
+ * @param alignEnd          Si se acorta el tiempo de las oleadas tardías para que todas terminen a la vez
+ */
+public record LaunchSettings(int waveSize, int waveIntervalTicks, int spreadTicks, boolean alignEnd) {
+    public static final LaunchSettings DEFAULTS = new LaunchSettings(25, 10, 0, true);
+
+    public static LaunchSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new LaunchSettings(
+                Math.max(0, section.getInt("wave-size", DEFAULTS.waveSize())),
+                Math.max(1, section.getInt("wave-interval-ticks", DEFAULTS.waveIntervalTicks())),
+                Math.max(0, section.getInt("spread-ticks", DEFAULTS.spreadTicks())),
+                section.getBoolean("align-end", DEFAULTS.alignEnd()));
+    }
+}
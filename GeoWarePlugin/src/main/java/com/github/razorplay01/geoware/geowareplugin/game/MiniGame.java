@@ -0,0 +1,51 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Minijuegos que el plugin puede lanzar, identificados por el paquete que los inicia en el cliente.
+ */
+@Getter
+@AllArgsConstructor
+public enum MiniGame {
+    ARKANOID("arkanoid", "ArkanoidPacket"),
+    BUBBLE_PUZZLE("bubblepuzzle", "BubblePuzzlePacket"),
+    DONKEY_KONG("donkeykong", "DonkeyKongPacket"),
+    FRUIT_FOCUS("fruitfocus", "FruitFocusPacket"),
+    GALAGA("galaga", "GalagaPacket"),
+    GUITAR_HERO("guitarhero", "GuitarHeroPacket"),
+    HANOI_TOWERS("hanoitowers", "HanoiTowersPacket"),
+    KEY_BIND("keybind", "KeyBindPacket"),
+    ROBOT_FACTORY("robotfactory", "RobotFactoryPacket"),
+    SCARY_MAZE("scarymaze", "ScaryMazePacket"),
+    TETRIS("tetris", "TetrisPacket");
+
+    /**
+     * Identificador estable guardado en la base de datos; coincide con el subcomando de /2dgame.
+     */
+    private final String id;
+    private final String packetId;
+
+    public static Optional<MiniGame> fromPacketId(String packetId) {
+        for (MiniGame game : values()) {
+            if (game.packetId.equals(packetId)) {
+                return Optional.of(game);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<MiniGame> fromId(String id) {
+        String normalized = id.toLowerCase(Locale.ROOT);
+        for (MiniGame game : values()) {
+            if (game.id.equals(normalized)) {
+                return Optional.of(game);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,265 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.PointsManager;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketSender;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import com.github.razorplay01.geoware.geowareplugin.storage.ScoreEvent;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rondas de {@code /2dgame round}: lanza un minijuego a un grupo de jugadores, recoge en memoria las
+ * puntuaciones que van llegando y, cuando han respondido todas las partidas o vence el plazo, las
+ * registra en una única escritura, calcula la clasificación una sola vez y publica el scoreboard.
+ * <p>
+ * Mientras dura la ronda, las puntuaciones aceptadas de sus partidas no se escriben una a una. Las
+ * actualizaciones de puntuación de cada jugador las envía después el {@code ScoreUpdateCoalescer}, agrupadas
+ * por tick, al confirmarse la escritura. Solo puede haber una ronda a la vez; se controla desde el hilo
+ * principal y las puntuaciones llegan desde los hilos de {@code PacketProcessor}.
+ */
+public class RoundManager {
+    private static final int SCOREBOARD_LINES = 12;
+    private static final long CHECK_INTERVAL_TICKS = 20;
+
+    /**
+     * Ronda en curso.
+     *
+     * @param game       Minijuego de la ronda
+     * @param host       Quien lanzó la ronda, que recibe el resultado
+     * @param players    Jugadores a los que se lanzó
+     * @param startedAt  Instante del lanzamiento en milisegundos desde epoch
+     * @param launchedAt Instante en el que sale la última oleada del lanzamiento
+     * @param deadline   Instante a partir del cual la ronda se cierra sin esperar más puntuaciones
+     * @param expected   UUID de los jugadores a los que se lanzó
+     * @param results    Puntuaciones recogidas por jugador
+     * @param finished   Si la ronda ya se ha cerrado; se cambia con el monitor de la ronda
+     */
+    public record Round(MiniGame game, CommandSender host, Collection<Player> players, long startedAt,
+                        long launchedAt, long deadline, Set<UUID> expected, Map<UUID, ScoreEvent> results,
+                        AtomicBoolean finished) {
+        public int reported() {
+            return results.size();
+        }
+    }
+
+    @Getter
+    private final RoundSettings settings;
+    private final GameSessionRegistry sessions;
+    private final LaunchDispatcher dispatcher;
+    @Getter
+    private volatile Round active;
+    private BukkitTask checkTask;
+
+    public RoundManager(RoundSettings settings, GameSessionRegistry sessions, LaunchDispatcher dispatcher) {
+        this.settings = settings;
+        this.sessions = sessions;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Lanza una ronda. Debe llamarse en el hilo principal.
+     *
+     * @param host             Quien lanza la ronda
+     * @param game             Minijuego de la ronda
+     * @param targets          Jugadores objetivo
+     * @param timeLimitSeconds Tiempo límite de la partida, 0 si el minijuego no tiene
+     * @param sender           Envía cada oleada del lanzamiento
+     * @return El reparto del lanzamiento
+     * @throws IllegalStateException Si ya hay una ronda en curso
+     */
+    public LaunchDispatcher.Launch start(CommandSender host, MiniGame game, Collection<Player> targets,
+                                         int timeLimitSeconds, LaunchDispatcher.WaveSender sender) {
+        if (active != null) {
+            throw new IllegalStateException("A round is already running");
+        }
+        long now = System.currentTimeMillis();
+        // Ninguna puntuación puede llegar antes de registrar la ronda: el cliente tarda segundos en enviarla
+        LaunchDispatcher.Launch launch = dispatcher.launch(game, targets, timeLimitSeconds, sender);
+        long launchedAt = now + launch.spanTicks() * 50;
+        int playSeconds = timeLimitSeconds > 0 ? timeLimitSeconds : sessions.getSettings().untimedSeconds();
+        long deadline = launchedAt + (GameSession.CLIENT_INIT_DELAY_SECONDS + playSeconds
+                + GameSession.CLIENT_RESULT_DELAY_SECONDS + sessions.getSettings().graceSeconds()) * 1000L;
+        Set<UUID> expected = ConcurrentHashMap.newKeySet();
+        targets.forEach(player -> expected.add(player.getUniqueId()));
+        active = new Round(game, host, List.copyOf(targets), now, launchedAt, deadline, expected,
+                new ConcurrentHashMap<>(), new AtomicBoolean());
+        checkTask = Bukkit.getScheduler().runTaskTimer(GeoWarePlugin.getInstance(), this::check,
+                CHECK_INTERVAL_TICKS, CHECK_INTERVAL_TICKS);
+        GeoWarePlugin.LOGGER.info("Round of {} started for {} players, deadline in {} s",
+                game.getId(), targets.size(), (deadline - now) / 1000);
+        return launch;
+    }
+
+    /**
+     * Guarda la puntuación si pertenece a una partida de la ronda en curso. Se llama desde cualquier hilo
+     * con puntuaciones ya aceptadas.
+     *
+     * @return true si la ronda se queda la puntuación y no hay que escribirla
+     */
+    public boolean capture(UUID playerId, String playerName, GameSession session, int score) {
+        Round round = active;
+        if (round == null || session == null || !belongsTo(round, session)) {
+            return false;
+        }
+        synchronized (round) {
+            if (round.finished().get()) {
+                return false;
+            }
+            round.results().put(playerId, new ScoreEvent(playerId, playerName, session.game().getId(), score,
+                    System.currentTimeMillis(), session.sessionId()));
+        }
+        if (round.results().size() >= round.expected().size()) {
+            Bukkit.getScheduler().runTask(GeoWarePlugin.getInstance(), () -> finish(round));
+        }
+        return true;
+    }
+
+    private static boolean belongsTo(Round round, GameSession session) {
+        return session.game() == round.game()
+                && session.startedAt() >= round.startedAt()
+                && round.expected().contains(session.playerId());
+    }
+
+    /**
+     * Cierra la ronda cuando vence el plazo o cuando ya no queda ninguna partida suya abierta (todas han
+     * respondido, vencido o se han cerrado al desconectarse el jugador).
+     */
+    private void check() {
+        Round round = active;
+        if (round == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now >= round.deadline() || (now >= round.launchedAt() && !hasOpenSessions(round))) {
+            finish(round);
+        }
+    }
+
+    private boolean hasOpenSessions(Round round) {
+        for (UUID playerId : round.expected()) {
+            if (round.results().containsKey(playerId)) {
+                continue;
+            }
+            GameSession session = sessions.get(playerId);
+            if (session != null && belongsTo(round, session)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cierra la ronda en curso sin esperar a las puntuaciones que faltan. Debe llamarse en el hilo principal.
+     *
+     * @return false si no había ninguna ronda en curso
+     */
+    public boolean finishNow() {
+        Round round = active;
+        if (round == null) {
+            return false;
+        }
+        finish(round);
+        return true;
+    }
+
+    private void finish(Round round) {
+        List<ScoreEvent> events = close(round);
+        if (events == null) {
+            return;
+        }
+        PointsManager pointsManager = GeoWarePlugin.getInstance().getPointsManager();
+        long startedAt = System.nanoTime();
+        pointsManager.recordScores(events).whenComplete((totals, throwable) -> {
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+            if (throwable != null) {
+                GeoWarePlugin.LOGGER.error("Error recording the scores of a {} round", round.game().getId(), throwable);
+            } else {
+                GeoWarePlugin.LOGGER.info("Round of {} finished: {}/{} scores recorded in {} ms",
+                        round.game().getId(), events.size(), round.expected().size(), elapsedMs);
+            }
+            GeoWarePlugin plugin = GeoWarePlugin.getInstance();
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> publish(round, events.size(), throwable == null));
+        });
+    }
+
+    /**
+     * Calcula la clasificación una sola vez, con todas las puntuaciones de la ronda ya aplicadas, y la
+     * envía en un único {@code ScoreboardPacket} serializado.
+     */
+    private void publish(Round round, int recorded, boolean committed) {
+        if (committed && settings.publishScoreboard()) {
+            List<RankIndex.RankEntry> top = GeoWarePlugin.getInstance().getPointsManager().getRankIndex().top(SCOREBOARD_LINES);
+            List<String> names = new ArrayList<>(SCOREBOARD_LINES);
+            top.forEach(entry -> names.add(entry.name()));
+            while (names.size() < SCOREBOARD_LINES) {
+                names.add("");
+            }
+            List<Player> online = round.players().stream().filter(Player::isOnline).toList();
+            PacketSender.sendScoreboardPacketToClients(online, names, settings.fadeInMs(), settings.stayMs(),
+                    settings.fadeOutMs(), settings.offsetX(), settings.offsetY(), settings.scale());
+        }
+
+        CommandSender host = round.host();
+        if (host instanceof Player player && !player.isOnline()) {
+            return;
+        }
+        if (!committed) {
+            host.sendMessage(Component.text("Error al guardar los resultados de la ronda, revisa la consola.").color(NamedTextColor.RED));
+            return;
+        }
+        host.sendMessage(Component.text("Ronda de " + round.game().getId() + " terminada: " + recorded + "/"
+                + round.expected().size() + " resultados registrados").color(NamedTextColor.GREEN));
+    }
+
+    /**
+     * Cierra la ronda en curso al desactivar el plugin, guardando lo recogido hasta ahora.
+     */
+    public void shutdown() {
+        Round round = active;
+        List<ScoreEvent> events = round == null ? null : close(round);
+        if (events != null && !events.isEmpty()) {
+            GeoWarePlugin.getInstance().getPointsManager().recordScores(events);
+        }
+    }
+
+    /**
+     * Marca la ronda como cerrada y deja de recoger puntuaciones.
+     *
+     * @return Las puntuaciones recogidas, o null si la ronda ya estaba cerrada
+     */
+    private List<ScoreEvent> close(Round round) {
+        List<ScoreEvent> events;
+        synchronized (round) {
+            if (!round.finished().compareAndSet(false, true)) {
+                return null;
+            }
+            events = List.copyOf(round.results().values());
+        }
+        if (active == round) {
+            active = null;
+        }
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+        return events;
+    }
+}
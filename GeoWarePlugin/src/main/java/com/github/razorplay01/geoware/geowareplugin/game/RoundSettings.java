@@ -0,0 +1,33 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Scoreboard que publica {@code /2dgame round} al terminar, leído de la sección {@code round} del config.yml.
+ *
+ * @param publishScoreboard Si se envía el scoreboard con la nueva clasificación al terminar la ronda
+ * @param fadeInMs          Duración de la entrada del scoreboard
+ * @param stayMs            Tiempo que se muestra el scoreboard
+ * @param fadeOutMs         Duración de la salida del scoreboard
+ * @param offsetX           Desplazamiento horizontal del scoreboard
+ * @param offsetY           Desplazamiento vertical del scoreboard
+ * @param scale             Escala del scoreboard
+ */
+public record RoundSettings(boolean publishScoreboard, long fadeInMs, long stayMs, long fadeOutMs,
+                            int offsetX, int offsetY, float scale) {
+    public static final RoundSettings DEFAULTS = new RoundSettings(true, 1000, 10_000, 1000, 0, 0, 1.0f);
+
+    public static RoundSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new RoundSettings(
+                section.getBoolean("publish-scoreboard", DEFAULTS.publishScoreboard()),
+                Math.max(0, section.getLong("fade-in-ms", DEFAULTS.fadeInMs())),
+                Math.max(0, section.getLong("stay-ms", DEFAULTS.stayMs())),
+                Math.max(0, section.getLong("fade-out-ms", DEFAULTS.fadeOutMs())),
+                section.getInt("offset-x", DEFAULTS.offsetX()),
+                section.getInt("offset-y", DEFAULTS.offsetY()),
+                (float) section.getDouble("scale", DEFAULTS.scale()));
+    }
+}
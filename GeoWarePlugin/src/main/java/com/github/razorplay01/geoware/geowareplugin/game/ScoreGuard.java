@@ -0,0 +1,169 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.metrics.ScoreIntakeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de las puntuaciones que envían los clientes antes de escribirlas.
+ * <p>
+ * Una puntuación solo se acepta si:
+ * <ul>
+ *     <li>el jugador no ha agotado su cupo (un token bucket por jugador),</li>
+ *     <li>el servidor le lanzó un minijuego y esa partida aún no tiene puntuación: cada partida acepta
+ *     exactamente una,</li>
+ *     <li>llega después de lo mínimo que dura una partida en el cliente (espera inicial y pantalla final) y
+ *     antes de que la partida venza en el {@link GameSessionRegistry},</li>
+ *     <li>y no supera la puntuación máxima plausible del minijuego.</li>
+ * </ul>
+ * Las rechazadas no se escriben; se cuentan por motivo y se registra solo una muestra. Se llama desde los
+ * hilos de {@code PacketProcessor}.
+ */
+public class ScoreGuard {
+    @Getter
+    @AllArgsConstructor
+    public enum Rejection {
+        RATE_LIMITED("demasiadas puntuaciones seguidas"),
+        NO_SESSION("sin partida abierta"),
+        TOO_EARLY("antes de poder terminar la partida"),
+        EXPIRED("fuera de tiempo"),
+        IMPLAUSIBLE_SCORE("puntuación imposible");
+
+        private final String description;
+    }
+
+    /**
+     * @param session   Partida a la que se atribuye la puntuación; con la validación desactivada puede ser null
+     * @param rejection Motivo del rechazo, o null si se acepta
+     */
+    public record Verdict(GameSession session, Rejection rejection) {
+        public boolean isAccepted() {
+            return rejection == null;
+        }
+    }
+
+    private static final class TokenBucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        synchronized boolean tryAcquire(int capacity, double refillSeconds, long now) {
+            if (refillSeconds <= 0) {
+                return true;
+            }
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / (refillSeconds * 1_000_000_000L));
+            lastRefillNanos = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+
+    @Getter
+    private final ScoreGuardSettings settings;
+    private final GameSessionRegistry sessions;
+    private final Map<UUID, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final Map<Rejection, LongAdder> rejected = new EnumMap<>(Rejection.class);
+
+    public ScoreGuard(ScoreGuardSettings settings, GameSessionRegistry sessions) {
+        this.settings = settings;
+        this.sessions = sessions;
+        for (Rejection rejection : Rejection.values()) {
+            rejected.put(rejection, new LongAdder());
+        }
+    }
+
+    /**
+     * Decide si se acepta una puntuación y, si es así, cierra su partida para que no acepte otra.
+     */
+    public Verdict check(UUID playerId, String playerName, int score) {
+        ScoreIntakeEvent event = new ScoreIntakeEvent();
+        event.begin();
+        Verdict verdict = decide(playerId, playerName, score);
+        if (event.shouldCommit()) {
+            GameSession session = verdict.session();
+            event.record(playerId, session == null ? null : session.game().getId(), session == null ? 0 : session.sessionId(),
+                    score, verdict.isAccepted() ? null : verdict.rejection().name());
+        }
+        return verdict;
+    }
+
+    private Verdict decide(UUID playerId, String playerName, int score) {
+        if (!settings.enabled()) {
+            accepted.increment();
+            return new Verdict(sessions.get(playerId), null);
+        }
+        long nanos = System.nanoTime();
+        TokenBucket bucket = buckets.computeIfAbsent(playerId, uuid -> new TokenBucket(settings.burst(), nanos));
+        if (!bucket.tryAcquire(settings.burst(), settings.refillSeconds(), nanos)) {
+            return reject(playerName, score, null, Rejection.RATE_LIMITED);
+        }
+
+        GameSession session = sessions.get(playerId);
+        if (session == null) {
+            return reject(playerName, score, null, Rejection.NO_SESSION);
+        }
+        long now = System.currentTimeMillis();
+        long earliestMs = (GameSession.CLIENT_INIT_DELAY_SECONDS + GameSession.CLIENT_RESULT_DELAY_SECONDS
+                - settings.earlyToleranceSeconds()) * 1000L;
+        if (now - session.startedAt() < earliestMs) {
+            return reject(playerName, score, session, Rejection.TOO_EARLY);
+        }
+        // La rueda de vencimientos avanza por segundos, así que una partida vencida puede seguir registrada
+        if (now > session.expiresAt()) {
+            sessions.end(session);
+            return reject(playerName, score, session, Rejection.EXPIRED);
+        }
+        if (score < 0 || score > settings.maxScore(session.game())) {
+            sessions.end(session);
+            return reject(playerName, score, session, Rejection.IMPLAUSIBLE_SCORE);
+        }
+        // Si dos puntuaciones de la misma partida llegan a la vez, solo una consigue cerrarla
+        if (!sessions.complete(session)) {
+            return reject(playerName, score, null, Rejection.NO_SESSION);
+        }
+        accepted.increment();
+        return new Verdict(session, null);
+    }
+
+    private Verdict reject(String playerName, int score, GameSession session, Rejection rejection) {
+        LongAdder counter = rejected.get(rejection);
+        counter.increment();
+        long count = counter.sum();
+        if (count % settings.logSampleEvery() == 1 || settings.logSampleEvery() == 1) {
+            GeoWarePlugin.LOGGER.warn("Rejected score {} from {} ({}{}), {} rejected for this reason so far",
+                    score, playerName, rejection,
+                    session == null ? "" : ", game " + session.game().getId() + ", session " + session.sessionId(), count);
+        }
+        return new Verdict(session, rejection);
+    }
+
+    /**
+     * Olvida el cupo de un jugador que se ha desconectado.
+     */
+    public void forget(UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    public long getRejected(Rejection rejection) {
+        return rejected.get(rejection).sum();
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la validación de puntuaciones leídos de la sección {@code score-guard} del config.yml.
+ *
+ * @param enabled               Si se validan las puntuaciones; si no, se aceptan todas como antes
+ * @param burst                 Puntuaciones que un jugador puede enviar seguidas
+ * @param refillSeconds         Segundos para recuperar cada puntuación del cupo
+ * @param earlyToleranceSeconds Margen sobre la duración mínima de una partida
+ * @param defaultMaxScore       Puntuación máxima de una partida de los minijuegos sin límite propio
+ * @param maxScores             Puntuación máxima de una partida por minijuego
+ * @param logSampleEvery        Se registra una de cada este número de puntuaciones rechazadas por motivo
+ */
+public record ScoreGuardSettings(boolean enabled, int burst, double refillSeconds, int earlyToleranceSeconds,
+                                 int defaultMaxScore, Map<MiniGame, Integer> maxScores, int logSampleEvery) {
+    public static final ScoreGuardSettings DEFAULTS = new ScoreGuardSettings(true, 2, 10, 2, 100_000, Map.of(), 20);
+
+    public static ScoreGuardSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        Map<MiniGame, Integer> maxScores = new EnumMap<>(MiniGame.class);
+        ConfigurationSection scores = section.getConfigurationSection("max-scores");
+        if (scores != null) {
+            for (String key : scores.getKeys(false)) {
+                MiniGame.fromId(key).ifPresentOrElse(
+                        game -> maxScores.put(game, Math.max(0, scores.getInt(key))),
+                        () -> GeoWarePlugin.LOGGER.warn("Unknown minigame '{}' in score-guard.max-scores", key));
+            }
+        }
+        return new ScoreGuardSettings(
+                section.getBoolean("enabled", DEFAULTS.enabled()),
+                Math.max(1, section.getInt("burst", DEFAULTS.burst())),
+                Math.max(0, section.getDouble("refill-seconds", DEFAULTS.refillSeconds())),
+                Math.max(0, section.getInt("early-tolerance-seconds", DEFAULTS.earlyToleranceSeconds())),
+                Math.max(0, section.getInt("default-max-score", DEFAULTS.defaultMaxScore())),
+                Map.copyOf(maxScores),
+                Math.max(1, section.getInt("log-sample-every", DEFAULTS.logSampleEvery())));
+    }
+
+    public int maxScore(MiniGame game) {
+        return maxScores.getOrDefault(game, defaultMaxScore);
+    }
+}
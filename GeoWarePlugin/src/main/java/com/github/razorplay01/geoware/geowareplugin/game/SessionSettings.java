@@ -0,0 +1,23 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Duración de las partidas registradas, leída de la sección {@code sessions} del config.yml.
+ *
+ * @param graceSeconds   Margen sobre la duración prevista antes de dar una partida por abandonada
+ *                       (latencia, pausas del cliente)
+ * @param untimedSeconds Duración prevista de los minijuegos sin tiempo límite
+ */
+public record SessionSettings(int graceSeconds, int untimedSeconds) {
+    public static final SessionSettings DEFAULTS = new SessionSettings(60, 600);
+
+    public static SessionSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new SessionSettings(
+                Math.max(0, section.getInt("grace-seconds", DEFAULTS.graceSeconds())),
+                Math.max(1, section.getInt("untimed-seconds", DEFAULTS.untimedSeconds())));
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.razorplay01.geoware.geowareplugin.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda de temporizadores con hash: programar un vencimiento es añadirlo a una lista, y avanzar un tick
+ * solo recorre la ranura de ese tick, así que miles de vencimientos no cuestan una tarea del scheduler
+ * cada uno.
+ * <p>
+ * Los vencimientos no se cancelan; quien los recibe comprueba si siguen vigentes. Es seguro entre hilos.
+ *
+ * @param <T> Elemento que vence
+ */
+final class TimerWheel<T> {
+    private record Entry<T>(long deadlineTick, T value) {
+    }
+
+    private final long tickMillis;
+    private final List<Entry<T>>[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Duración de un tick de la rueda
+     * @param slotCount  Número de ranuras; se redondea a la siguiente potencia de dos
+     * @param now        Instante actual en milisegundos
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(long tickMillis, int slotCount, long now) {
+        int slotsPowerOfTwo = Integer.highestOneBit(Math.max(2, slotCount - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.slots = new List[slotsPowerOfTwo];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.mask = slotsPowerOfTwo - 1;
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * @param deadline Instante de vencimiento en milisegundos; como pronto vence en el siguiente tick
+     */
+    synchronized void schedule(T value, long deadline) {
+        long tick = Math.max(currentTick + 1, (deadline + tickMillis - 1) / tickMillis);
+        slots[(int) (tick & mask)].add(new Entry<>(tick, value));
+        size++;
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado.
+     *
+     * @return Los elementos vencidos
+     */
+    synchronized List<T> advance(long now) {
+        long targetTick = now / tickMillis;
+        List<T> expired = new ArrayList<>();
+        // Si el servidor se ha parado más de una vuelta, basta con recorrer cada ranura una vez
+        long steps = Math.min(targetTick - currentTick, slots.length);
+        for (long step = 1; step <= steps; step++) {
+            List<Entry<T>> slot = slots[(int) ((currentTick + step) & mask)];
+            for (int i = slot.size() - 1; i >= 0; i--) {
+                Entry<T> entry = slot.get(i);
+                if (entry.deadlineTick() <= targetTick) {
+                    expired.add(entry.value());
+                    slot.set(i, slot.get(slot.size() - 1));
+                    slot.remove(slot.size() - 1);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        size -= expired.size();
+        return expired;
+    }
+
+    /**
+     * @return Vencimientos programados que aún no han vencido, incluidos los que ya no están vigentes
+     */
+    synchronized int size() {
+        return size;
+    }
+}
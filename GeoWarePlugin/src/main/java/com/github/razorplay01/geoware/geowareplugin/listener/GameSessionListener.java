@@ -0,0 +1,27 @@
+package com.github.razorplay01.geoware.geowareplugin.listener;
+
+import com.github.razorplay01.geoware.geowareplugin.game.GameSessionRegistry;
+import com.github.razorplay01.geoware.geowareplugin.game.ScoreGuard;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Cierra la partida en curso de los jugadores que se desconectan y olvida su cupo de puntuaciones.
+ */
+public class GameSessionListener implements Listener {
+    private final GameSessionRegistry sessionTracker;
+    private final ScoreGuard scoreGuard;
+
+    public GameSessionListener(GameSessionRegistry sessionTracker, ScoreGuard scoreGuard) {
+        this.sessionTracker = sessionTracker;
+        this.scoreGuard = scoreGuard;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        sessionTracker.end(event.getPlayer().getUniqueId());
+        scoreGuard.forget(event.getPlayer().getUniqueId());
+    }
+}
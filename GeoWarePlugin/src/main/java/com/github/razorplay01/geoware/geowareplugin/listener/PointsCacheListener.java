@@ -0,0 +1,40 @@
+package com.github.razorplay01.geoware.geowareplugin.listener;
+
+import com.github.razorplay01.geoware.geowareplugin.PointsManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Mantiene la caché de puntos de {@link PointsManager} alineada con los jugadores conectados.
+ */
+public class PointsCacheListener implements Listener {
+    private final PointsManager pointsManager;
+
+    public PointsCacheListener(PointsManager pointsManager) {
+        this.pointsManager = pointsManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            pointsManager.loadPlayer(event.getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        // Por si no hubo precarga (por ejemplo tras recargar el plugin)
+        if (!pointsManager.isLoaded(event.getPlayer().getUniqueId())) {
+            pointsManager.loadPlayer(event.getPlayer().getUniqueId());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        pointsManager.unloadPlayer(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,35 @@
+package com.github.razorplay01.geoware.geowareplugin.listener;
+
+import com.github.razorplay01.geoware.geowareplugin.selector.SelectorEngine;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Mantiene los grupos por modo de juego de {@link SelectorEngine} alineados con los jugadores conectados.
+ */
+public class SelectorIndexListener implements Listener {
+    private final SelectorEngine selectors;
+
+    public SelectorIndexListener(SelectorEngine selectors) {
+        this.selectors = selectors;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        selectors.track(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onGameModeChange(PlayerGameModeChangeEvent event) {
+        selectors.changeGameMode(event.getPlayer(), event.getNewGameMode());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        selectors.untrack(event.getPlayer());
+    }
+}
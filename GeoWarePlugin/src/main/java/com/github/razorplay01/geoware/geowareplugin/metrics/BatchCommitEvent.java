@@ -0,0 +1,47 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de JDK Flight Recorder por cada lote de escrituras confirmado por el hilo escritor, desde la
+ * primera escritura del lote hasta el commit. Desactivado por defecto.
+ */
+@Name("geoware.BatchCommit")
+@Label("Points Batch Commit")
+@Description("Group commit of queued points writes")
+@Category({"GeoWare", "Storage"})
+@Enabled(false)
+@StackTrace(false)
+public class BatchCommitEvent extends jdk.jfr.Event {
+    @Label("Writes")
+    int writes;
+    @Label("Failed Writes")
+    int failed;
+    @Label("Succeeded")
+    boolean succeeded;
+    @Label("Player UUID")
+    @Description("Always empty: a batch mixes writes of every player; see the DbStatement events inside it")
+    String playerId;
+    @Label("Game")
+    @Description("Always empty: a batch mixes writes of every game")
+    String gameId;
+
+    /**
+     * Termina el evento y lo guarda si hay una grabación que lo recoja.
+     *
+     * @param succeeded Si el commit se confirmó; si no, todas las escrituras del lote han fallado
+     */
+    public void record(int writes, int failed, boolean succeeded) {
+        if (shouldCommit()) {
+            this.writes = writes;
+            this.failed = failed;
+            this.succeeded = succeeded;
+            commit();
+        }
+    }
+}
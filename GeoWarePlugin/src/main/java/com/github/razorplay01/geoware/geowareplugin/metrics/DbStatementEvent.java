@@ -0,0 +1,49 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Evento de JDK Flight Recorder por cada escritura de puntos ejecutada en el hilo escritor de SQLite.
+ * Desactivado por defecto, como el resto de eventos del plugin; se activa en las opciones de la grabación o
+ * en su fichero .jfc, por ejemplo {@code -XX:StartFlightRecording:+geoware.DbStatement#enabled=true}.
+ */
+@Name("geoware.DbStatement")
+@Label("Points Statement")
+@Description("Points write executed by the SQLite writer thread, before its batch commits")
+@Category({"GeoWare", "Storage"})
+@Enabled(false)
+@StackTrace(false)
+public class DbStatementEvent extends jdk.jfr.Event {
+    @Label("Kind")
+    String kind;
+    @Label("Rows")
+    @Description("Rows inserted or updated")
+    int rows;
+    @Label("Player UUID")
+    String playerId;
+    @Label("Game")
+    String gameId;
+
+    /**
+     * Termina el evento y lo guarda si hay una grabación que lo recoja.
+     *
+     * @param playerId Jugador afectado, o null si son varios
+     * @param gameId   Minijuego de la puntuación, o null
+     */
+    public void record(String kind, int rows, UUID playerId, String gameId) {
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.rows = rows;
+            this.playerId = playerId == null ? null : playerId.toString();
+            this.gameId = gameId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con límites fijos, pensado para exportarse en formato Prometheus.
+ * <p>
+ * Cada intervalo es un {@link LongAdder}, así que registrar una medida no bloquea a otros hilos y leerlo
+ * no detiene a quien registra. Los intervalos se guardan sin acumular y se acumulan al leerlos.
+ */
+public class LatencyHistogram {
+    /**
+     * Límites para operaciones en memoria, de 1 µs a 10 ms.
+     */
+    public static final double[] MEMORY_BOUNDS = {0.000_001, 0.000_005, 0.000_01, 0.000_05, 0.000_1, 0.000_5,
+            0.001, 0.005, 0.01};
+    /**
+     * Límites para operaciones en disco, de 0,5 ms a 5 s.
+     */
+    public static final double[] DISK_BOUNDS = {0.000_5, 0.001, 0.002_5, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25,
+            0.5, 1, 2.5, 5};
+
+    /**
+     * @param bounds     Límite superior de cada intervalo, en segundos
+     * @param cumulative Medidas menores o iguales que cada límite; la última posición son todas las medidas
+     * @param sumSeconds Suma de todas las medidas, en segundos
+     */
+    public record Snapshot(double[] bounds, long[] cumulative, double sumSeconds) {
+        public long count() {
+            return cumulative[cumulative.length - 1];
+        }
+    }
+
+    private final double[] bounds;
+    private final long[] boundsNanos;
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * @param bounds Límite superior de cada intervalo en segundos, de menor a mayor
+     */
+    public LatencyHistogram(double[] bounds) {
+        this.bounds = bounds.clone();
+        this.boundsNanos = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            boundsNanos[i] = Math.round(bounds[i] * 1_000_000_000L);
+        }
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int bucket = 0;
+        while (bucket < boundsNanos.length && nanos > boundsNanos[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Los intervalos se leen uno a uno mientras otros hilos registran, así que una medida muy reciente puede
+     * aparecer en la cuenta y no en la suma o al revés; nunca se pierde.
+     */
+    public Snapshot snapshot() {
+        long[] cumulative = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            total += buckets[i].sum();
+            cumulative[i] = total;
+        }
+        return new Snapshot(bounds, cumulative, sumNanos.sum() / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.PointsManager;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSessionRegistry;
+import com.github.razorplay01.geoware.geowareplugin.game.MiniGame;
+import com.github.razorplay01.geoware.geowareplugin.game.ScoreGuard;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketMetrics;
+import com.github.razorplay01.geoware.geowareplugin.network.PacketProcessor;
+import com.github.razorplay01.geoware.geowareplugin.storage.PointsWriter;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import com.github.razorplay01.geoware.geowareplugin.storage.SqlitePointsStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Endpoint HTTP con las métricas del plugin en el formato de texto de Prometheus.
+ * <p>
+ * Está desactivado por defecto y escucha solo en la propia máquina salvo que se configure otra dirección.
+ * Cada petición se atiende en un hilo propio y lee únicamente contadores ({@link java.util.concurrent.atomic.LongAdder},
+ * atómicos y {@link LatencyHistogram}) que ya mantienen los componentes, así que una consulta nunca toca
+ * la base de datos ni espera al hilo principal.
+ */
+public class MetricsServer {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsSettings settings;
+    private final GeoWarePlugin plugin;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsServer(MetricsSettings settings, GeoWarePlugin plugin) {
+        this.settings = settings;
+        this.plugin = plugin;
+    }
+
+    /**
+     * Abre el endpoint. Debe llamarse cuando ya existen todos los componentes que se exportan.
+     *
+     * @throws IOException Si no se puede escuchar en la dirección configurada
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(settings.host(), settings.port()), 0);
+        server.createContext(settings.path(), this::handle);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        GeoWarePlugin.LOGGER.info("Metrics endpoint listening on http://{}:{}{}", settings.host(), settings.port(),
+                settings.path());
+    }
+
+    public void shutdown() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body;
+            try {
+                body = render().getBytes(StandardCharsets.UTF_8);
+            } catch (RuntimeException e) {
+                GeoWarePlugin.LOGGER.error("Error rendering metrics", e);
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    String render() {
+        Exposition out = new Exposition();
+        renderStorage(out);
+        renderSessions(out);
+        renderScores(out);
+        renderPackets(out);
+        return out.toString();
+    }
+
+    private void renderStorage(Exposition out) {
+        PointsManager pointsManager = plugin.getPointsManager();
+        if (pointsManager == null) {
+            return;
+        }
+        if (pointsManager.getStore() instanceof SqlitePointsStore sqliteStore) {
+            PointsWriter writer = sqliteStore.getWriter();
+            out.family("geoware_db_write_queue_depth", "gauge", "Points writes waiting in the writer queue");
+            out.sample("geoware_db_write_queue_depth", "", writer.getQueueDepth());
+            out.family("geoware_db_writes_committed_total", "counter", "Points writes committed");
+            out.sample("geoware_db_writes_committed_total", "", writer.getCommittedWrites());
+            out.family("geoware_db_writes_failed_total", "counter", "Points writes that failed or were rolled back");
+            out.sample("geoware_db_writes_failed_total", "", writer.getFailedWrites());
+            out.family("geoware_db_queue_saturated_total", "counter", "Times a producer waited for a full writer queue");
+            out.sample("geoware_db_queue_saturated_total", "", writer.getSaturatedOffers());
+            out.family("geoware_db_commit_seconds", "histogram", "Duration of each group commit");
+            out.histogram("geoware_db_commit_seconds", "", writer.getCommitLatency());
+        }
+
+        RankIndex rankIndex = pointsManager.getRankIndex();
+        out.family("geoware_rank_query_seconds", "histogram", "Duration of in-memory rank and top queries");
+        out.histogram("geoware_rank_query_seconds", "query=\"rank\"", rankIndex.getRankLatency());
+        out.histogram("geoware_rank_query_seconds", "query=\"top\"", rankIndex.getTopLatency());
+    }
+
+    private void renderSessions(Exposition out) {
+        GameSessionRegistry sessions = plugin.getGameSessions();
+        out.family("geoware_game_sessions_active", "gauge", "Open game sessions per minigame");
+        for (MiniGame game : MiniGame.values()) {
+            out.sample("geoware_game_sessions_active", "game=\"" + game.getId() + "\"", sessions.getActive(game));
+        }
+        out.family("geoware_game_sessions_started_total", "counter", "Game sessions launched");
+        out.sample("geoware_game_sessions_started_total", "", sessions.getStarted());
+        out.family("geoware_game_sessions_expired_total", "counter", "Game sessions that expired without a score");
+        out.sample("geoware_game_sessions_expired_total", "", sessions.getExpired());
+    }
+
+    private void renderScores(Exposition out) {
+        ScoreGuard scoreGuard = plugin.getScoreGuard();
+        out.family("geoware_scores_accepted_total", "counter", "Client scores accepted");
+        out.sample("geoware_scores_accepted_total", "", scoreGuard.getAccepted());
+        out.family("geoware_scores_rejected_total", "counter", "Client scores rejected, by reason");
+        for (ScoreGuard.Rejection rejection : ScoreGuard.Rejection.values()) {
+            out.sample("geoware_scores_rejected_total", "reason=\"" + rejection.name().toLowerCase(Locale.ROOT) + "\"",
+                    scoreGuard.getRejected(rejection));
+        }
+    }
+
+    private void renderPackets(Exposition out) {
+        PacketMetrics metrics = plugin.getPacketMetrics();
+        List<PacketMetrics.Snapshot> outbound = metrics.snapshot(PacketMetrics.Direction.OUTBOUND);
+        List<PacketMetrics.Snapshot> inbound = metrics.snapshot(PacketMetrics.Direction.INBOUND);
+        out.family("geoware_packets_total", "counter", "Packets sent and received, by packet id");
+        packetSamples(out, "geoware_packets_total", outbound, inbound, snapshot -> snapshot.messages());
+        out.family("geoware_packet_bytes_total", "counter", "Packet bytes sent and received, by packet id");
+        packetSamples(out, "geoware_packet_bytes_total", outbound, inbound, snapshot -> snapshot.bytes());
+        out.family("geoware_packet_codec_seconds_total", "counter", "Time spent encoding or decoding packets");
+        packetSamples(out, "geoware_packet_codec_seconds_total", outbound, inbound, snapshot -> snapshot.nanos() / 1_000_000_000.0);
+
+        PacketProcessor processor = plugin.getPacketProcessor();
+        if (processor != null) {
+            out.family("geoware_packets_dropped_total", "counter", "Incoming packets dropped because a player queue was full");
+            out.sample("geoware_packets_dropped_total", "", processor.getDroppedPackets());
+            out.family("geoware_packets_malformed_total", "counter", "Incoming packets that could not be decoded");
+            out.sample("geoware_packets_malformed_total", "", processor.getMalformedPackets());
+        }
+    }
+
+    private static void packetSamples(Exposition out, String name, List<PacketMetrics.Snapshot> outbound,
+                                      List<PacketMetrics.Snapshot> inbound, ToDoubleFunction<PacketMetrics.Snapshot> value) {
+        for (PacketMetrics.Snapshot snapshot : outbound) {
+            out.sample(name, "direction=\"outbound\",packet=\"" + escape(snapshot.packetId()) + "\"", value.applyAsDouble(snapshot));
+        }
+        for (PacketMetrics.Snapshot snapshot : inbound) {
+            out.sample(name, "direction=\"inbound\",packet=\"" + escape(snapshot.packetId()) + "\"", value.applyAsDouble(snapshot));
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Texto de la respuesta. Las muestras de una familia deben escribirse justo después de su cabecera.
+     */
+    private static final class Exposition {
+        private final StringBuilder text = new StringBuilder(4096);
+
+        void family(String name, String type, String help) {
+            text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        void sample(String name, String labels, long value) {
+            appendName(name, labels).append(' ').append(value).append('\n');
+        }
+
+        void sample(String name, String labels, double value) {
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                sample(name, labels, (long) value);
+            } else {
+                appendName(name, labels).append(' ').append(value).append('\n');
+            }
+        }
+
+        void histogram(String name, String labels, LatencyHistogram histogram) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            String separator = labels.isEmpty() ? "" : labels + ",";
+            double[] bounds = snapshot.bounds();
+            for (int i = 0; i < bounds.length; i++) {
+                sample(name + "_bucket", separator + "le=\"" + BigDecimal.valueOf(bounds[i]).toPlainString() + "\"",
+                        snapshot.cumulative()[i]);
+            }
+            sample(name + "_bucket", separator + "le=\"+Inf\"", snapshot.count());
+            sample(name + "_sum", labels, snapshot.sumSeconds());
+            sample(name + "_count", labels, snapshot.count());
+        }
+
+        private StringBuilder appendName(String name, String labels) {
+            text.append(name);
+            if (!labels.isEmpty()) {
+                text.append('{').append(labels).append('}');
+            }
+            return text;
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Endpoint de métricas, leído de la sección {@code metrics} del config.yml.
+ *
+ * @param enabled Si se abre el endpoint
+ * @param host    Dirección en la que escucha; por defecto solo la propia máquina
+ * @param port    Puerto en el que escucha
+ * @param path    Ruta de las métricas
+ */
+public record MetricsSettings(boolean enabled, String host, int port, String path) {
+    public static final MetricsSettings DEFAULTS = new MetricsSettings(false, "127.0.0.1", 9464, "/metrics");
+
+    public static MetricsSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        String path = section.getString("path", DEFAULTS.path()).trim();
+        return new MetricsSettings(
+                section.getBoolean("enabled", DEFAULTS.enabled()),
+                section.getString("host", DEFAULTS.host()).trim(),
+                Math.max(1, Math.min(65535, section.getInt("port", DEFAULTS.port()))),
+                path.startsWith("/") ? path : "/" + path);
+    }
+}
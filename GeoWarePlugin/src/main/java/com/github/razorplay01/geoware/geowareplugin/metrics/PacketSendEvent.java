@@ -0,0 +1,50 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Evento de JDK Flight Recorder por cada paquete serializado y enviado a los clientes. Desactivado por defecto.
+ */
+@Name("geoware.PacketSend")
+@Label("Packet Send")
+@Description("Encoding and delivery of a plugin packet to one or more players")
+@Category({"GeoWare", "Network"})
+@Enabled(false)
+@StackTrace(false)
+public class PacketSendEvent extends jdk.jfr.Event {
+    @Label("Packet")
+    String packetId;
+    @Label("Recipients")
+    int recipients;
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+    @Label("Player UUID")
+    @Description("Recipient, empty when the packet went to several players")
+    String playerId;
+    @Label("Game")
+    String gameId;
+
+    /**
+     * @param playerId Jugador que lo recibe, o null si son varios
+     * @param gameId   Minijuego que lanza el paquete, o null
+     */
+    public void record(String packetId, int recipients, long bytes, UUID playerId, String gameId) {
+        if (shouldCommit()) {
+            this.packetId = packetId;
+            this.recipients = recipients;
+            this.bytes = bytes;
+            this.playerId = playerId == null ? null : playerId.toString();
+            this.gameId = gameId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Evento de JDK Flight Recorder por cada consulta de posición, top o bottom del ranking en memoria.
+ * Desactivado por defecto; son muy frecuentes, así que conviene activarlo con un umbral de duración.
+ */
+@Name("geoware.RankQuery")
+@Label("Rank Query")
+@Description("Position, top or bottom query on an in-memory rank index")
+@Category({"GeoWare", "Ranking"})
+@Enabled(false)
+@StackTrace(false)
+public class RankQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    String query;
+    @Label("Entries")
+    @Description("Entries returned, or the position found for a rank query")
+    int entries;
+    @Label("Index Size")
+    int indexSize;
+    @Label("Player UUID")
+    String playerId;
+    @Label("Game")
+    @Description("Always empty: the index holds total points")
+    String gameId;
+
+    /**
+     * @param playerId Jugador consultado, o null para top y bottom
+     */
+    public void record(String query, int entries, int indexSize, UUID playerId) {
+        if (shouldCommit()) {
+            this.query = query;
+            this.entries = entries;
+            this.indexSize = indexSize;
+            this.playerId = playerId == null ? null : playerId.toString();
+            commit();
+        }
+    }
+}
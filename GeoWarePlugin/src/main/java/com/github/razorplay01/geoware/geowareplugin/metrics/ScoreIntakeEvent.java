@@ -0,0 +1,51 @@
+package com.github.razorplay01.geoware.geowareplugin.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Evento de JDK Flight Recorder por cada puntuación enviada por un cliente, aceptada o rechazada.
+ * Desactivado por defecto.
+ */
+@Name("geoware.ScoreIntake")
+@Label("Score Intake")
+@Description("Validation of a score sent by a client")
+@Category({"GeoWare", "Game"})
+@Enabled(false)
+@StackTrace(false)
+public class ScoreIntakeEvent extends jdk.jfr.Event {
+    @Label("Score")
+    int score;
+    @Label("Accepted")
+    boolean accepted;
+    @Label("Rejection")
+    String rejection;
+    @Label("Session")
+    long sessionId;
+    @Label("Player UUID")
+    String playerId;
+    @Label("Game")
+    String gameId;
+
+    /**
+     * @param gameId    Minijuego de la partida, o null si no tiene ninguna
+     * @param rejection Motivo del rechazo, o null si se acepta
+     */
+    public void record(UUID playerId, String gameId, long sessionId, int score, String rejection) {
+        if (shouldCommit()) {
+            this.playerId = playerId.toString();
+            this.gameId = gameId;
+            this.sessionId = sessionId;
+            this.score = score;
+            this.accepted = rejection == null;
+            this.rejection = rejection;
+            commit();
+        }
+    }
+}
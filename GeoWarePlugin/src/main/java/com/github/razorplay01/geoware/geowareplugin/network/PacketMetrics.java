@@ -0,0 +1,146 @@
+package com.github.razorplay01.geoware.geowareplugin.network;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tráfico de paquetes por tipo y dirección: mensajes, bytes y tiempo de codificación o decodificación.
+ * <p>
+ * Los contadores son {@link LongAdder}, así que el hilo principal y los hilos de {@link PacketProcessor}
+ * los incrementan sin bloquearse entre sí. El registro del tráfico está desactivado por defecto, se activa
+ * en caliente con {@code /2dgame stats log} y escribe como mucho {@link PacketSettings#logPerSecond()}
+ * líneas por segundo desde un hilo propio; las que sobran solo se cuentan.
+ */
+public class PacketMetrics {
+    private static final int LOG_QUEUE = 256;
+
+    public enum Direction {
+        OUTBOUND,
+        INBOUND
+    }
+
+    private static final class Counters {
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    /**
+     * @param packetId Identificador del paquete
+     * @param messages Mensajes enviados o recibidos
+     * @param bytes    Bytes enviados o recibidos
+     * @param nanos    Tiempo total de codificación (salida) o decodificación (entrada)
+     */
+    public record Snapshot(String packetId, long messages, long bytes, long nanos) {
+        public long averageNanos() {
+            return messages == 0 ? 0 : nanos / messages;
+        }
+    }
+
+    private final Map<String, Counters> outbound = new ConcurrentHashMap<>();
+    private final Map<String, Counters> inbound = new ConcurrentHashMap<>();
+    private final int logPerSecond;
+    private final ThreadPoolExecutor logger;
+    private volatile boolean logging;
+    private final AtomicLong logWindow = new AtomicLong();
+    private final LongAdder loggedInWindow = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    public PacketMetrics(PacketSettings settings) {
+        this.logPerSecond = settings.logPerSecond();
+        this.logging = settings.logTraffic();
+        this.logger = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(LOG_QUEUE), runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-PacketLog");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Registra un paquete enviado a uno o varios jugadores.
+     *
+     * @param recipients  Jugadores que lo han recibido
+     * @param bytes       Bytes enviados en total
+     * @param encodeNanos Tiempo de serialización de todos los envíos
+     */
+    public void recordOutbound(String packetId, int recipients, long bytes, long encodeNanos) {
+        Counters counters = outbound.computeIfAbsent(packetId, id -> new Counters());
+        counters.messages.add(recipients);
+        counters.bytes.add(bytes);
+        counters.nanos.add(encodeNanos);
+        if (logging) {
+            log("Packet {} sent to {} client(s), {} bytes, encoded in {} us", packetId, recipients, bytes, encodeNanos / 1_000);
+        }
+    }
+
+    /**
+     * Registra un paquete recibido y decodificado.
+     */
+    public void recordInbound(String packetId, String playerName, int bytes, long decodeNanos) {
+        Counters counters = inbound.computeIfAbsent(packetId, id -> new Counters());
+        counters.messages.increment();
+        counters.bytes.add(bytes);
+        counters.nanos.add(decodeNanos);
+        if (logging) {
+            log("Packet {} received from {}, {} bytes, decoded in {} us", packetId, playerName, bytes, decodeNanos / 1_000);
+        }
+    }
+
+    /**
+     * Encola la línea si queda cupo en el segundo actual; la cuenta de las descartadas se añade a la
+     * siguiente que se escribe.
+     */
+    private void log(String format, Object... arguments) {
+        long second = System.currentTimeMillis() / 1_000;
+        long window = logWindow.get();
+        if (window != second && logWindow.compareAndSet(window, second)) {
+            loggedInWindow.reset();
+        }
+        if (loggedInWindow.sum() >= logPerSecond) {
+            suppressed.increment();
+            return;
+        }
+        loggedInWindow.increment();
+        long skipped = suppressed.sumThenReset();
+        logger.execute(() -> {
+            GeoWarePlugin.LOGGER.info(format, arguments);
+            if (skipped > 0) {
+                GeoWarePlugin.LOGGER.info("{} packet log lines suppressed", skipped);
+            }
+        });
+    }
+
+    public boolean isLogging() {
+        return logging;
+    }
+
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * @return Contadores de cada tipo de paquete, de más a menos mensajes
+     */
+    public List<Snapshot> snapshot(Direction direction) {
+        Map<String, Counters> source = direction == Direction.OUTBOUND ? outbound : inbound;
+        List<Snapshot> snapshots = new ArrayList<>(source.size());
+        source.forEach((packetId, counters) -> snapshots.add(new Snapshot(packetId, counters.messages.sum(),
+                counters.bytes.sum(), counters.nanos.sum())));
+        snapshots.sort(Comparator.comparingLong(Snapshot::messages).reversed());
+        return snapshots;
+    }
+
+    public void shutdown() {
+        logger.shutdown();
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.razorplay01.geoware.geowareplugin.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketInstantiationException;
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.IPacket;
+import com.github.razorplay.packet_handler.network.PacketTCP;
+import com.github.razorplay01.geoware.geowarecommon.network.packet.ScorePacket;
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.game.ScoreGuard;
+import com.google.common.io.ByteStreams;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decodifica y procesa los mensajes de plugin recibidos fuera del hilo principal.
+ * <p>
+ * Cada jugador se asigna siempre al mismo hilo según su UUID, así que sus paquetes se procesan en el orden
+ * en que llegaron, mientras que los de jugadores distintos avanzan en paralelo. Cada jugador tiene como
+ * mucho {@link PacketSettings#perPlayerQueue()} paquetes pendientes: los que llegan con la cola llena se
+ * descartan, de modo que un cliente que inunda el canal no puede acumular trabajo sin límite. Un paquete
+ * que no se puede decodificar se cuenta y se descarta en el hilo del worker, sin llegar al tick.
+ * <p>
+ * El procesado no toca la API de Bukkit: recibe el UUID y el nombre del jugador capturados al llegar el
+ * mensaje. Lo que necesite Bukkit debe volver al hilo principal con el scheduler.
+ */
+public class PacketProcessor {
+    private static final long MALFORMED_WARN_INTERVAL_MS = 1_000;
+
+    private final int perPlayerQueue;
+    private final PacketMetrics metrics;
+    private final ExecutorService[] stripes;
+    /**
+     * Paquetes pendientes de cada jugador; la entrada desaparece cuando no le queda ninguno.
+     */
+    private final Map<UUID, Integer> pending = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final AtomicLong lastMalformedWarn = new AtomicLong();
+
+    public PacketProcessor(PacketSettings settings, PacketMetrics metrics) {
+        this.perPlayerQueue = settings.perPlayerQueue();
+        this.metrics = metrics;
+        this.stripes = new ExecutorService[settings.workerThreads()];
+        for (int i = 0; i < stripes.length; i++) {
+            String name = "GeoWare-PacketWorker-" + (i + 1);
+            stripes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Encola un mensaje recibido. Se llama desde el hilo que entrega los mensajes de plugin.
+     *
+     * @param playerId   UUID del jugador que envió el mensaje
+     * @param playerName Nombre del jugador
+     * @param message    Bytes del mensaje; no se copian, el servidor no los reutiliza
+     */
+    public void submit(UUID playerId, String playerName, byte[] message) {
+        received.increment();
+        boolean[] accepted = new boolean[1];
+        pending.compute(playerId, (uuid, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= perPlayerQueue) {
+                return count;
+            }
+            accepted[0] = true;
+            return current + 1;
+        });
+        if (!accepted[0]) {
+            dropped.increment();
+            GeoWarePlugin.LOGGER.debug("Packet queue full for {}, dropping message", playerName);
+            return;
+        }
+        try {
+            stripes[Math.floorMod(playerId.hashCode(), stripes.length)].execute(() -> {
+                try {
+                    process(playerId, playerName, message);
+                } finally {
+                    release(playerId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // El plugin se está desactivando
+            release(playerId);
+            dropped.increment();
+        }
+    }
+
+    private void release(UUID playerId) {
+        pending.computeIfPresent(playerId, (uuid, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private void process(UUID playerId, String playerName, byte[] message) {
+        IPacket packet;
+        long start = System.nanoTime();
+        try {
+            packet = PacketTCP.read(ByteStreams.newDataInput(message));
+        } catch (PacketSerializationException | PacketInstantiationException | RuntimeException e) {
+            onMalformed(playerName, e);
+            return;
+        }
+        processed.increment();
+        metrics.recordInbound(packet.getPacketId(), playerName, message.length, System.nanoTime() - start);
+        if (packet instanceof ScorePacket pkt) {
+            GeoWarePlugin plugin = GeoWarePlugin.getInstance();
+            ScoreGuard.Verdict verdict = plugin.getScoreGuard().check(playerId, playerName, pkt.getScore());
+            if (verdict.isAccepted() && !plugin.getRounds().capture(playerId, playerName, verdict.session(), pkt.getScore())) {
+                plugin.getPointsManager().recordGameScore(playerId, playerName, verdict.session(), pkt.getScore());
+            }
+        }
+    }
+
+    /**
+     * Los avisos se limitan a uno por segundo para que un cliente que envía basura no llene el registro.
+     */
+    private void onMalformed(String playerName, Exception e) {
+        malformed.increment();
+        long now = System.currentTimeMillis();
+        long last = lastMalformedWarn.get();
+        if (now - last >= MALFORMED_WARN_INTERVAL_MS && lastMalformedWarn.compareAndSet(last, now)) {
+            GeoWarePlugin.LOGGER.warn("Malformed packet from {} ({} malformed so far): {}", playerName, malformed.sum(), e.toString());
+        } else {
+            GeoWarePlugin.LOGGER.debug("Malformed packet from {}", playerName, e);
+        }
+    }
+
+    public long getReceivedPackets() {
+        return received.sum();
+    }
+
+    public long getProcessedPackets() {
+        return processed.sum();
+    }
+
+    public long getDroppedPackets() {
+        return dropped.sum();
+    }
+
+    public long getMalformedPackets() {
+        return malformed.sum();
+    }
+
+    /**
+     * Espera a que se procesen los paquetes ya recibidos, para que sus puntuaciones lleguen al backend
+     * antes de cerrarlo.
+     */
+    public void shutdown() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        try {
+            for (ExecutorService stripe : stripes) {
+                if (!stripe.awaitTermination(5, TimeUnit.SECONDS)) {
+                    GeoWarePlugin.LOGGER.warn("Packet worker did not finish in time, discarding pending packets");
+                    stripe.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,10 +6,15 @@ import com.github.razorplay.packet_handler.network.PacketTCP;
 import com.github.razorplay01.geoware.geowarecommon.network.packet.*;
 import com.github.razorplay01.geoware.geowarecommon.util.Pair;
 import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.PointsManager;
 import com.github.razorplay01.geoware.geowareplugin.command.Emote;
+import com.github.razorplay01.geoware.geowareplugin.game.MiniGame;
+import com.github.razorplay01.geoware.geowareplugin.metrics.PacketSendEvent;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.IntFunction;
 
 import static com.github.razorplay01.geoware.geowarecommon.GeoWareCommon.PACKET_BASE_CHANNEL;
 
@@ -19,13 +24,11 @@ public class PacketSender {
     }
 
     public static void sendEmotePacketToClient(Player targetPlayer, String emoteId) {
-        try {
-            IPacket packet = new EmotePacket(emoteId);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendEmotePacketToClients(List.of(targetPlayer), emoteId);
+    }
+
+    public static void sendEmotePacketToClients(Collection<? extends Player> targetPlayers, String emoteId) {
+        broadcast(targetPlayers, new EmotePacket(emoteId));
     }
 
     public static void sendEmote(Player targetPlayer, Emote emote) {
@@ -33,157 +36,192 @@ public class PacketSender {
     }
 
     public static void sendArkanoidPacketToClient(Player targetPlayer, int timeLimitSeconds, int level) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new ArkanoidPacket(prevScore, timeLimitSeconds, level);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendArkanoidPacketToClients(List.of(targetPlayer), timeLimitSeconds, level);
+    }
+
+    public static void sendArkanoidPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int level) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new ArkanoidPacket(prevScore, timeLimitSeconds, level));
     }
+
     public static void sendGuitarHeroPacketToClient(Player targetPlayer) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new GuitarHeroPacket(prevScore);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendGuitarHeroPacketToClients(List.of(targetPlayer));
+    }
+
+    public static void sendGuitarHeroPacketToClients(Collection<? extends Player> targetPlayers) {
+        broadcastGame(targetPlayers, 0, prevScore -> new GuitarHeroPacket(prevScore));
     }
 
     public static void sendBubblePuzzlePacketToClient(Player targetPlayer, int timeLimitSeconds, int level) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new BubblePuzzlePacket(prevScore, timeLimitSeconds, level);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendBubblePuzzlePacketToClients(List.of(targetPlayer), timeLimitSeconds, level);
+    }
+
+    public static void sendBubblePuzzlePacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int level) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new BubblePuzzlePacket(prevScore, timeLimitSeconds, level));
     }
 
     public static void sendDonkeyKongPacketToClient(Player targetPlayer, int timeLimitSeconds, int spawnInterval, float spawnProbability) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new DonkeyKongPacket(prevScore, timeLimitSeconds, spawnInterval, spawnProbability);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendDonkeyKongPacketToClients(List.of(targetPlayer), timeLimitSeconds, spawnInterval, spawnProbability);
+    }
+
+    public static void sendDonkeyKongPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int spawnInterval, float spawnProbability) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new DonkeyKongPacket(prevScore, timeLimitSeconds, spawnInterval, spawnProbability));
     }
 
     public static void sendFruitFocusPacketToClient(Player targetPlayer, int timeLimitSeconds, int hideDurationSeconds, int fruitsToHide) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new FruitFocusPacket(prevScore, timeLimitSeconds, hideDurationSeconds, fruitsToHide);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendFruitFocusPacketToClients(List.of(targetPlayer), timeLimitSeconds, hideDurationSeconds, fruitsToHide);
+    }
+
+    public static void sendFruitFocusPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int hideDurationSeconds, int fruitsToHide) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new FruitFocusPacket(prevScore, timeLimitSeconds, hideDurationSeconds, fruitsToHide));
     }
 
     public static void sendGalagaPacketToClient(Player targetPlayer, int timeLimitSeconds, int level) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new GalagaPacket(prevScore, timeLimitSeconds, level);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendGalagaPacketToClients(List.of(targetPlayer), timeLimitSeconds, level);
+    }
+
+    public static void sendGalagaPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int level) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new GalagaPacket(prevScore, timeLimitSeconds, level));
     }
 
     public static void sendHanoiTowersPacketToClient(Player targetPlayer, int timeLimitSeconds, int rings) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new HanoiTowersPacket(prevScore, timeLimitSeconds, rings);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendHanoiTowersPacketToClients(List.of(targetPlayer), timeLimitSeconds, rings);
+    }
+
+    public static void sendHanoiTowersPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int rings) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new HanoiTowersPacket(prevScore, timeLimitSeconds, rings));
     }
 
     public static void sendKeyBindPacketToClient(Player targetPlayer, int timeLimitSeconds, float circleSpeed, float spawnChance) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new KeyBindPacket(prevScore, timeLimitSeconds, circleSpeed, spawnChance);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendKeyBindPacketToClients(List.of(targetPlayer), timeLimitSeconds, circleSpeed, spawnChance);
+    }
+
+    public static void sendKeyBindPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, float circleSpeed, float spawnChance) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new KeyBindPacket(prevScore, timeLimitSeconds, circleSpeed, spawnChance));
     }
 
     public static void sendRobotFactoryPacketToClient(Player targetPlayer, int timeLimitSeconds, float speedMultiplier, boolean enableRotation, int partQuantity) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new RobotFactoryPacket(prevScore, timeLimitSeconds, speedMultiplier, enableRotation, partQuantity);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendRobotFactoryPacketToClients(List.of(targetPlayer), timeLimitSeconds, speedMultiplier, enableRotation, partQuantity);
+    }
+
+    public static void sendRobotFactoryPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, float speedMultiplier, boolean enableRotation, int partQuantity) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new RobotFactoryPacket(prevScore, timeLimitSeconds, speedMultiplier, enableRotation, partQuantity));
     }
 
     public static void sendScaryMazePacketToClient(Player targetPlayer, int timeLimitSeconds, int level) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new ScaryMazePacket(prevScore, timeLimitSeconds, level);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendScaryMazePacketToClients(List.of(targetPlayer), timeLimitSeconds, level);
+    }
+
+    public static void sendScaryMazePacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, int level) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new ScaryMazePacket(prevScore, timeLimitSeconds, level));
     }
 
     public static void sendTetrisPacketToClient(Player targetPlayer, int timeLimitSeconds, float speedMultiplier) {
-        try {
-            int prevScore = GeoWarePlugin.getInstance().getPointsManager().getPlayerPoints(targetPlayer);
-            IPacket packet = new TetrisPacket(prevScore, timeLimitSeconds, speedMultiplier);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendTetrisPacketToClients(List.of(targetPlayer), timeLimitSeconds, speedMultiplier);
+    }
+
+    public static void sendTetrisPacketToClients(Collection<? extends Player> targetPlayers, int timeLimitSeconds, float speedMultiplier) {
+        broadcastGame(targetPlayers, timeLimitSeconds, prevScore -> new TetrisPacket(prevScore, timeLimitSeconds, speedMultiplier));
     }
 
     public static void sendScoreboardPacketToClient(Player targetPlayer, List<String> texts, long fadeInMs, long stayMs, long fadeOutMs, int offsetX, int offsetY, float scale) {
-        try {
-            IPacket packet = new ScoreboardPacket(texts, fadeInMs, stayMs, fadeOutMs, offsetX, offsetY, scale);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
-        } catch (PacketSerializationException e) {
-            GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
-        }
+        sendScoreboardPacketToClients(List.of(targetPlayer), texts, fadeInMs, stayMs, fadeOutMs, offsetX, offsetY, scale);
+    }
+
+    public static void sendScoreboardPacketToClients(Collection<? extends Player> targetPlayers, List<String> texts, long fadeInMs, long stayMs, long fadeOutMs, int offsetX, int offsetY, float scale) {
+        broadcast(targetPlayers, new ScoreboardPacket(texts, fadeInMs, stayMs, fadeOutMs, offsetX, offsetY, scale));
     }
 
     public static void sendScoreStatusPacketToClient(Player targetPlayer, boolean isEnable) {
+        sendScoreStatusPacketToClients(List.of(targetPlayer), isEnable);
+    }
+
+    public static void sendScoreStatusPacketToClients(Collection<? extends Player> targetPlayers, boolean isEnable) {
+        broadcast(targetPlayers, new ScoreStatusPacket(isEnable));
+    }
+
+    public static void sendScoreUpdaterPacketToClient(Player targetPlayer) {
+        Pair<Integer, Integer> scoreAndPosition = GeoWarePlugin.getInstance().getPointsManager().obtenerPuntosYPosicion(targetPlayer);
+        sendScoreUpdaterPacketToClient(targetPlayer, scoreAndPosition.getKey(), scoreAndPosition.getValue());
+    }
+
+    public static void sendScoreUpdaterPacketToClient(Player targetPlayer, int score, int position) {
+        broadcast(List.of(targetPlayer), new ScoreUpdaterPacket(score, position));
+    }
+
+    /**
+     * Serializa el paquete una sola vez y envía el mismo array a todos los jugadores; nunca se modifica
+     * después, así que puede compartirse entre envíos.
+     */
+    private static void broadcast(Collection<? extends Player> targetPlayers, IPacket packet) {
+        if (targetPlayers.isEmpty()) {
+            return;
+        }
+        PacketSendEvent event = new PacketSendEvent();
+        event.begin();
         try {
-            IPacket packet = new ScoreStatusPacket(isEnable);
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
+            long start = System.nanoTime();
+            byte[] data = PacketTCP.write(packet);
+            long encodeNanos = System.nanoTime() - start;
+            for (Player targetPlayer : targetPlayers) {
+                targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, data);
+            }
+            if (event.shouldCommit()) {
+                event.record(packet.getPacketId(), targetPlayers.size(), (long) data.length * targetPlayers.size(),
+                        targetPlayers.size() == 1 ? targetPlayers.iterator().next().getUniqueId() : null,
+                        MiniGame.fromPacketId(packet.getPacketId()).map(MiniGame::getId).orElse(null));
+            }
+            GeoWarePlugin.getInstance().getPacketMetrics().recordOutbound(packet.getPacketId(), targetPlayers.size(),
+                    (long) data.length * targetPlayers.size(), encodeNanos);
         } catch (PacketSerializationException e) {
             GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
         }
     }
 
-    public static void sendScoreUpdaterPacketToClient(Player targetPlayer) {
+    /**
+     * Envía un paquete de minijuego a varios jugadores. Todos reciben los mismos parámetros salvo la
+     * puntuación previa, que se parchea sobre una única serialización ({@link ScorePacketTemplate}).
+     *
+     * @param timeLimitSeconds Tiempo límite de la partida, 0 si el minijuego no tiene
+     * @param packetWithScore  Crea el paquete con la puntuación previa indicada
+     */
+    private static void broadcastGame(Collection<? extends Player> targetPlayers, int timeLimitSeconds, IntFunction<IPacket> packetWithScore) {
+        if (targetPlayers.isEmpty()) {
+            return;
+        }
+        PointsManager pointsManager = GeoWarePlugin.getInstance().getPointsManager();
         try {
-            Pair<Integer, Integer> scoreAndPosition = GeoWarePlugin.getInstance().getPointsManager().obtenerPuntosYPosicion(targetPlayer);
-            IPacket packet = new ScoreUpdaterPacket(scoreAndPosition.getKey(), scoreAndPosition.getValue());
-            packetSendInfo(packet, targetPlayer);
-            targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, PacketTCP.write(packet));
+            long start = System.nanoTime();
+            ScorePacketTemplate template = ScorePacketTemplate.of(packetWithScore);
+            long encodeNanos = System.nanoTime() - start;
+            if (!template.isPatchable()) {
+                GeoWarePlugin.LOGGER.debug("Packet {} can't be patched, serializing it per player", template.packet().getPacketId());
+            }
+            long bytes = 0;
+            String gameId = MiniGame.fromPacketId(template.packet().getPacketId()).map(MiniGame::getId).orElse(null);
+            for (Player targetPlayer : targetPlayers) {
+                PacketSendEvent event = new PacketSendEvent();
+                event.begin();
+                int prevScore = pointsManager.getPlayerPoints(targetPlayer);
+                long patchStart = System.nanoTime();
+                byte[] data = template.withScore(prevScore);
+                encodeNanos += System.nanoTime() - patchStart;
+                bytes += data.length;
+                targetPlayer.sendPluginMessage(GeoWarePlugin.getInstance(), PACKET_BASE_CHANNEL, data);
+                startGameSession(targetPlayer, template.packet(), timeLimitSeconds);
+                event.record(template.packet().getPacketId(), 1, data.length, targetPlayer.getUniqueId(), gameId);
+            }
+            GeoWarePlugin.getInstance().getPacketMetrics().recordOutbound(template.packet().getPacketId(),
+                    targetPlayers.size(), bytes, encodeNanos);
         } catch (PacketSerializationException e) {
             GeoWarePlugin.getInstance().getLogger().warning(e.getMessage());
         }
     }
 
-    private static void packetSendInfo(IPacket packet, Player targetPlayer) {
-        GeoWarePlugin.getInstance().getLogger().info("Packet: " + packet.getPacketId() + ", sent to the client: " + targetPlayer.getName());
+    /**
+     * Registra la partida que acaba de lanzarse para atribuirle la puntuación que devuelva el cliente.
+     */
+    private static void startGameSession(Player targetPlayer, IPacket packet, int timeLimitSeconds) {
+        MiniGame.fromPacketId(packet.getPacketId())
+                .ifPresent(game -> GeoWarePlugin.getInstance().getGameSessions().start(targetPlayer.getUniqueId(), game, timeLimitSeconds));
     }
 }
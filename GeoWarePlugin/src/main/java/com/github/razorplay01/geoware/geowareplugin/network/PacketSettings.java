@@ -0,0 +1,26 @@
+package com.github.razorplay01.geoware.geowareplugin.network;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Parámetros del procesado de los paquetes recibidos, leídos de la sección {@code packets} del config.yml.
+ *
+ * @param workerThreads  Hilos que decodifican y procesan los paquetes
+ * @param perPlayerQueue Paquetes pendientes por jugador; los que llegan con la cola llena se descartan
+ * @param logTraffic     Si se registra el tráfico de paquetes al arrancar; se cambia con {@code /2dgame stats log}
+ * @param logPerSecond   Líneas de registro del tráfico por segundo como máximo
+ */
+public record PacketSettings(int workerThreads, int perPlayerQueue, boolean logTraffic, int logPerSecond) {
+    public static final PacketSettings DEFAULTS = new PacketSettings(2, 32, false, 5);
+
+    public static PacketSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new PacketSettings(
+                Math.max(1, section.getInt("worker-threads", DEFAULTS.workerThreads())),
+                Math.max(1, section.getInt("per-player-queue", DEFAULTS.perPlayerQueue())),
+                section.getBoolean("log-traffic", DEFAULTS.logTraffic()),
+                Math.max(1, section.getInt("log-per-second", DEFAULTS.logPerSecond())));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.razorplay01.geoware.geowareplugin.network;
+
+import com.github.razorplay.packet_handler.exceptions.PacketSerializationException;
+import com.github.razorplay.packet_handler.network.IPacket;
+import com.github.razorplay.packet_handler.network.PacketTCP;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Paquete de minijuego serializado una sola vez, del que se obtiene la versión de cada jugador cambiando
+ * solo los bytes de la puntuación previa.
+ * <p>
+ * La posición de la puntuación se descubre serializando el paquete con dos puntuaciones distintas y
+ * comparando el resultado: si solo difieren cuatro bytes seguidos, y parchearlos reproduce exactamente
+ * una tercera serialización, esos bytes son el entero de la puntuación. Si el formato no lo permite
+ * (longitudes distintas, enteros de longitud variable...), cada jugador recibe su propia serialización.
+ */
+final class ScorePacketTemplate {
+    private static final int FIRST_PROBE = 0;
+    private static final int SECOND_PROBE = -1;
+    private static final int CHECK_PROBE = 0x12345678;
+
+    private final IntFunction<IPacket> factory;
+    private final IPacket packet;
+    private final byte[] bytes;
+    /**
+     * Posición del entero de la puntuación en {@link #bytes}, o -1 si no se puede parchear
+     */
+    private final int scoreOffset;
+
+    private ScorePacketTemplate(IntFunction<IPacket> factory, IPacket packet, byte[] bytes, int scoreOffset) {
+        this.factory = factory;
+        this.packet = packet;
+        this.bytes = bytes;
+        this.scoreOffset = scoreOffset;
+    }
+
+    /**
+     * @param factory Crea el paquete con la puntuación previa indicada
+     */
+    static ScorePacketTemplate of(IntFunction<IPacket> factory) throws PacketSerializationException {
+        IPacket packet = factory.apply(FIRST_PROBE);
+        byte[] bytes = PacketTCP.write(packet);
+        int offset = findScoreOffset(bytes, PacketTCP.write(factory.apply(SECOND_PROBE)));
+        if (offset >= 0 && !Arrays.equals(patch(bytes, offset, CHECK_PROBE), PacketTCP.write(factory.apply(CHECK_PROBE)))) {
+            offset = -1;
+        }
+        return new ScorePacketTemplate(factory, packet, bytes, offset);
+    }
+
+    /**
+     * Con las puntuaciones 0 y -1 los cuatro bytes del entero cambian, así que deben ser los únicos distintos.
+     */
+    private static int findScoreOffset(byte[] first, byte[] second) {
+        if (first.length != second.length) {
+            return -1;
+        }
+        int from = -1;
+        int to = -1;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] != second[i]) {
+                if (from < 0) {
+                    from = i;
+                }
+                to = i;
+            }
+        }
+        return from >= 0 && to - from == Integer.BYTES - 1 ? from : -1;
+    }
+
+    private static byte[] patch(byte[] source, int offset, int score) {
+        byte[] copy = source.clone();
+        copy[offset] = (byte) (score >>> 24);
+        copy[offset + 1] = (byte) (score >>> 16);
+        copy[offset + 2] = (byte) (score >>> 8);
+        copy[offset + 3] = (byte) score;
+        return copy;
+    }
+
+    /**
+     * Paquete de referencia, para su identificador y el registro de partidas.
+     */
+    IPacket packet() {
+        return packet;
+    }
+
+    boolean isPatchable() {
+        return scoreOffset >= 0;
+    }
+
+    /**
+     * Bytes del paquete con la puntuación previa de un jugador. Siempre es un array nuevo, porque el
+     * servidor envía los mensajes de plugin de forma asíncrona y no se puede reutilizar mientras tanto.
+     */
+    byte[] withScore(int score) throws PacketSerializationException {
+        if (scoreOffset < 0) {
+            return PacketTCP.write(factory.apply(score));
+        }
+        return patch(bytes, scoreOffset, score);
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.razorplay01.geoware.geowareplugin.network;
+
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Agrupa las actualizaciones de {@code ScoreUpdaterPacket} por tick.
+ * <p>
+ * Cada cambio confirmado marca al jugador como pendiente, desde cualquier hilo. Una vez por tick, en el
+ * hilo principal, se leen del {@link RankIndex} los (puntos, posición) de los pendientes y cada uno recibe
+ * como mucho un paquete, y solo si difiere del último que se le envió. Con {@code notifyPositionChanges}
+ * también se revisan los demás jugadores conectados en los ticks con cambios, porque su posición puede
+ * haberse movido sin que cambiaran sus puntos.
+ */
+public class ScoreUpdateCoalescer {
+    private final RankIndex rankIndex;
+    private final boolean notifyPositionChanges;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allDirty = new AtomicBoolean();
+
+    /**
+     * Último (puntos, posición) enviado a cada jugador conectado. Solo se usa en el hilo principal.
+     */
+    private final Map<UUID, RankIndex.Standing> lastSent = new HashMap<>();
+    private BukkitTask task;
+
+    public ScoreUpdateCoalescer(RankIndex rankIndex, boolean notifyPositionChanges) {
+        this.rankIndex = rankIndex;
+        this.notifyPositionChanges = notifyPositionChanges;
+    }
+
+    public void start(Plugin plugin) {
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, 1, 1);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Marca a un jugador para enviarle su puntuación en el próximo tick. Debe llamarse después de que el
+     * cambio esté aplicado en el índice.
+     */
+    public void markDirty(UUID uuid) {
+        dirty.add(uuid);
+    }
+
+    /**
+     * Marca a todos los jugadores conectados, por ejemplo tras un reinicio global.
+     */
+    public void markAllDirty() {
+        allDirty.set(true);
+    }
+
+    /**
+     * Olvida lo enviado a un jugador que se ha desconectado.
+     */
+    public void forget(UUID uuid) {
+        dirty.remove(uuid);
+        if (Bukkit.isPrimaryThread()) {
+            lastSent.remove(uuid);
+        }
+    }
+
+    private void flush() {
+        // Se lee y se limpia a la vez para no perder una marca que llegue desde el hilo escritor entre ambas
+        boolean everyone = allDirty.getAndSet(false);
+        if (!everyone && dirty.isEmpty()) {
+            return;
+        }
+
+        Collection<? extends Player> candidates;
+        if (everyone || notifyPositionChanges) {
+            dirty.clear();
+            candidates = Bukkit.getOnlinePlayers();
+        } else {
+            Collection<Player> players = new ArrayList<>(dirty.size());
+            for (UUID uuid : dirty) {
+                dirty.remove(uuid);
+                Player player = Bukkit.getPlayer(uuid);
+                if (player != null) {
+                    players.add(player);
+                }
+            }
+            candidates = players;
+        }
+
+        for (Player player : candidates) {
+            RankIndex.Standing standing = rankIndex.standingOf(player.getUniqueId());
+            if (standing == null) {
+                standing = new RankIndex.Standing(0, 0);
+            }
+            if (!standing.equals(lastSent.put(player.getUniqueId(), standing))) {
+                PacketSender.sendScoreUpdaterPacketToClient(player, standing.points(), standing.position());
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Estado de los contadores de un servidor para un grupo de jugadores: los que han cambiado desde el
+ * último intercambio, o todos en una instantánea.
+ * <p>
+ * Lleva los contadores completos y no sus incrementos, así que aplicarlo dos veces, o después de otro
+ * posterior, no cambia nada.
+ *
+ * @param node     Servidor que lo ha escrito
+ * @param sequence Número del fichero dentro de los del servidor
+ * @param entries  Estado de cada jugador
+ */
+public record Delta(String node, long sequence, List<Entry> entries) {
+    private static final int MAGIC = 0x47575250;
+    private static final byte VERSION = 1;
+
+    /**
+     * @param uuid      UUID del jugador
+     * @param name      Último nombre conocido del jugador
+     * @param nameStamp Momento en el que el servidor vio ese nombre, para quedarse siempre con el más reciente
+     * @param positive  Puntos sumados por el servidor
+     * @param negative  Puntos restados por el servidor
+     */
+    public record Entry(UUID uuid, String name, long nameStamp, long positive, long negative) {
+    }
+
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(node);
+            out.writeLong(sequence);
+            out.writeInt(entries.size());
+            for (Entry entry : entries) {
+                out.writeLong(entry.uuid().getMostSignificantBits());
+                out.writeLong(entry.uuid().getLeastSignificantBits());
+                out.writeUTF(entry.name());
+                out.writeLong(entry.nameStamp());
+                out.writeLong(entry.positive());
+                out.writeLong(entry.negative());
+            }
+        }
+    }
+
+    public static Delta read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Unknown replication file format: " + file);
+            }
+            String node = in.readUTF();
+            long sequence = in.readLong();
+            int count = in.readInt();
+            List<Entry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                entries.add(new Entry(uuid, in.readUTF(), in.readLong(), in.readLong(), in.readLong()));
+            }
+            return new Delta(node, sequence, entries);
+        }
+    }
+}
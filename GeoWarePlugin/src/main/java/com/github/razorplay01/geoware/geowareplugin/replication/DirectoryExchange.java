@@ -0,0 +1,244 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Intercambio de {@link Delta} a través de una carpeta compartida por todos los servidores.
+ * <p>
+ * Cada servidor escribe solo en su subcarpeta: un fichero numerado por cada intercambio con cambios y, de
+ * vez en cuando, una instantánea con todo su estado, tras la que borra los ficheros que ya cubre. Los
+ * ficheros se escriben con otro nombre y se renombran de forma atómica, así que nunca se lee uno a medias.
+ * Quien lee recuerda el último número aplicado de cada servidor; si falta alguno intermedio porque ya se
+ * compactó, o la instantánea ha cambiado, vuelve a leerla.
+ * <p>
+ * Mientras un servidor usa su subcarpeta mantiene un bloqueo sobre un fichero dentro de ella, para que
+ * otro arrancado por error con el mismo identificador no escriba los mismos números de fichero.
+ */
+final class DirectoryExchange {
+    private static final String DELTA_SUFFIX = ".delta";
+    private static final String SNAPSHOT = "snapshot" + DELTA_SUFFIX;
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String LOCK = ".lock";
+
+    private final Path root;
+    private final String node;
+    private final Path own;
+    /**
+     * Último fichero aplicado de cada uno de los otros servidores. Solo lo usa el hilo de la replicación.
+     */
+    private final Map<String, Long> applied = new HashMap<>();
+    /**
+     * Fecha de la última instantánea leída de cada uno de los otros servidores.
+     */
+    private final Map<String, FileTime> snapshots = new HashMap<>();
+    /**
+     * Canal del fichero de bloqueo de la subcarpeta propia; cerrarlo libera el bloqueo.
+     */
+    private FileChannel lockChannel;
+
+    DirectoryExchange(Path root, String node) {
+        this.root = root;
+        this.node = node;
+        this.own = root.resolve(node);
+    }
+
+    /**
+     * Bloquea la subcarpeta propia para que ningún otro proceso escriba en ella a la vez.
+     *
+     * @return false si otro proceso, o este mismo, ya la tiene bloqueada
+     */
+    boolean lock() throws IOException {
+        Files.createDirectories(own);
+        FileChannel channel = FileChannel.open(own.resolve(LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired;
+        try {
+            acquired = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            acquired = null;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (acquired == null) {
+            channel.close();
+            return false;
+        }
+        lockChannel = channel;
+        return true;
+    }
+
+    /**
+     * Libera el bloqueo de la subcarpeta propia, si se tiene.
+     */
+    void unlock() throws IOException {
+        if (lockChannel != null) {
+            lockChannel.close();
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * Lee la instantánea y los cambios que este servidor dejó en ejecuciones anteriores.
+     *
+     * @return Número del último fichero propio, 0 si no hay ninguno
+     */
+    long restoreOwn(Consumer<Delta> sink) throws IOException {
+        Files.createDirectories(own);
+        long last = 0;
+        Delta snapshot = readSnapshot(own);
+        if (snapshot != null) {
+            sink.accept(snapshot);
+            last = snapshot.sequence();
+        }
+        for (long sequence : sequences(own, last)) {
+            sink.accept(Delta.read(deltaFile(own, sequence)));
+            last = sequence;
+        }
+        return last;
+    }
+
+    void publish(Delta delta) throws IOException {
+        writeAtomically(deltaFile(own, delta.sequence()), delta);
+    }
+
+    /**
+     * Escribe la instantánea con todo el estado propio y borra los ficheros de cambios que cubre.
+     */
+    void compact(Delta snapshot) throws IOException {
+        writeAtomically(own.resolve(SNAPSHOT), snapshot);
+        for (long sequence : sequences(own, 0)) {
+            if (sequence <= snapshot.sequence()) {
+                Files.deleteIfExists(deltaFile(own, sequence));
+            }
+        }
+    }
+
+    /**
+     * Aplica lo que los otros servidores han escrito desde la última vez.
+     *
+     * @return Número de ficheros aplicados
+     */
+    int poll(Consumer<Delta> sink) throws IOException {
+        int read = 0;
+        try (DirectoryStream<Path> nodes = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path directory : nodes) {
+                String other = directory.getFileName().toString();
+                if (!other.equals(node)) {
+                    read += pollNode(other, directory, sink);
+                }
+            }
+        }
+        return read;
+    }
+
+    private int pollNode(String other, Path directory, Consumer<Delta> sink) throws IOException {
+        long last = applied.getOrDefault(other, -1L);
+        List<Long> pending = sequences(directory, Math.max(last, 0));
+        int read = 0;
+        FileTime snapshotTime = snapshotTime(directory);
+        if (last < 0 || (!pending.isEmpty() && pending.get(0) > last + 1)
+                || (snapshotTime != null && !snapshotTime.equals(snapshots.get(other)))) {
+            Delta snapshot = readSnapshot(directory);
+            if (snapshot != null) {
+                sink.accept(snapshot);
+                last = Math.max(last, snapshot.sequence());
+                snapshots.put(other, snapshotTime);
+                read++;
+            }
+            last = Math.max(last, 0);
+        }
+        for (long sequence : pending) {
+            if (sequence <= last) {
+                continue;
+            }
+            if (sequence > last + 1) {
+                // Hueco: se compactó mientras tanto; la próxima vez se lee la instantánea nueva
+                break;
+            }
+            try {
+                sink.accept(Delta.read(deltaFile(directory, sequence)));
+            } catch (NoSuchFileException e) {
+                break;
+            }
+            last = sequence;
+            read++;
+        }
+        applied.put(other, last);
+        return read;
+    }
+
+    /**
+     * Servidores de los que ya se ha leído algo.
+     */
+    int knownNodes() {
+        return applied.size();
+    }
+
+    private static FileTime snapshotTime(Path directory) throws IOException {
+        try {
+            return Files.getLastModifiedTime(directory.resolve(SNAPSHOT));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static Delta readSnapshot(Path directory) throws IOException {
+        try {
+            return Delta.read(directory.resolve(SNAPSHOT));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Números de los ficheros de cambios de una carpeta posteriores al indicado, en orden.
+     */
+    private static List<Long> sequences(Path directory, long after) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + DELTA_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.equals(SNAPSHOT)) {
+                    continue;
+                }
+                try {
+                    long sequence = Long.parseLong(name.substring(0, name.length() - DELTA_SUFFIX.length()));
+                    if (sequence > after) {
+                        sequences.add(sequence);
+                    }
+                } catch (NumberFormatException e) {
+                    GeoWarePlugin.LOGGER.warn("Ignoring unexpected replication file {}", file);
+                }
+            }
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static Path deltaFile(Path directory, long sequence) {
+        return directory.resolve(String.format("%016d%s", sequence, DELTA_SUFFIX));
+    }
+
+    private static void writeAtomically(Path file, Delta delta) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        delta.write(temporary);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
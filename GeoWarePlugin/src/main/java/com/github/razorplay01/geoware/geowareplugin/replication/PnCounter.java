@@ -0,0 +1,77 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contador PN replicado: cada servidor solo incrementa sus propios contadores de sumas y de restas, y el
+ * valor es la suma de todas las sumas menos la de todas las restas.
+ * <p>
+ * Los dos contadores de cada servidor solo crecen, así que mezclar dos estados es quedarse con el máximo
+ * de cada uno: el resultado no depende del orden ni de cuántas veces llegue el mismo estado. No es seguro
+ * entre hilos; quien lo use debe sincronizarlo.
+ */
+public final class PnCounter {
+    /**
+     * Sumas y restas acumuladas de cada servidor, en ese orden.
+     */
+    private final Map<String, long[]> contributions = new HashMap<>();
+
+    public long value() {
+        long value = 0;
+        for (long[] contribution : contributions.values()) {
+            value += contribution[0] - contribution[1];
+        }
+        return value;
+    }
+
+    /**
+     * Parte del valor que aporta un servidor.
+     */
+    public long valueOf(String node) {
+        long[] contribution = contributions.get(node);
+        return contribution == null ? 0 : contribution[0] - contribution[1];
+    }
+
+    public long positive(String node) {
+        long[] contribution = contributions.get(node);
+        return contribution == null ? 0 : contribution[0];
+    }
+
+    public long negative(String node) {
+        long[] contribution = contributions.get(node);
+        return contribution == null ? 0 : contribution[1];
+    }
+
+    /**
+     * Cambia la aportación de un servidor; solo debe llamarse para el servidor local.
+     *
+     * @param amount Cantidad a sumar, o a restar si es negativa
+     */
+    public void add(String node, long amount) {
+        if (amount == 0) {
+            return;
+        }
+        long[] contribution = contributions.computeIfAbsent(node, key -> new long[2]);
+        if (amount > 0) {
+            contribution[0] += amount;
+        } else {
+            contribution[1] -= amount;
+        }
+    }
+
+    /**
+     * Mezcla el estado conocido de un servidor.
+     *
+     * @return true si el valor ha cambiado
+     */
+    public boolean merge(String node, long positive, long negative) {
+        long[] contribution = contributions.computeIfAbsent(node, key -> new long[2]);
+        if (positive <= contribution[0] && negative <= contribution[1]) {
+            return false;
+        }
+        contribution[0] = Math.max(contribution[0], positive);
+        contribution[1] = Math.max(contribution[1], negative);
+        return true;
+    }
+}
@@ -0,0 +1,337 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.storage.PointsStore;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ranking de toda la red a partir de los puntos de varios servidores, cada uno con su propio backend.
+ * <p>
+ * Los puntos de cada jugador son un {@link PnCounter} con la aportación de cada servidor. Este servidor
+ * solo cambia la suya, siguiendo los totales confirmados por su backend, y cada pocos segundos publica en
+ * la carpeta compartida el estado de los jugadores que han cambiado y aplica lo que han publicado los
+ * demás. Las consultas de puntos y posición de la red se sirven de {@link #networkIndex}, sin preguntar a
+ * ningún otro servidor.
+ * <p>
+ * Los cambios locales llegan desde el hilo de escritura del backend y el intercambio ocurre en un hilo
+ * propio; el estado de cada jugador se modifica con su monitor adquirido.
+ */
+public class ReplicationService implements PointsStore.Listener {
+    private static final class Replica {
+        private final PnCounter counter = new PnCounter();
+        private String name;
+        private long nameStamp;
+    }
+
+    @Getter
+    private final ReplicationSettings settings;
+    private final DirectoryExchange exchange;
+    private final Map<UUID, Replica> replicas = new ConcurrentHashMap<>();
+    /**
+     * Jugadores cuya aportación local ha cambiado desde el último intercambio.
+     */
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    /**
+     * Puntos de toda la red de cada jugador.
+     */
+    @Getter
+    private final RankIndex networkIndex = new RankIndex();
+    private final ScheduledExecutorService scheduler;
+    /**
+     * Si se ha recuperado el estado propio; sin él no se publica nada para no reutilizar números de fichero.
+     */
+    private volatile boolean restored;
+    private long sequence;
+    private long snapshotSequence;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    @Getter
+    private volatile long lastExchangeMs;
+
+    public ReplicationService(ReplicationSettings settings, File dataFolder) {
+        this.settings = settings;
+        this.exchange = new DirectoryExchange(dataFolder.toPath().resolve(settings.directory()).normalize(),
+                settings.nodeId());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-Replication");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Bloquea la subcarpeta de este servidor en la carpeta compartida. Debe llamarse antes de
+     * {@link #start}; si falla no se debe usar el servicio, porque otro proceso está publicando con el
+     * mismo identificador.
+     *
+     * @return true si se ha obtenido el bloqueo
+     */
+    public boolean lockNode() {
+        try {
+            if (exchange.lock()) {
+                return true;
+            }
+            GeoWarePlugin.LOGGER.error("Replication node {} is already in use by another server, replication disabled;"
+                    + " give each server its own node-id", settings.nodeId());
+        } catch (IOException | RuntimeException e) {
+            GeoWarePlugin.LOGGER.error("Error locking replication node {}, replication disabled", settings.nodeId(), e);
+        }
+        return false;
+    }
+
+    /**
+     * Recupera el estado propio publicado en ejecuciones anteriores, lo ajusta a los totales del backend
+     * local y empieza a intercambiar cambios. Los cambios locales deben llegar ya a {@link #onPointsChanged}
+     * antes de llamarlo, para que ninguno se pierda mientras se ajusta.
+     *
+     * @param localIndex Ranking del backend local
+     */
+    public void start(RankIndex localIndex) {
+        scheduler.execute(() -> {
+            try {
+                long last = exchange.restoreOwn(this::merge);
+                sequence = last;
+                snapshotSequence = last;
+            } catch (IOException | RuntimeException e) {
+                GeoWarePlugin.LOGGER.error("Error restoring the replicated points of node {}, replication disabled",
+                        settings.nodeId(), e);
+                return;
+            }
+            reconcile(localIndex);
+            restored = true;
+        });
+        scheduler.scheduleWithFixedDelay(this::runExchange, 0, settings.exchangeIntervalSeconds(), TimeUnit.SECONDS);
+        GeoWarePlugin.LOGGER.info("Points replication started as node {}", settings.nodeId());
+    }
+
+    /**
+     * Hace que la aportación local de cada jugador coincida con su total en el backend local.
+     */
+    private void reconcile(RankIndex localIndex) {
+        int adjusted = 0;
+        for (RankIndex.RankEntry entry : localIndex.top(localIndex.size())) {
+            Replica replica = replicas.computeIfAbsent(entry.uuid(), uuid -> new Replica());
+            synchronized (replica) {
+                // Se vuelve a leer con el monitor tomado por si ha cambiado desde la lista
+                if (setLocal(entry.uuid(), replica, entry.name(), Math.max(0, localIndex.pointsOf(entry.uuid())))) {
+                    adjusted++;
+                }
+            }
+        }
+        for (Map.Entry<UUID, Replica> entry : replicas.entrySet()) {
+            Replica replica = entry.getValue();
+            synchronized (replica) {
+                if (localIndex.pointsOf(entry.getKey()) < 0 && setLocal(entry.getKey(), replica, null, 0)) {
+                    adjusted++;
+                }
+            }
+        }
+        GeoWarePlugin.LOGGER.info("Replicated points reconciled with the local store ({} players adjusted)", adjusted);
+    }
+
+    @Override
+    public void onPointsChanged(UUID uuid, String name, int points) {
+        Replica replica = replicas.computeIfAbsent(uuid, key -> new Replica());
+        synchronized (replica) {
+            setLocal(uuid, replica, name, points);
+        }
+    }
+
+    @Override
+    public void onAllPointsReset() {
+        for (Map.Entry<UUID, Replica> entry : replicas.entrySet()) {
+            synchronized (entry.getValue()) {
+                setLocal(entry.getKey(), entry.getValue(), null, 0);
+            }
+        }
+    }
+
+    /**
+     * Cambia la aportación de este servidor para que valga el total local. Debe llamarse con el monitor
+     * de la réplica adquirido.
+     *
+     * @return true si ha cambiado algo
+     */
+    private boolean setLocal(UUID uuid, Replica replica, String name, long points) {
+        long difference = points - replica.counter.valueOf(settings.nodeId());
+        boolean renamed = name != null && !name.equals(replica.name);
+        if (difference == 0 && !renamed) {
+            return false;
+        }
+        replica.counter.add(settings.nodeId(), difference);
+        if (renamed) {
+            replica.name = name;
+            replica.nameStamp = System.currentTimeMillis();
+        }
+        dirty.add(uuid);
+        publishToIndex(uuid, replica);
+        return true;
+    }
+
+    /**
+     * Mezcla el estado publicado por un servidor, incluido este mismo en ejecuciones anteriores.
+     */
+    private void merge(Delta delta) {
+        for (Delta.Entry entry : delta.entries()) {
+            Replica replica = replicas.computeIfAbsent(entry.uuid(), uuid -> new Replica());
+            synchronized (replica) {
+                boolean changed = replica.counter.merge(delta.node(), entry.positive(), entry.negative());
+                // El nombre más reciente gana; a igual fecha, el mayor, para no depender del orden. Uno vacío
+                // solo indica que el otro servidor aún no lo conoce
+                if (!entry.name().isEmpty() && (replica.name == null || entry.nameStamp() > replica.nameStamp
+                        || (entry.nameStamp() == replica.nameStamp && entry.name().compareTo(replica.name) > 0))) {
+                    replica.name = entry.name();
+                    replica.nameStamp = entry.nameStamp();
+                    changed = true;
+                }
+                if (changed) {
+                    publishToIndex(entry.uuid(), replica);
+                }
+            }
+        }
+    }
+
+    private void publishToIndex(UUID uuid, Replica replica) {
+        long value = replica.counter.value();
+        networkIndex.update(uuid, replica.name, (int) Math.max(0, Math.min(Integer.MAX_VALUE, value)));
+    }
+
+    private void runExchange() {
+        try {
+            exchangeNow();
+        } catch (IOException | RuntimeException e) {
+            GeoWarePlugin.LOGGER.error("Error exchanging replicated points", e);
+        }
+    }
+
+    /**
+     * Publica los cambios locales pendientes, compacta si toca y aplica los de los demás servidores.
+     */
+    private void exchangeNow() throws IOException {
+        if (!restored) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Delta.Entry> entries = new ArrayList<>();
+        for (UUID uuid : dirty) {
+            dirty.remove(uuid);
+            entries.add(localEntry(uuid, replicas.get(uuid)));
+        }
+        if (!entries.isEmpty()) {
+            sequence++;
+            exchange.publish(new Delta(settings.nodeId(), sequence, entries));
+            published.add(entries.size());
+        }
+        if (sequence - snapshotSequence >= settings.snapshotEvery()) {
+            compact();
+        }
+        int read = exchange.poll(this::countAndMerge);
+        lastExchangeMs = (System.nanoTime() - start) / 1_000_000;
+        if (!entries.isEmpty() || read > 0) {
+            GeoWarePlugin.LOGGER.debug("Replication exchange: {} players published, {} files applied in {} ms",
+                    entries.size(), read, lastExchangeMs);
+        }
+    }
+
+    private void countAndMerge(Delta delta) {
+        merge(delta);
+        applied.add(delta.entries().size());
+    }
+
+    private void compact() throws IOException {
+        List<Delta.Entry> entries = new ArrayList<>();
+        for (Map.Entry<UUID, Replica> entry : replicas.entrySet()) {
+            Delta.Entry local = localEntry(entry.getKey(), entry.getValue());
+            if (local.positive() != 0 || local.negative() != 0) {
+                entries.add(local);
+            }
+        }
+        exchange.compact(new Delta(settings.nodeId(), sequence, entries));
+        snapshotSequence = sequence;
+    }
+
+    private Delta.Entry localEntry(UUID uuid, Replica replica) {
+        synchronized (replica) {
+            // Sin nombre se publica vacío y con fecha 0, para que nunca sustituya a uno real
+            return new Delta.Entry(uuid, replica.name == null ? "" : replica.name,
+                    replica.name == null ? 0 : replica.nameStamp,
+                    replica.counter.positive(settings.nodeId()), replica.counter.negative(settings.nodeId()));
+        }
+    }
+
+    /**
+     * Estados de jugador publicados por este servidor.
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * Estados de jugador aplicados desde otros servidores.
+     */
+    public long getApplied() {
+        return applied.sum();
+    }
+
+    public int getPlayers() {
+        return replicas.size();
+    }
+
+    /**
+     * Servidores de los que se han recibido puntos, sin contar este.
+     */
+    public int getKnownNodes() {
+        return exchange.knownNodes();
+    }
+
+    /**
+     * Detiene el intercambio periódico, publica los últimos cambios locales y libera la subcarpeta propia.
+     * Debe llamarse después de cerrar el backend, cuando ya se han notificado todas las escrituras.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                // El bloqueo se mantiene: el intercambio en curso aún puede escribir en la subcarpeta
+                GeoWarePlugin.LOGGER.warn("Replication exchange did not finish in time");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            exchangeNow();
+            if (restored) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            GeoWarePlugin.LOGGER.error("Error publishing the last replicated points", e);
+        } finally {
+            unlockNode();
+        }
+    }
+
+    private void unlockNode() {
+        try {
+            exchange.unlock();
+        } catch (IOException e) {
+            GeoWarePlugin.LOGGER.warn("Error releasing the lock of replication node {}", settings.nodeId(), e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Replicación de los puntos entre servidores, leída de la sección {@code replication} del config.yml.
+ *
+ * @param enabled                 Si se replican los puntos
+ * @param nodeId                  Identificador de este servidor, vacío para generar uno y guardarlo
+ * @param directory               Carpeta compartida por todos los servidores, relativa a la del plugin
+ * @param exchangeIntervalSeconds Segundos entre dos intercambios de cambios
+ * @param snapshotEvery           Número de ficheros de cambios tras los que se compactan en una instantánea
+ */
+public record ReplicationSettings(boolean enabled, String nodeId, String directory, long exchangeIntervalSeconds,
+                                  int snapshotEvery) {
+    public static final ReplicationSettings DEFAULTS = new ReplicationSettings(false, "", "replication", 5, 120);
+    /**
+     * Archivo de la carpeta del plugin con el identificador generado cuando la configuración no fija uno.
+     */
+    public static final String NODE_ID_FILE = "replication-node-id";
+
+    public static ReplicationSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new ReplicationSettings(
+                section.getBoolean("enabled", DEFAULTS.enabled()),
+                sanitizeNodeId(section.getString("node-id", DEFAULTS.nodeId())),
+                section.getString("directory", DEFAULTS.directory()),
+                Math.max(1, section.getLong("exchange-interval-seconds", DEFAULTS.exchangeIntervalSeconds())),
+                Math.max(1, section.getInt("snapshot-every", DEFAULTS.snapshotEvery())));
+    }
+
+    /**
+     * Copia con el identificador de servidor indicado, para cuando la configuración no lo fija.
+     */
+    public ReplicationSettings withNodeId(String nodeId) {
+        return new ReplicationSettings(enabled, nodeId, directory, exchangeIntervalSeconds, snapshotEvery);
+    }
+
+    /**
+     * Copia con un identificador de servidor que no cambia entre reinicios. Si la configuración no fija
+     * ninguno se usa el guardado en {@link #NODE_ID_FILE}, y si tampoco existe se genera uno aleatorio y se
+     * guarda. No se deriva de nada del servidor, como el puerto, porque dos máquinas pueden compartirlo.
+     *
+     * @param dataFolder Carpeta del plugin
+     * @throws IOException Si no se puede leer o guardar el identificador
+     */
+    public ReplicationSettings withStoredNodeId(File dataFolder) throws IOException {
+        if (!nodeId.isEmpty()) {
+            return this;
+        }
+        Path file = dataFolder.toPath().resolve(NODE_ID_FILE);
+        try {
+            String stored = sanitizeNodeId(Files.readString(file, StandardCharsets.UTF_8));
+            if (!stored.isEmpty()) {
+                return withNodeId(stored);
+            }
+        } catch (NoSuchFileException e) {
+            // Primer arranque con la replicación activada
+        }
+        String generated = "node-" + UUID.randomUUID();
+        Files.createDirectories(dataFolder.toPath());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(temporary, generated + "\n", StandardCharsets.UTF_8);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return withNodeId(generated);
+    }
+
+    /**
+     * El identificador da nombre a una carpeta, así que solo se admiten caracteres seguros.
+     */
+    private static String sanitizeNodeId(String nodeId) {
+        return nodeId.trim().replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.razorplay01.geoware.geowareplugin.season;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Temporadas de puntos: como mucho una activa y el historial de las terminadas, guardados en seasons.yml.
+ * <p>
+ * Empezar o terminar una temporada solo cambia el estado en memoria; el archivo se reescribe en un hilo
+ * propio, en orden, para no bloquear el hilo principal.
+ */
+public class SeasonManager {
+    private static final Pattern SEASON_ID = Pattern.compile("[A-Za-z0-9_-]{1,14}");
+
+    /**
+     * @param id        Identificador de la temporada
+     * @param startedAt Inicio en milisegundos desde epoch
+     * @param endedAt   Fin en milisegundos desde epoch, 0 si sigue activa
+     */
+    public record Season(String id, long startedAt, long endedAt) {
+        public boolean isActive() {
+            return endedAt == 0;
+        }
+    }
+
+    private final Path file;
+    private final ExecutorService saver;
+    private final List<Season> history = new ArrayList<>();
+    private volatile Season active;
+
+    public SeasonManager(File file) {
+        this.file = file.toPath();
+        this.saver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-Seasons");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load(file);
+    }
+
+    private void load(File source) {
+        if (!source.exists()) {
+            return;
+        }
+        ConfigurationSection seasons = YamlConfiguration.loadConfiguration(source).getConfigurationSection("seasons");
+        if (seasons == null) {
+            return;
+        }
+        for (String id : seasons.getKeys(false)) {
+            Season season = new Season(id, seasons.getLong(id + ".started"), seasons.getLong(id + ".ended", 0));
+            if (season.isActive() && active == null) {
+                active = season;
+            } else {
+                history.add(season.isActive() ? new Season(id, season.startedAt(), season.startedAt()) : season);
+            }
+        }
+        history.sort((a, b) -> Long.compare(a.endedAt(), b.endedAt()));
+    }
+
+    public static boolean isValidId(String id) {
+        return SEASON_ID.matcher(id).matches();
+    }
+
+    /**
+     * Empieza una temporada nueva, terminando la activa si la hay.
+     *
+     * @param id Identificador de la nueva temporada; no puede haberse usado antes
+     * @return La temporada que se ha terminado, o null si no había ninguna activa
+     */
+    public synchronized Season start(String id) {
+        if (!isValidId(id) || find(id).isPresent()) {
+            throw new IllegalArgumentException("Invalid or already used season id: " + id);
+        }
+        long now = System.currentTimeMillis();
+        Season previous = endActive(now);
+        active = new Season(id, now, 0);
+        save();
+        return previous;
+    }
+
+    /**
+     * Termina la temporada activa.
+     *
+     * @return La temporada terminada, o null si no había ninguna activa
+     */
+    public synchronized Season end() {
+        Season previous = endActive(System.currentTimeMillis());
+        if (previous != null) {
+            save();
+        }
+        return previous;
+    }
+
+    private Season endActive(long now) {
+        Season current = active;
+        if (current == null) {
+            return null;
+        }
+        Season ended = new Season(current.id(), current.startedAt(), now);
+        history.add(ended);
+        active = null;
+        return ended;
+    }
+
+    public Season getActive() {
+        return active;
+    }
+
+    /**
+     * @return La temporada terminada más reciente, o null si no hay ninguna
+     */
+    public synchronized Season getLastEnded() {
+        return history.isEmpty() ? null : history.get(history.size() - 1);
+    }
+
+    public synchronized Optional<Season> find(String id) {
+        Season current = active;
+        if (current != null && current.id().equalsIgnoreCase(id)) {
+            return Optional.of(current);
+        }
+        return history.stream().filter(season -> season.id().equalsIgnoreCase(id)).findFirst();
+    }
+
+    public synchronized List<Season> getHistory() {
+        return List.copyOf(history);
+    }
+
+    /**
+     * Serializa el estado actual y lo escribe en segundo plano. Se llama con el monitor adquirido.
+     */
+    private void save() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        List<Season> all = new ArrayList<>(history);
+        if (active != null) {
+            all.add(active);
+        }
+        for (Season season : all) {
+            yaml.set("seasons." + season.id() + ".started", season.startedAt());
+            if (!season.isActive()) {
+                yaml.set("seasons." + season.id() + ".ended", season.endedAt());
+            }
+        }
+        String contents = yaml.saveToString();
+        saver.execute(() -> {
+            try {
+                Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.writeString(temporary, contents, StandardCharsets.UTF_8);
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                GeoWarePlugin.LOGGER.error("Error saving seasons file", e);
+            }
+        });
+    }
+
+    /**
+     * Espera a que terminen las escrituras pendientes del archivo de temporadas.
+     */
+    public void shutdown() {
+        saver.shutdown();
+        try {
+            saver.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.razorplay01.geoware.geowareplugin.selector;
+
+import org.bukkit.GameMode;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Selector de jugadores ya interpretado: una base y, opcionalmente, filtros entre corchetes separados por
+ * comas, por ejemplo {@code adventure[world=lobby,session=false,top=10]}.
+ * <p>
+ * Bases: {@code all}, {@code allnotop} (sin operadores), {@code adventure}, {@code survival},
+ * {@code spectator}, {@code creative} o el nombre de un jugador. Filtros: {@code perm=<permiso>},
+ * {@code world=<mundo>}, {@code radius=<bloques>}, {@code session=<true|false>}, {@code top=<n>} y
+ * {@code op=<true|false>}.
+ *
+ * @param gameMode   Modo de juego de la base, o null
+ * @param playerName Jugador de la base, o null
+ * @param operators  Si deben ser operadores, o null para no filtrar
+ * @param permission Permiso que deben tener, o null
+ * @param world      Mundo en el que deben estar, o null
+ * @param radius     Distancia máxima a quien ejecuta el comando, 0 para no filtrar
+ * @param inSession  Si deben tener una partida en curso, o null para no filtrar
+ * @param top        Posición máxima en el ranking, 0 para no filtrar
+ */
+public record PlayerSelector(GameMode gameMode, String playerName, Boolean operators, String permission,
+                             String world, double radius, Boolean inSession, int top) {
+    /**
+     * Bases que no son nombres de jugador, en el orden en el que se sugieren.
+     */
+    public static final List<String> KEYWORDS = List.of("all", "allnotop", "adventure", "survival", "spectator", "creative");
+
+    /**
+     * Si el texto es un selector y no el nombre de un jugador sin filtros.
+     */
+    public static boolean isSelector(String text) {
+        return text.indexOf('[') >= 0 || KEYWORDS.contains(text.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el selector no es válido, con un mensaje para el jugador
+     */
+    public static PlayerSelector parse(String text) {
+        String trimmed = text.trim();
+        int bracket = trimmed.indexOf('[');
+        String base = bracket < 0 ? trimmed : trimmed.substring(0, bracket);
+        if (bracket >= 0 && !trimmed.endsWith("]")) {
+            throw new IllegalArgumentException("Falta el ']' del selector: " + text);
+        }
+
+        GameMode gameMode = null;
+        String playerName = null;
+        Boolean operators = null;
+        switch (base.toLowerCase(Locale.ROOT)) {
+            case "", "all" -> {
+            }
+            case "allnotop" -> operators = false;
+            case "adventure" -> gameMode = GameMode.ADVENTURE;
+            case "survival" -> gameMode = GameMode.SURVIVAL;
+            case "spectator" -> gameMode = GameMode.SPECTATOR;
+            case "creative" -> gameMode = GameMode.CREATIVE;
+            default -> playerName = base;
+        }
+
+        String permission = null;
+        String world = null;
+        double radius = 0;
+        Boolean inSession = null;
+        int top = 0;
+        String filters = bracket < 0 ? "" : trimmed.substring(bracket + 1, trimmed.length() - 1);
+        for (String filter : filters.split(",")) {
+            if (filter.isBlank()) {
+                continue;
+            }
+            int equals = filter.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Filtro sin valor: " + filter.trim());
+            }
+            String key = filter.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+            String value = filter.substring(equals + 1).trim();
+            switch (key) {
+                case "perm", "permission" -> permission = value;
+                case "world" -> world = value;
+                case "radius", "r" -> radius = parsePositive(key, value);
+                case "session" -> inSession = parseBoolean(key, value);
+                case "top" -> top = (int) parsePositive(key, value);
+                case "op" -> operators = parseBoolean(key, value);
+                default -> throw new IllegalArgumentException("Filtro desconocido: " + key
+                        + " (usa perm, world, radius, session, top u op)");
+            }
+        }
+        return new PlayerSelector(gameMode, playerName, operators, permission, world, radius, inSession, top);
+    }
+
+    private static double parsePositive(String key, String value) {
+        try {
+            double number = Double.parseDouble(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw new IllegalArgumentException("El filtro " + key + " necesita un número positivo: " + value);
+    }
+
+    private static boolean parseBoolean(String key, String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("El filtro " + key + " debe ser true o false: " + value);
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.razorplay01.geoware.geowareplugin.selector;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.PointsManager;
+import com.github.razorplay01.geoware.geowareplugin.game.GameSessionRegistry;
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resuelve los selectores de jugadores de todos los comandos.
+ * <p>
+ * Mantiene los jugadores conectados agrupados por modo de juego, actualizados con los eventos de entrada,
+ * salida y cambio de modo, así que un selector recorre solo el grupo de su base y aplica los filtros en
+ * el mismo bucle que llena el resultado, sin streams intermedios. El filtro {@code top} se consulta en el
+ * ranking en memoria, nunca en la base de datos. Los selectores ya interpretados se guardan en una caché
+ * por texto. Solo debe usarse desde el hilo principal.
+ */
+public class SelectorEngine {
+    private static final int CACHE_SIZE = 128;
+
+    private final GameSessionRegistry sessions;
+    private final Map<UUID, Player> online = new LinkedHashMap<>();
+    private final Map<GameMode, Map<UUID, Player>> byGameMode = new EnumMap<>(GameMode.class);
+    private final Map<String, PlayerSelector> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlayerSelector> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public SelectorEngine(GameSessionRegistry sessions) {
+        this.sessions = sessions;
+        for (GameMode gameMode : GameMode.values()) {
+            byGameMode.put(gameMode, new LinkedHashMap<>());
+        }
+    }
+
+    public void track(Player player) {
+        online.put(player.getUniqueId(), player);
+        byGameMode.get(player.getGameMode()).put(player.getUniqueId(), player);
+    }
+
+    public void untrack(Player player) {
+        online.remove(player.getUniqueId());
+        for (Map<UUID, Player> players : byGameMode.values()) {
+            players.remove(player.getUniqueId());
+        }
+    }
+
+    public void changeGameMode(Player player, GameMode gameMode) {
+        for (Map<UUID, Player> players : byGameMode.values()) {
+            players.remove(player.getUniqueId());
+        }
+        if (online.containsKey(player.getUniqueId())) {
+            byGameMode.get(gameMode).put(player.getUniqueId(), player);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el selector no es válido, con un mensaje para el jugador
+     */
+    public PlayerSelector parse(String text) {
+        PlayerSelector selector = cache.get(text);
+        if (selector == null) {
+            selector = PlayerSelector.parse(text);
+            cache.put(text, selector);
+        }
+        return selector;
+    }
+
+    /**
+     * Jugadores conectados que cumplen el selector.
+     *
+     * @param sender Quien ejecuta el comando, origen del filtro {@code radius}
+     * @param text   Selector sin interpretar
+     * @return Lista nueva, que el llamante puede guardar o modificar
+     * @throws IllegalArgumentException Si el selector no es válido, con un mensaje para el jugador
+     */
+    public List<Player> select(CommandSender sender, String text) {
+        PlayerSelector selector = parse(text);
+        Collection<Player> source;
+        if (selector.playerName() != null) {
+            Player player = Bukkit.getPlayer(selector.playerName());
+            source = player == null || !player.isOnline() ? List.of() : List.of(player);
+        } else if (selector.gameMode() != null) {
+            source = byGameMode.get(selector.gameMode()).values();
+        } else {
+            source = online.values();
+        }
+
+        Location origin = selector.radius() > 0 ? originOf(sender) : null;
+        double radiusSquared = selector.radius() * selector.radius();
+        Location scratch = origin == null ? null : new Location(null, 0, 0, 0);
+        RankIndex ranking = selector.top() > 0 ? rankIndex() : null;
+
+        List<Player> result = new ArrayList<>(source.size());
+        for (Player player : source) {
+            if (selector.operators() != null && player.isOp() != selector.operators()) {
+                continue;
+            }
+            if (selector.permission() != null && !player.hasPermission(selector.permission())) {
+                continue;
+            }
+            if (selector.world() != null && !player.getWorld().getName().equalsIgnoreCase(selector.world())) {
+                continue;
+            }
+            if (origin != null) {
+                Location location = player.getLocation(scratch);
+                if (location.getWorld() != origin.getWorld() || location.distanceSquared(origin) > radiusSquared) {
+                    continue;
+                }
+            }
+            if (selector.inSession() != null && (sessions.get(player.getUniqueId()) != null) != selector.inSession()) {
+                continue;
+            }
+            if (ranking != null) {
+                int rank = ranking.rankOf(player.getUniqueId());
+                if (rank < 1 || rank > selector.top()) {
+                    continue;
+                }
+            }
+            result.add(player);
+        }
+        return result;
+    }
+
+    private static Location originOf(CommandSender sender) {
+        if (sender instanceof Entity entity) {
+            return entity.getLocation();
+        }
+        if (sender instanceof BlockCommandSender block) {
+            return block.getBlock().getLocation();
+        }
+        throw new IllegalArgumentException("El filtro radius solo se puede usar desde un jugador o un bloque de comandos");
+    }
+
+    private static RankIndex rankIndex() {
+        PointsManager pointsManager = GeoWarePlugin.getInstance().getPointsManager();
+        if (pointsManager == null) {
+            throw new IllegalArgumentException("El filtro top no está disponible sin el sistema de puntos");
+        }
+        return pointsManager.getRankIndex();
+    }
+}
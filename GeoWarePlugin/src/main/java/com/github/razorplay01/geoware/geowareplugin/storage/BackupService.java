@@ -0,0 +1,170 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Copias de seguridad periódicas del backend de puntos en caliente, acompañadas de una exportación del
+ * ranking, con rotación por número de copias y por antigüedad.
+ * <p>
+ * Todo ocurre en un hilo propio: la copia se toma sobre una instantánea del backend, así que las
+ * escrituras nunca se detienen.
+ */
+public class BackupService {
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String BACKUP_PREFIX = "puntos-";
+    private static final String EXPORT_PREFIX = "ranking-";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    /**
+     * @param backup          Copia escrita, o null si el backend no guarda nada en disco
+     * @param export          Exportación del ranking, o null si está desactivada
+     * @param exportedEntries Jugadores exportados
+     * @param elapsedMs       Duración total
+     */
+    public record Result(Path backup, Path export, int exportedEntries, long elapsedMs) {
+    }
+
+    private final PointsStore store;
+    private final BackupSettings settings;
+    private final Path folder;
+    private final String backupExtension;
+    private final ScheduledExecutorService scheduler;
+
+    public BackupService(PointsStore store, PointsStore.Backend backend, BackupSettings settings, File dataFolder) {
+        this.store = store;
+        this.settings = settings;
+        this.folder = dataFolder.toPath().resolve(settings.folder());
+        this.backupExtension = switch (backend) {
+            case SQLITE -> ".db";
+            case JOURNAL -> ".journal";
+            case MEMORY -> null;
+        };
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-Backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (settings.enabled()) {
+            scheduler.scheduleWithFixedDelay(this::runScheduled, settings.intervalMinutes(),
+                    settings.intervalMinutes(), TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Hace una copia ahora, en el hilo de las copias y detrás de la que esté en curso.
+     */
+    public CompletableFuture<Result> runNow() {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, scheduler);
+    }
+
+    private void runScheduled() {
+        try {
+            run();
+        } catch (IOException | RuntimeException e) {
+            GeoWarePlugin.LOGGER.error("Error writing scheduled points backup", e);
+        }
+    }
+
+    private Result run() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(folder);
+        String stamp = LocalDateTime.now().format(STAMP);
+
+        Path backup = null;
+        if (backupExtension != null) {
+            backup = folder.resolve(BACKUP_PREFIX + stamp + backupExtension);
+            Path temporary = folder.resolve(backup.getFileName() + TEMPORARY_SUFFIX);
+            Files.deleteIfExists(temporary);
+            try {
+                store.backup(temporary).join();
+            } catch (CompletionException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            Files.move(temporary, backup, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            prune(BACKUP_PREFIX, backupExtension);
+        }
+
+        Path export = null;
+        int exported = 0;
+        RankingExporter.Format format = settings.exportFormat();
+        if (format != RankingExporter.Format.NONE) {
+            export = folder.resolve(EXPORT_PREFIX + stamp + format.getExtension());
+            Path temporary = folder.resolve(export.getFileName() + TEMPORARY_SUFFIX);
+            try {
+                exported = RankingExporter.export(store, temporary, format);
+                Files.move(temporary, export, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temporary);
+                throw e;
+            }
+            prune(EXPORT_PREFIX, format.getExtension());
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        GeoWarePlugin.LOGGER.info("Points backup finished in {} ms (backup: {}, export: {} with {} players)",
+                elapsedMs, backup == null ? "none" : backup.getFileName(), export == null ? "none" : export.getFileName(), exported);
+        return new Result(backup, export, exported, elapsedMs);
+    }
+
+    /**
+     * Borra las copias de un tipo que sobran por número o por antigüedad. El nombre lleva la fecha, así
+     * que el orden alfabético es el cronológico.
+     */
+    private void prune(String prefix, String extension) throws IOException {
+        List<Path> copies;
+        try (Stream<Path> files = Files.list(folder)) {
+            copies = files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(extension);
+            }).sorted(Comparator.comparing(Path::getFileName).reversed()).toList();
+        }
+        Instant oldest = settings.maxAgeDays() == 0 ? Instant.MIN : Instant.now().minus(Duration.ofDays(settings.maxAgeDays()));
+        for (int i = 0; i < copies.size(); i++) {
+            Path copy = copies.get(i);
+            // La copia más reciente nunca se borra por antigüedad
+            if (i >= settings.keep() || (i > 0 && Files.getLastModifiedTime(copy).toInstant().isBefore(oldest))) {
+                Files.deleteIfExists(copy);
+            }
+        }
+    }
+
+    /**
+     * Deja de programar copias y espera a que termine la que esté en curso.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                GeoWarePlugin.LOGGER.warn("Points backup still running at shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
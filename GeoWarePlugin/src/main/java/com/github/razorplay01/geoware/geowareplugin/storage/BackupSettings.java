@@ -0,0 +1,43 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Locale;
+
+/**
+ * Parámetros de las copias de seguridad leídos de la sección {@code backup} del config.yml.
+ *
+ * @param enabled         Si se hacen copias periódicas
+ * @param intervalMinutes Minutos entre dos copias
+ * @param folder          Carpeta de las copias, relativa a la del plugin
+ * @param keep            Número de copias de cada tipo que se conservan
+ * @param maxAgeDays      Antigüedad máxima de una copia en días, 0 para no limitarla
+ * @param exportFormat    Formato de la exportación del ranking que acompaña a cada copia
+ */
+public record BackupSettings(boolean enabled, long intervalMinutes, String folder, int keep, int maxAgeDays,
+                             RankingExporter.Format exportFormat) {
+    public static final BackupSettings DEFAULTS = new BackupSettings(true, 60, "backups", 24, 7, RankingExporter.Format.NDJSON);
+
+    public static BackupSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new BackupSettings(
+                section.getBoolean("enabled", DEFAULTS.enabled()),
+                Math.max(1, section.getLong("interval-minutes", DEFAULTS.intervalMinutes())),
+                section.getString("folder", DEFAULTS.folder()),
+                Math.max(1, section.getInt("keep", DEFAULTS.keep())),
+                Math.max(0, section.getInt("max-age-days", DEFAULTS.maxAgeDays())),
+                parseFormat(section.getString("export-format", DEFAULTS.exportFormat().name())));
+    }
+
+    private static RankingExporter.Format parseFormat(String value) {
+        try {
+            return RankingExporter.Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            GeoWarePlugin.LOGGER.warn("Unknown ranking export format '{}', using {}", value, DEFAULTS.exportFormat());
+            return DEFAULTS.exportFormat();
+        }
+    }
+}
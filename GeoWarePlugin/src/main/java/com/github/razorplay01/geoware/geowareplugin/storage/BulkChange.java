@@ -0,0 +1,30 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.util.UUID;
+
+/**
+ * Cambio de puntos de una operación masiva.
+ *
+ * @param uuid      UUID del jugador
+ * @param name      Nombre del jugador, o null para conservar el que tenga registrado
+ * @param operation Operación a aplicar
+ * @param amount    Cantidad de puntos, no negativa
+ */
+public record BulkChange(UUID uuid, String name, Operation operation, int amount) {
+    public enum Operation {
+        ADD,
+        SUBTRACT,
+        SET
+    }
+
+    /**
+     * @return Variación a sumar al total, o 0 para {@link Operation#SET}
+     */
+    public int delta() {
+        return switch (operation) {
+            case ADD -> amount;
+            case SUBTRACT -> -amount;
+            case SET -> 0;
+        };
+    }
+}
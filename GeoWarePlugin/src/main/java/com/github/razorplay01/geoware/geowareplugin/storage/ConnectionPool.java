@@ -0,0 +1,140 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import org.sqlite.SQLiteConfig;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conexiones a la base de datos de puntos: exactamente una conexión de escritura, propiedad de
+ * {@link PointsWriter}, y N conexiones de solo lectura que en modo WAL leen en paralelo con el escritor.
+ */
+public class ConnectionPool {
+    /**
+     * Consulta ejecutada sobre una conexión de lectura prestada.
+     */
+    @FunctionalInterface
+    public interface ReadTask<T> {
+        T execute(CachedConnection connection) throws SQLException;
+    }
+
+    private final String url;
+    private final int readerCount;
+    private final Connection writerConnection;
+    private final List<CachedConnection> readers = new ArrayList<>();
+    private final BlockingQueue<CachedConnection> idleReaders;
+    private final ExecutorService readExecutor;
+
+    /**
+     * Abre la conexión de escritura. Las lectoras se abren con {@link #openReaders()} una vez que el esquema
+     * está migrado, porque una conexión de solo lectura no puede crear el archivo ni las tablas.
+     *
+     * @param databaseFile Archivo de la base de datos
+     * @param readerCount  Número de conexiones de solo lectura
+     * @throws SQLException Si no se puede abrir la conexión de escritura
+     */
+    public ConnectionPool(File databaseFile, int readerCount) throws SQLException {
+        this.url = "jdbc:sqlite:" + databaseFile.getAbsolutePath();
+        this.readerCount = readerCount;
+        this.writerConnection = DriverManager.getConnection(url);
+        this.idleReaders = new ArrayBlockingQueue<>(readerCount);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.readExecutor = Executors.newFixedThreadPool(readerCount, runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-PointsReader-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre las conexiones de solo lectura.
+     *
+     * @throws SQLException Si alguna conexión no se puede abrir
+     */
+    public void openReaders() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        for (int i = 0; i < readerCount; i++) {
+            Connection connection = config.createConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA query_only = true");
+                statement.execute("PRAGMA cache_size = -8000");
+                statement.execute("PRAGMA temp_store = MEMORY");
+                statement.execute("PRAGMA busy_timeout = 5000");
+            }
+            CachedConnection reader = new CachedConnection(connection);
+            readers.add(reader);
+            idleReaders.add(reader);
+        }
+    }
+
+    public Connection getWriterConnection() {
+        return writerConnection;
+    }
+
+    /**
+     * Ejecuta una consulta en una conexión de lectura desde el hilo actual, esperando si todas están ocupadas.
+     */
+    public <T> T read(ReadTask<T> task) throws SQLException {
+        CachedConnection reader;
+        try {
+            reader = idleReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+        try {
+            return task.execute(reader);
+        } finally {
+            idleReaders.add(reader);
+        }
+    }
+
+    /**
+     * Ejecuta una consulta en una conexión de lectura en los hilos lectores, sin bloquear al llamante.
+     */
+    public <T> CompletableFuture<T> readAsync(ReadTask<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        readExecutor.execute(() -> {
+            try {
+                result.complete(read(task));
+            } catch (SQLException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Cierra las lectoras y la conexión de escritura. El escritor debe haberse detenido antes.
+     */
+    public void close() {
+        readExecutor.shutdown();
+        try {
+            readExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        readers.forEach(CachedConnection::close);
+        readers.clear();
+        try {
+            if (!writerConnection.isClosed()) {
+                writerConnection.close();
+            }
+        } catch (SQLException ignored) {
+            // Nada más que hacer al cerrar
+        }
+    }
+}
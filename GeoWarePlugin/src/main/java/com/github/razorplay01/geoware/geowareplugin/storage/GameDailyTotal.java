@@ -0,0 +1,12 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+/**
+ * Agregado diario de un minijuego.
+ *
+ * @param gameId   Identificador del minijuego
+ * @param epochDay Día como días desde epoch en la zona horaria del servidor
+ * @param points   Puntos obtenidos ese día entre todos los jugadores
+ * @param events   Número de eventos de puntuación de ese día
+ */
+public record GameDailyTotal(String gameId, long epochDay, long points, int events) {
+}
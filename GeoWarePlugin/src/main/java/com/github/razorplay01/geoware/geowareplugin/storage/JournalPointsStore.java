@@ -0,0 +1,360 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend en memoria respaldado por un diario de solo anexado sobre un archivo mapeado en memoria.
+ * <p>
+ * Cada cambio añade un registro de tamaño fijo con el estado completo del jugador (o del agregado de
+ * minijuego afectado), de modo que al arrancar basta con reproducir el diario quedándose con el último
+ * registro de cada uno. Escribir un registro es copiar 40 bytes en la región mapeada; un hilo aparte la
+ * vuelca a disco cada {@code batchIntervalMs} milisegundos. Si al arrancar el diario tiene muchos más
+ * registros que estados vivos, se compacta reescribiéndolo con un registro por jugador y por agregado.
+ * <p>
+ * Formato: cabecera de 16 bytes (magia, versión, reservado) seguida de registros de {@link #RECORD_SIZE}
+ * bytes: tipo, dos enteros de 8 bytes, un entero de 4, longitud del texto (1), texto UTF-8 (16) y relleno.
+ * Según el tipo son (uuid, puntos, nombre), (uuid, total del juego, juego), (día, puntos, eventos, juego)
+ * o (uuid, total en la ventana, ventana).
+ * Un tipo 0 marca el final; el tipo se escribe el último para que un registro a medias no se reproduzca.
+ */
+public class JournalPointsStore extends MemoryPointsStore {
+    private static final int MAGIC = 0x4757504A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 40;
+    private static final int MAX_TEXT_BYTES = 16;
+    private static final byte TYPE_SET = 1;
+    private static final byte TYPE_RESET_ALL = 2;
+    private static final byte TYPE_GAME_TOTAL = 3;
+    private static final byte TYPE_GAME_DAILY = 4;
+    private static final byte TYPE_WINDOW_TOTAL = 5;
+    private static final long MAP_REGION_BYTES = RECORD_SIZE * 262_144L;
+    private static final int COMPACTION_MIN_RECORDS = 4_096;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ScheduledExecutorService flusher;
+    private MappedByteBuffer region;
+    private long regionStart;
+    private volatile boolean dirty;
+
+    /**
+     * Reproduce el diario existente (compactándolo si hace falta) y lo abre para anexar.
+     *
+     * @param journalFile Archivo del diario
+     * @param settings    Parámetros de almacenamiento; {@code batchIntervalMs} marca cada cuánto se vuelca a disco
+     * @throws IOException Si el diario no se puede leer, tiene un formato desconocido o no se puede mapear
+     */
+    public JournalPointsStore(File journalFile, StorageSettings settings) throws IOException {
+        this.path = journalFile.toPath();
+        long records = replay();
+        if (records > COMPACTION_MIN_RECORDS && records > 2L * liveRecordCount()) {
+            records = compact();
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header, 0);
+        }
+        map(HEADER_SIZE + records * RECORD_SIZE);
+        GeoWarePlugin.LOGGER.info("Points journal replayed: {} players from {} records", entryCount(), records);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-JournalFlusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, settings.batchIntervalMs(), settings.batchIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lee el diario registro a registro y reconstruye el estado en memoria.
+     *
+     * @return Número de registros válidos leídos
+     */
+    private long replay() throws IOException {
+        if (!Files.exists(path) || Files.size(path) < HEADER_SIZE) {
+            return 0;
+        }
+        long records = 0;
+        byte[] text = new byte[MAX_TEXT_BYTES];
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException("Not a GeoWare points journal: " + path);
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported points journal version " + version + ": " + path);
+            }
+            input.skipNBytes(HEADER_SIZE - 8);
+
+            while (true) {
+                byte type;
+                long high;
+                long low;
+                int value;
+                String string;
+                try {
+                    type = input.readByte();
+                    high = input.readLong();
+                    low = input.readLong();
+                    value = input.readInt();
+                    int textLength = Math.min(input.readUnsignedByte(), MAX_TEXT_BYTES);
+                    input.readFully(text);
+                    input.skipNBytes(RECORD_SIZE - 38);
+                    string = new String(text, 0, textLength, StandardCharsets.UTF_8);
+                } catch (EOFException e) {
+                    break;
+                }
+                switch (type) {
+                    case TYPE_SET -> restore(new RankIndex.RankEntry(new UUID(high, low), string, value));
+                    case TYPE_RESET_ALL -> restoreResetAll();
+                    case TYPE_GAME_TOTAL -> {
+                        UUID uuid = new UUID(high, low);
+                        restoreGameTotal(string, new RankIndex.RankEntry(uuid, nameOf(uuid), value));
+                    }
+                    case TYPE_GAME_DAILY -> restoreGameDaily(new GameDailyTotal(string, high, low, value));
+                    case TYPE_WINDOW_TOTAL -> {
+                        UUID uuid = new UUID(high, low);
+                        restoreWindowTotal(string, new RankIndex.RankEntry(uuid, nameOf(uuid), value));
+                    }
+                    default -> {
+                        return records;
+                    }
+                }
+                records++;
+            }
+        }
+        return records;
+    }
+
+    private long liveRecordCount() {
+        long count = entryCount() + gameDailySnapshot().size();
+        for (List<RankIndex.RankEntry> totals : gameTotalsSnapshot().values()) {
+            count += totals.size();
+        }
+        for (List<RankIndex.RankEntry> totals : windowTotalsSnapshot().values()) {
+            count += totals.size();
+        }
+        return count;
+    }
+
+    /**
+     * Reescribe el diario con un único registro por jugador y por agregado, y lo sustituye de forma atómica.
+     *
+     * @return Número de registros escritos
+     */
+    private long compact() throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        long records = writeSnapshot(temporary);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        GeoWarePlugin.LOGGER.info("Points journal compacted to {} records", records);
+        return records;
+    }
+
+    /**
+     * La copia es un diario compactado: se puede usar directamente como puntos.journal.
+     */
+    @Override
+    public CompletableFuture<Void> backup(Path target) {
+        try {
+            writeSnapshot(target);
+            return CompletableFuture.completedFuture(null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Escribe en {@code target} un diario con un único registro por jugador y por agregado. El estado se
+     * copia bajo el monitor, de forma coherente, y se escribe en disco fuera de él.
+     *
+     * @return Número de registros escritos
+     */
+    private long writeSnapshot(Path target) throws IOException {
+        List<RankIndex.RankEntry> players;
+        Map<String, List<RankIndex.RankEntry>> gameTotals;
+        Map<String, List<RankIndex.RankEntry>> windowTotals;
+        List<GameDailyTotal> gameDaily;
+        synchronized (this) {
+            players = loadAll();
+            gameTotals = gameTotalsSnapshot();
+            windowTotals = windowTotalsSnapshot();
+            gameDaily = gameDailySnapshot();
+        }
+        long records = 0;
+        try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + RECORD_SIZE * 1_024);
+            buffer.putInt(MAGIC).putInt(VERSION).position(HEADER_SIZE);
+            // Los jugadores van primero: los registros de juego toman el nombre de ellos al reproducirse
+            for (RankIndex.RankEntry entry : players) {
+                ensureRoom(output, buffer);
+                writeRecord(buffer, TYPE_SET, entry.uuid().getMostSignificantBits(),
+                        entry.uuid().getLeastSignificantBits(), entry.points(), entry.name());
+                records++;
+            }
+            for (var game : gameTotals.entrySet()) {
+                for (RankIndex.RankEntry entry : game.getValue()) {
+                    ensureRoom(output, buffer);
+                    writeRecord(buffer, TYPE_GAME_TOTAL, entry.uuid().getMostSignificantBits(),
+                            entry.uuid().getLeastSignificantBits(), entry.points(), game.getKey());
+                    records++;
+                }
+            }
+            for (var window : windowTotals.entrySet()) {
+                for (RankIndex.RankEntry entry : window.getValue()) {
+                    ensureRoom(output, buffer);
+                    writeRecord(buffer, TYPE_WINDOW_TOTAL, entry.uuid().getMostSignificantBits(),
+                            entry.uuid().getLeastSignificantBits(), entry.points(), window.getKey());
+                    records++;
+                }
+            }
+            for (GameDailyTotal total : gameDaily) {
+                ensureRoom(output, buffer);
+                writeRecord(buffer, TYPE_GAME_DAILY, total.epochDay(), total.points(), total.events(), total.gameId());
+                records++;
+            }
+            writeFully(output, buffer);
+            output.force(true);
+        }
+        return records;
+    }
+
+    private static void ensureRoom(FileChannel output, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            writeFully(output, buffer);
+        }
+    }
+
+    private static void writeFully(FileChannel output, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Escribe un registro completo a partir de la posición actual, dejando el byte de tipo para el final.
+     */
+    private static void writeRecord(ByteBuffer buffer, byte type, long high, long low, int value, String text) {
+        int start = buffer.position();
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        int textLength = Math.min(bytes.length, MAX_TEXT_BYTES);
+        buffer.position(start + 1)
+                .putLong(high)
+                .putLong(low)
+                .putInt(value)
+                .put((byte) textLength)
+                .put(bytes, 0, textLength);
+        buffer.position(start + RECORD_SIZE);
+        buffer.put(start, type);
+    }
+
+    /**
+     * Mapea una nueva región del archivo a partir de la posición indicada, ampliándolo si hace falta.
+     */
+    private void map(long position) throws IOException {
+        if (region != null) {
+            region.force();
+        }
+        region = channel.map(FileChannel.MapMode.READ_WRITE, position, MAP_REGION_BYTES);
+        regionStart = position;
+    }
+
+    private void append(byte type, long high, long low, int value, String text) {
+        try {
+            if (region.remaining() < RECORD_SIZE) {
+                map(regionStart + region.position());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not extend points journal " + path, e);
+        }
+        writeRecord(region, type, high, low, value, text);
+        dirty = true;
+    }
+
+    @Override
+    protected void persist(RankIndex.RankEntry entry) {
+        append(TYPE_SET, entry.uuid().getMostSignificantBits(), entry.uuid().getLeastSignificantBits(), entry.points(), entry.name());
+    }
+
+    @Override
+    protected void persistResetAll() {
+        append(TYPE_RESET_ALL, 0, 0, 0, null);
+    }
+
+    @Override
+    protected void persistGameTotal(String gameId, RankIndex.RankEntry entry) {
+        append(TYPE_GAME_TOTAL, entry.uuid().getMostSignificantBits(), entry.uuid().getLeastSignificantBits(), entry.points(), gameId);
+    }
+
+    @Override
+    protected void persistGameDaily(GameDailyTotal total) {
+        append(TYPE_GAME_DAILY, total.epochDay(), total.points(), total.events(), total.gameId());
+    }
+
+    @Override
+    protected void persistWindowTotal(String window, RankIndex.RankEntry entry) {
+        append(TYPE_WINDOW_TOTAL, entry.uuid().getMostSignificantBits(), entry.uuid().getLeastSignificantBits(), entry.points(), window);
+    }
+
+    /**
+     * Vuelca a disco la región mapeada si hubo cambios desde el último volcado.
+     */
+    private void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        MappedByteBuffer current;
+        synchronized (this) {
+            current = region;
+        }
+        current.force();
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            region.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                GeoWarePlugin.LOGGER.error("Error closing points journal", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mantiene una instantánea del top y el bottom del ranking.
+ * <p>
+ * Los cambios de puntos solo marcan la instantánea como obsoleta; un hilo propio la recalcula a partir
+ * del {@link RankIndex} como mucho una vez por intervalo, de modo que comandos y placeholders leen
+ * siempre un objeto ya calculado.
+ */
+public class LeaderboardService {
+    private final RankIndex rankIndex;
+    private final int size;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private final ScheduledExecutorService scheduler;
+    private volatile LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+
+    public LeaderboardService(RankIndex rankIndex, LeaderboardSettings settings) {
+        this.rankIndex = rankIndex;
+        this.size = settings.size();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GeoWare-Leaderboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresh();
+        scheduler.scheduleWithFixedDelay(this::refreshIfDirty, settings.refreshIntervalMs(),
+                settings.refreshIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indica que el ranking ha cambiado. Es barato y se puede llamar en cada escritura.
+     */
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public LeaderboardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void refreshIfDirty() {
+        if (dirty.get()) {
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        try {
+            dirty.set(false);
+            snapshot = new LeaderboardSnapshot(rankIndex.top(size), rankIndex.bottom(size),
+                    rankIndex.size(), System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            GeoWarePlugin.LOGGER.error("Error refreshing leaderboard snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * Parámetros de la instantánea del leaderboard leídos de la sección {@code leaderboard} del config.yml.
+ *
+ * @param refreshIntervalMs     Intervalo mínimo entre dos recálculos de la instantánea
+ * @param size                  Número de jugadores incluidos en el top y en el bottom
+ * @param notifyPositionChanges Si se envía la puntuación también a quien solo ha cambiado de posición
+ */
+public record LeaderboardSettings(long refreshIntervalMs, int size, boolean notifyPositionChanges) {
+    public static final LeaderboardSettings DEFAULTS = new LeaderboardSettings(1000, 12, true);
+
+    public static LeaderboardSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new LeaderboardSettings(
+                Math.max(50, section.getLong("refresh-interval-ms", DEFAULTS.refreshIntervalMs())),
+                Math.max(1, section.getInt("size", DEFAULTS.size())),
+                section.getBoolean("notify-position-changes", DEFAULTS.notifyPositionChanges()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.util.List;
+
+/**
+ * Instantánea inmutable del leaderboard. Se puede leer desde cualquier hilo sin sincronización.
+ *
+ * @param top        Jugadores con más puntos, de mayor a menor
+ * @param bottom     Jugadores con menos puntos (excluyendo cero), de menor a mayor
+ * @param players    Número total de jugadores en el ranking
+ * @param computedAt Momento del cálculo en milisegundos desde epoch
+ */
+public record LeaderboardSnapshot(List<RankIndex.RankEntry> top, List<RankIndex.RankEntry> bottom,
+                                  int players, long computedAt) {
+    public static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(List.of(), List.of(), 0, 0);
+
+    public LeaderboardSnapshot {
+        top = List.copyOf(top);
+        bottom = List.copyOf(bottom);
+    }
+
+    /**
+     * @param position Posición empezando en 1
+     * @return Entrada del top en esa posición, o null si no existe
+     */
+    public RankIndex.RankEntry topAt(int position) {
+        return position >= 1 && position <= top.size() ? top.get(position - 1) : null;
+    }
+}
@@ -0,0 +1,371 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Backend puramente en memoria: los puntos se pierden al apagar el servidor. Sirve como referencia
+ * para medir el coste de los backends persistentes y para servidores de pruebas.
+ * <p>
+ * Todas las operaciones se aplican de forma síncrona bajo un mismo monitor, por lo que el orden de
+ * notificación al {@link PointsStore.Listener} es el orden de aplicación.
+ */
+public class MemoryPointsStore implements PointsStore {
+    /**
+     * Orden del ranking: puntos descendente y, a igualdad de puntos, uuid ascendente sin signo,
+     * igual que {@link RankIndex} y el índice de SQLite.
+     */
+    protected static final Comparator<RankIndex.RankEntry> RANKING_ORDER = Comparator
+            .comparingInt(RankIndex.RankEntry::points).reversed()
+            .thenComparing(RankIndex.RankEntry::uuid, RankIndex::compareUuids);
+
+    private final Map<UUID, RankIndex.RankEntry> entries = new HashMap<>();
+    private final Map<String, Map<UUID, RankIndex.RankEntry>> gameTotals = new HashMap<>();
+    private final Map<String, Map<Long, GameDailyTotal>> gameDailyTotals = new HashMap<>();
+    private final Map<String, Map<UUID, RankIndex.RankEntry>> windowTotals = new HashMap<>();
+    private Listener listener;
+    private Supplier<List<String>> activeWindows = List::of;
+
+    @Override
+    public synchronized void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public synchronized void setActiveWindows(Supplier<List<String>> activeWindows) {
+        this.activeWindows = activeWindows;
+    }
+
+    @Override
+    public CompletableFuture<Integer> add(UUID uuid, String name, int amount) {
+        return CompletableFuture.completedFuture(increment(uuid, name, amount));
+    }
+
+    @Override
+    public CompletableFuture<Integer> subtract(UUID uuid, String name, int amount) {
+        return CompletableFuture.completedFuture(increment(uuid, name, -amount));
+    }
+
+    private synchronized int increment(UUID uuid, String newName, int delta) {
+        // Como en el upsert de SQLite, un nombre nulo conserva el registrado
+        String name = newName != null ? newName : nameOf(uuid);
+        int points = clamp(entries.get(uuid), delta);
+        apply(new RankIndex.RankEntry(uuid, name, points));
+
+        // Después del total: al reproducir el diario, las ventanas toman el nombre del registro del jugador
+        for (String window : activeWindows.get()) {
+            Map<UUID, RankIndex.RankEntry> totals = windowTotals.computeIfAbsent(window, key -> new HashMap<>());
+            RankIndex.RankEntry entry = new RankIndex.RankEntry(uuid, name, clamp(totals.get(uuid), delta));
+            totals.put(uuid, entry);
+            persistWindowTotal(window, entry);
+            if (listener != null) {
+                listener.onWindowPointsChanged(window, uuid, name, entry.points());
+            }
+        }
+
+        if (listener != null) {
+            listener.onPointsChanged(uuid, name, points);
+        }
+        return points;
+    }
+
+    private static int clamp(RankIndex.RankEntry current, int delta) {
+        long total = (current == null ? 0L : current.points()) + delta;
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, total));
+    }
+
+    /**
+     * Los eventos individuales no se guardan; solo se mantienen los agregados por (juego, jugador)
+     * y por (juego, día).
+     */
+    @Override
+    public synchronized CompletableFuture<Integer> recordScore(ScoreEvent event) {
+        return CompletableFuture.completedFuture(applyScore(event));
+    }
+
+    /**
+     * Todas las puntuaciones se aplican bajo el monitor, así que ninguna otra escritura se intercala entre ellas.
+     */
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> recordScores(List<ScoreEvent> events) {
+        List<RankIndex.RankEntry> totals = new ArrayList<>(events.size());
+        for (ScoreEvent event : events) {
+            totals.add(new RankIndex.RankEntry(event.uuid(), event.name(), applyScore(event)));
+        }
+        return CompletableFuture.completedFuture(totals);
+    }
+
+    private int applyScore(ScoreEvent event) {
+        int total = increment(event.uuid(), event.name(), event.points());
+
+        RankIndex.RankEntry previous = gameTotals.computeIfAbsent(event.gameId(), game -> new HashMap<>()).get(event.uuid());
+        applyGameTotal(event.gameId(), new RankIndex.RankEntry(event.uuid(), event.name(), clamp(previous, event.points())));
+
+        long day = event.epochDay();
+        GameDailyTotal daily = gameDailyTotals.computeIfAbsent(event.gameId(), game -> new HashMap<>()).get(day);
+        applyGameDaily(new GameDailyTotal(event.gameId(), day,
+                (daily == null ? 0L : daily.points()) + event.points(),
+                (daily == null ? 0 : daily.events()) + 1));
+        return total;
+    }
+
+    /**
+     * Todos los cambios se aplican bajo el monitor, así que ninguna otra escritura se intercala entre ellos.
+     */
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> applyBulk(List<BulkChange> changes) {
+        Map<UUID, RankIndex.RankEntry> totals = new LinkedHashMap<>();
+        for (BulkChange change : changes) {
+            UUID uuid = change.uuid();
+            String name = change.name() != null ? change.name() : nameOf(uuid);
+            int points;
+            if (change.operation() == BulkChange.Operation.SET) {
+                points = change.amount();
+                apply(new RankIndex.RankEntry(uuid, name, points));
+                if (listener != null) {
+                    listener.onPointsChanged(uuid, name, points);
+                }
+            } else {
+                points = increment(uuid, name, change.delta());
+            }
+            totals.put(uuid, new RankIndex.RankEntry(uuid, name, points));
+        }
+        return CompletableFuture.completedFuture(new ArrayList<>(totals.values()));
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> reset(UUID uuid) {
+        RankIndex.RankEntry current = entries.get(uuid);
+        if (current != null) {
+            apply(new RankIndex.RankEntry(uuid, current.name(), 0));
+            if (listener != null) {
+                listener.onPointsChanged(uuid, null, 0);
+            }
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Void> resetAll() {
+        entries.replaceAll((uuid, entry) -> new RankIndex.RankEntry(uuid, entry.name(), 0));
+        persistResetAll();
+        if (listener != null) {
+            listener.onAllPointsReset();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> get(UUID uuid) {
+        RankIndex.RankEntry entry = entries.get(uuid);
+        return CompletableFuture.completedFuture(entry == null ? 0 : entry.points());
+    }
+
+    @Override
+    public synchronized CompletableFuture<Integer> rank(UUID uuid) {
+        RankIndex.RankEntry entry = entries.get(uuid);
+        if (entry == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        int before = 0;
+        for (RankIndex.RankEntry other : entries.values()) {
+            if (RANKING_ORDER.compare(other, entry) < 0) {
+                before++;
+            }
+        }
+        return CompletableFuture.completedFuture(before + 1);
+    }
+
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> top(int limit) {
+        return CompletableFuture.completedFuture(entries.values().stream()
+                .sorted(RANKING_ORDER)
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> bottom(int limit) {
+        return CompletableFuture.completedFuture(entries.values().stream()
+                .filter(entry -> entry.points() > 0)
+                .sorted(RANKING_ORDER.reversed())
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> gameTop(String gameId, int limit) {
+        return CompletableFuture.completedFuture(gameTotals.getOrDefault(gameId, Map.of()).values().stream()
+                .sorted(RANKING_ORDER)
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public synchronized CompletableFuture<List<GameDailyTotal>> gameDaily(String gameId, long fromEpochDay, long toEpochDay) {
+        return CompletableFuture.completedFuture(gameDailyTotals.getOrDefault(gameId, Map.of()).values().stream()
+                .filter(total -> total.epochDay() >= fromEpochDay && total.epochDay() <= toEpochDay)
+                .sorted(Comparator.comparingLong(GameDailyTotal::epochDay))
+                .toList());
+    }
+
+    @Override
+    public synchronized CompletableFuture<List<RankIndex.RankEntry>> windowTop(String window, int limit) {
+        return CompletableFuture.completedFuture(windowTotals.getOrDefault(window, Map.of()).values().stream()
+                .sorted(RANKING_ORDER)
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public synchronized List<RankIndex.RankEntry> loadWindow(String window) {
+        return new ArrayList<>(windowTotals.getOrDefault(window, Map.of()).values());
+    }
+
+    @Override
+    public synchronized List<RankIndex.RankEntry> loadAll() {
+        return new ArrayList<>(entries.values());
+    }
+
+    @Override
+    public CompletableFuture<Void> backup(Path target) {
+        return CompletableFuture.failedFuture(new UnsupportedOperationException("The memory backend has nothing to back up"));
+    }
+
+    /**
+     * Ordena una copia del ranking y la recorre fuera del monitor, en el hilo que llama.
+     */
+    @Override
+    public CompletableFuture<Integer> forEachRanked(RankedEntryConsumer consumer) {
+        List<RankIndex.RankEntry> ranking;
+        synchronized (this) {
+            ranking = new ArrayList<>(entries.values());
+        }
+        ranking.sort(RANKING_ORDER);
+        try {
+            for (RankIndex.RankEntry entry : ranking) {
+                consumer.accept(entry);
+            }
+            return CompletableFuture.completedFuture(ranking.size());
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        //[]
+    }
+
+    /**
+     * Guarda el nuevo estado de un jugador. Se llama con el monitor adquirido.
+     */
+    protected void apply(RankIndex.RankEntry entry) {
+        entries.put(entry.uuid(), entry);
+        persist(entry);
+    }
+
+    private void applyGameTotal(String gameId, RankIndex.RankEntry entry) {
+        restoreGameTotal(gameId, entry);
+        persistGameTotal(gameId, entry);
+    }
+
+    private void applyGameDaily(GameDailyTotal total) {
+        restoreGameDaily(total);
+        persistGameDaily(total);
+    }
+
+    /**
+     * Carga un registro sin persistirlo ni notificarlo. Pensado para reconstruir el estado al arrancar.
+     */
+    protected synchronized void restore(RankIndex.RankEntry entry) {
+        entries.put(entry.uuid(), entry);
+    }
+
+    /**
+     * Pone a cero todos los registros sin persistirlo ni notificarlo.
+     */
+    protected synchronized void restoreResetAll() {
+        entries.replaceAll((uuid, entry) -> new RankIndex.RankEntry(uuid, entry.name(), 0));
+    }
+
+    protected synchronized void restoreGameTotal(String gameId, RankIndex.RankEntry entry) {
+        gameTotals.computeIfAbsent(gameId, game -> new HashMap<>()).put(entry.uuid(), entry);
+    }
+
+    protected synchronized void restoreGameDaily(GameDailyTotal total) {
+        gameDailyTotals.computeIfAbsent(total.gameId(), game -> new HashMap<>()).put(total.epochDay(), total);
+    }
+
+    protected synchronized void restoreWindowTotal(String window, RankIndex.RankEntry entry) {
+        windowTotals.computeIfAbsent(window, key -> new HashMap<>()).put(entry.uuid(), entry);
+    }
+
+    /**
+     * @return Nombre conocido de un jugador, o null si no tiene registro
+     */
+    protected synchronized String nameOf(UUID uuid) {
+        RankIndex.RankEntry entry = entries.get(uuid);
+        return entry == null ? null : entry.name();
+    }
+
+    /**
+     * @return Copia de todos los agregados por (juego, jugador), agrupados por juego
+     */
+    protected synchronized Map<String, List<RankIndex.RankEntry>> gameTotalsSnapshot() {
+        Map<String, List<RankIndex.RankEntry>> snapshot = new HashMap<>();
+        gameTotals.forEach((game, totals) -> snapshot.put(game, new ArrayList<>(totals.values())));
+        return snapshot;
+    }
+
+    protected synchronized Map<String, List<RankIndex.RankEntry>> windowTotalsSnapshot() {
+        Map<String, List<RankIndex.RankEntry>> snapshot = new HashMap<>();
+        windowTotals.forEach((window, totals) -> snapshot.put(window, new ArrayList<>(totals.values())));
+        return snapshot;
+    }
+
+    protected synchronized List<GameDailyTotal> gameDailySnapshot() {
+        List<GameDailyTotal> snapshot = new ArrayList<>();
+        gameDailyTotals.values().forEach(totals -> snapshot.addAll(totals.values()));
+        return snapshot;
+    }
+
+    protected synchronized int entryCount() {
+        return entries.size();
+    }
+
+    /**
+     * Punto de extensión para los backends que persisten cada cambio. Se llama con el monitor adquirido.
+     */
+    protected void persist(RankIndex.RankEntry entry) {
+        //[]
+    }
+
+    protected void persistGameTotal(String gameId, RankIndex.RankEntry entry) {
+        //[]
+    }
+
+    protected void persistGameDaily(GameDailyTotal total) {
+        //[]
+    }
+
+    protected void persistWindowTotal(String window, RankIndex.RankEntry entry) {
+        //[]
+    }
+
+    /**
+     * Punto de extensión para persistir un reinicio global. Se llama con el monitor adquirido.
+     */
+    protected void persistResetAll() {
+        //[]
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Esquema de la base de datos de puntos y sus migraciones.
+ * <p>
+ * Versión 1: tabla original con el UUID como texto. Versión 2: tabla {@code WITHOUT ROWID} con el UUID
+ * como BLOB de 16 bytes y un índice por puntos para las consultas de ranking. Versión 3: registro de
+ * eventos de puntuación por minijuego y sus agregados por (juego, jugador) y por (juego, día). Versión 4:
+ * totales por ventana de clasificación (día, semana o temporada).
+ */
+public final class PointsSchema {
+    public static final String TABLE_NAME = "Puntos";
+    public static final String POINTS_COLUMN = "puntos";
+    public static final String EVENTS_TABLE = "EventosPuntos";
+    public static final String GAME_TOTALS_TABLE = "PuntosPorJuego";
+    public static final String GAME_DAILY_TABLE = "PuntosPorJuegoDia";
+    public static final String WINDOW_TABLE = "PuntosPorVentana";
+
+    private static final int MIGRATION_CHUNK_SIZE = 5_000;
+
+    public static final List<SchemaMigrator.Migration> MIGRATIONS = List.of(
+            new SchemaMigrator.Migration(1, "create points table", PointsSchema::createLegacyTable),
+            new SchemaMigrator.Migration(2, "compact WITHOUT ROWID table keyed by BLOB uuid", PointsSchema::migrateToBlobKeys),
+            new SchemaMigrator.Migration(3, "score event log and per-game rollups", PointsSchema::createGameTables),
+            new SchemaMigrator.Migration(4, "per-window leaderboard totals", PointsSchema::createWindowTable)
+    );
+
+    private PointsSchema() {
+        //[]
+    }
+
+    /**
+     * Ajusta la conexión para el patrón de uso del plugin: WAL para que las lecturas no esperen a las
+     * escrituras, synchronous NORMAL (seguro en WAL) y una caché de páginas mayor.
+     *
+     * @param connection Conexión recién abierta, fuera de cualquier transacción
+     * @throws SQLException Si alguna pragma falla
+     */
+    public static void applyPragmas(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            statement.execute("PRAGMA cache_size = -16000");
+            statement.execute("PRAGMA temp_store = MEMORY");
+            statement.execute("PRAGMA busy_timeout = 5000");
+        }
+    }
+
+    private static void createLegacyTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + TABLE_NAME +
+                    " (uuid TEXT PRIMARY KEY, nombre TEXT, " + POINTS_COLUMN + " INTEGER)");
+        }
+    }
+
+    private static void migrateToBlobKeys(Connection connection) throws SQLException {
+        String newTable = TABLE_NAME + "_v2";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + newTable);
+            statement.execute("CREATE TABLE " + newTable + " (uuid BLOB NOT NULL PRIMARY KEY, nombre TEXT, " +
+                    POINTS_COLUMN + " INTEGER NOT NULL DEFAULT 0) WITHOUT ROWID");
+        }
+
+        int total = countRows(connection);
+        int copied = 0;
+        int skipped = 0;
+        String insertQuery = "INSERT INTO " + newTable + " (uuid, nombre, " + POINTS_COLUMN + ") VALUES (?, ?, ?)";
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT uuid, nombre, " + POINTS_COLUMN + " FROM " + TABLE_NAME);
+             PreparedStatement insert = connection.prepareStatement(insertQuery)) {
+            while (rows.next()) {
+                UUID uuid;
+                try {
+                    uuid = UUID.fromString(rows.getString("uuid"));
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    skipped++;
+                    continue;
+                }
+                insert.setBytes(1, UuidCodec.toBytes(uuid));
+                insert.setString(2, rows.getString("nombre"));
+                insert.setInt(3, Math.max(0, rows.getInt(POINTS_COLUMN)));
+                insert.addBatch();
+                copied++;
+                if (copied % MIGRATION_CHUNK_SIZE == 0) {
+                    insert.executeBatch();
+                    GeoWarePlugin.LOGGER.info("Migrating points table: {}/{} rows", copied, total);
+                }
+            }
+            insert.executeBatch();
+        }
+        if (skipped > 0) {
+            GeoWarePlugin.LOGGER.warn("Skipped {} points rows with an invalid uuid during migration", skipped);
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + TABLE_NAME);
+            statement.execute("ALTER TABLE " + newTable + " RENAME TO " + TABLE_NAME);
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_puntos_ranking ON " + TABLE_NAME +
+                    " (" + POINTS_COLUMN + " DESC, uuid)");
+        }
+        GeoWarePlugin.LOGGER.info("Migrated {}/{} points rows to the compact schema", copied, total);
+    }
+
+    /**
+     * El registro de eventos es de solo anexado y solo se indexa por jugador y fecha. Las consultas por
+     * juego leen los agregados, que se mantienen en la misma transacción que cada evento.
+     */
+    private static void createGameTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + EVENTS_TABLE + " (id INTEGER PRIMARY KEY, " +
+                    "uuid BLOB NOT NULL, juego TEXT NOT NULL, " + POINTS_COLUMN + " INTEGER NOT NULL, " +
+                    "fecha INTEGER NOT NULL, sesion INTEGER NOT NULL)");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_eventos_jugador ON " + EVENTS_TABLE + " (uuid, fecha)");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + GAME_TOTALS_TABLE + " (juego TEXT NOT NULL, " +
+                    "uuid BLOB NOT NULL, nombre TEXT, " + POINTS_COLUMN + " INTEGER NOT NULL DEFAULT 0, " +
+                    "eventos INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (juego, uuid)) WITHOUT ROWID");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_puntos_juego_ranking ON " + GAME_TOTALS_TABLE +
+                    " (juego, " + POINTS_COLUMN + " DESC, uuid)");
+            statement.execute("CREATE TABLE IF NOT EXISTS " + GAME_DAILY_TABLE + " (juego TEXT NOT NULL, " +
+                    "dia INTEGER NOT NULL, " + POINTS_COLUMN + " INTEGER NOT NULL DEFAULT 0, " +
+                    "eventos INTEGER NOT NULL DEFAULT 0, PRIMARY KEY (juego, dia)) WITHOUT ROWID");
+        }
+    }
+
+    private static void createWindowTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + WINDOW_TABLE + " (ventana TEXT NOT NULL, " +
+                    "uuid BLOB NOT NULL, nombre TEXT, " + POINTS_COLUMN + " INTEGER NOT NULL DEFAULT 0, " +
+                    "PRIMARY KEY (ventana, uuid)) WITHOUT ROWID");
+            statement.execute("CREATE INDEX IF NOT EXISTS idx_puntos_ventana_ranking ON " + WINDOW_TABLE +
+                    " (ventana, " + POINTS_COLUMN + " DESC, uuid)");
+        }
+    }
+
+    private static int countRows(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE_NAME)) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+}
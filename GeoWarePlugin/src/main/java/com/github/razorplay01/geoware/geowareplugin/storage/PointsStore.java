@@ -0,0 +1,193 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Backend de persistencia de los puntos. {@link com.github.razorplay01.geoware.geowareplugin.PointsManager}
+ * mantiene encima la caché, el ranking en memoria y el leaderboard, independientemente de la implementación.
+ * <p>
+ * Las implementaciones notifican cada cambio confirmado a su {@link Listener} en el mismo orden en el
+ * que se aplicaron, que es lo que permite mantener coherentes las estructuras en memoria.
+ */
+public interface PointsStore {
+    /**
+     * Recibe los cambios ya confirmados, en orden de aplicación.
+     */
+    interface Listener {
+        /**
+         * @param uuid   UUID del jugador
+         * @param name   Nombre actualizado del jugador, o null si no cambia
+         * @param points Nuevo total
+         */
+        void onPointsChanged(UUID uuid, String name, int points);
+
+        void onAllPointsReset();
+
+        /**
+         * @param window Clave de la ventana (día, semana o temporada)
+         * @param uuid   UUID del jugador
+         * @param name   Nombre actualizado del jugador
+         * @param points Nuevo total del jugador en la ventana
+         */
+        default void onWindowPointsChanged(String window, UUID uuid, String name, int points) {
+            //[]
+        }
+    }
+
+    /**
+     * Recibe las entradas del ranking una a una durante una exportación.
+     */
+    @FunctionalInterface
+    interface RankedEntryConsumer {
+        void accept(RankIndex.RankEntry entry) throws IOException;
+    }
+
+    /**
+     * Backends disponibles, seleccionables con {@code storage.backend} en el config.yml.
+     */
+    enum Backend {
+        SQLITE,
+        MEMORY,
+        JOURNAL
+    }
+
+    /**
+     * Abre el backend configurado.
+     *
+     * @param dataFolder Carpeta de datos del plugin
+     * @param settings   Parámetros de almacenamiento
+     * @return Backend listo para usarse
+     * @throws SQLException Si el backend SQLite no se puede abrir o migrar
+     * @throws IOException  Si el diario en disco no se puede abrir o reproducir
+     */
+    static PointsStore open(File dataFolder, StorageSettings settings) throws SQLException, IOException {
+        dataFolder.mkdirs();
+        return switch (settings.backend()) {
+            case SQLITE -> new SqlitePointsStore(new File(dataFolder, "puntos.db"), settings);
+            case MEMORY -> new MemoryPointsStore();
+            case JOURNAL -> new JournalPointsStore(new File(dataFolder, "puntos.journal"), settings);
+        };
+    }
+
+    void setListener(Listener listener);
+
+    /**
+     * Indica en qué ventanas de clasificación se acumulan, además del total, los puntos que se sumen o
+     * resten a partir de ahora. Se consulta en cada escritura, en el momento de aplicarla.
+     */
+    void setActiveWindows(Supplier<List<String>> activeWindows);
+
+    /**
+     * @return Nuevo total tras confirmarse la escritura
+     */
+    CompletableFuture<Integer> add(UUID uuid, String name, int amount);
+
+    /**
+     * Resta puntos sin bajar de cero.
+     *
+     * @return Nuevo total tras confirmarse la escritura
+     */
+    CompletableFuture<Integer> subtract(UUID uuid, String name, int amount);
+
+    /**
+     * Suma al total del jugador la puntuación de una partida y la registra en el historial de su minijuego,
+     * actualizando los agregados por (juego, jugador) y por (juego, día) en la misma escritura.
+     *
+     * @return Nuevo total tras confirmarse la escritura
+     */
+    CompletableFuture<Integer> recordScore(ScoreEvent event);
+
+    /**
+     * Registra varias puntuaciones de partida como una única escritura: o se confirman todas o ninguna.
+     * Cada una cuenta como en {@link #recordScore(ScoreEvent)}.
+     *
+     * @return Nuevo total del jugador tras cada puntuación, en el mismo orden, tras confirmarse la escritura
+     */
+    CompletableFuture<List<RankIndex.RankEntry>> recordScores(List<ScoreEvent> events);
+
+    /**
+     * Aplica en orden una lista de cambios como una única escritura: o se confirman todos o ninguno.
+     * Las sumas y restas cuentan también en las ventanas activas; {@link BulkChange.Operation#SET} solo
+     * cambia el total.
+     *
+     * @return Total final de cada jugador afectado, tras confirmarse la escritura
+     */
+    CompletableFuture<List<RankIndex.RankEntry>> applyBulk(List<BulkChange> changes);
+
+    /**
+     * Pone a cero los puntos de un jugador si tiene registro.
+     */
+    CompletableFuture<Void> reset(UUID uuid);
+
+    CompletableFuture<Void> resetAll();
+
+    /**
+     * @return Puntos confirmados del jugador, 0 si no tiene registro
+     */
+    CompletableFuture<Integer> get(UUID uuid);
+
+    /**
+     * @return Posición confirmada del jugador empezando en 1, 0 si no tiene registro
+     */
+    CompletableFuture<Integer> rank(UUID uuid);
+
+    CompletableFuture<List<RankIndex.RankEntry>> top(int limit);
+
+    /**
+     * @return Jugadores con menos puntos excluyendo los que tienen cero, de menor a mayor
+     */
+    CompletableFuture<List<RankIndex.RankEntry>> bottom(int limit);
+
+    /**
+     * @return Jugadores con más puntos acumulados en un minijuego, de mayor a menor
+     */
+    CompletableFuture<List<RankIndex.RankEntry>> gameTop(String gameId, int limit);
+
+    /**
+     * @return Agregados diarios de un minijuego entre dos días incluidos, ordenados por día; los días sin
+     * eventos no aparecen
+     */
+    CompletableFuture<List<GameDailyTotal>> gameDaily(String gameId, long fromEpochDay, long toEpochDay);
+
+    /**
+     * @return Jugadores con más puntos en una ventana, activa o pasada, de mayor a menor
+     */
+    CompletableFuture<List<RankIndex.RankEntry>> windowTop(String window, int limit);
+
+    /**
+     * Lee todos los registros de una ventana. Se usa al arrancar para construir el ranking de las ventanas activas.
+     */
+    List<RankIndex.RankEntry> loadWindow(String window) throws SQLException, IOException;
+
+    /**
+     * Lee todos los registros. Se usa al arrancar para construir el ranking en memoria.
+     */
+    List<RankIndex.RankEntry> loadAll() throws SQLException, IOException;
+
+    /**
+     * Escribe en {@code target}, que no debe existir, una copia coherente de los datos sin detener las
+     * escrituras. Si el backend no guarda nada en disco, el futuro falla con
+     * {@link UnsupportedOperationException}.
+     */
+    CompletableFuture<Void> backup(Path target);
+
+    /**
+     * Recorre el ranking completo en orden (puntos descendente, uuid) sobre una vista coherente de los
+     * datos, sin cargarlo entero en memoria si el backend lo permite.
+     *
+     * @return Futuro con el número de entradas recorridas
+     */
+    CompletableFuture<Integer> forEachRanked(RankedEntryConsumer consumer);
+
+    /**
+     * Confirma lo pendiente y libera los recursos del backend.
+     */
+    void close();
+}
@@ -0,0 +1,376 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.metrics.BatchCommitEvent;
+import com.github.razorplay01.geoware.geowareplugin.metrics.LatencyHistogram;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Canal de escritura con commit agrupado sobre la única conexión SQLite de escritura.
+ * <p>
+ * Cualquier hilo puede encolar escrituras; un único hilo escritor las consume en orden y las
+ * confirma en una sola transacción cada {@code batchIntervalMs} milisegundos o cada
+ * {@code batchMaxEntries} escrituras, lo que ocurra primero. Cada escritura se ejecuta dentro de su propio
+ * savepoint: si falla alguna de sus sentencias se deshacen todas las suyas y el resto del lote se confirma
+ * igualmente, así que una escritura nunca queda aplicada a medias.
+ */
+public class PointsWriter {
+    private static final String WRITE_SAVEPOINT = "SAVEPOINT points_write";
+    private static final String WRITE_RELEASE = "RELEASE points_write";
+    private static final String WRITE_ROLLBACK = "ROLLBACK TO points_write";
+    /**
+     * Espera máxima de un productor con la cola llena, y cada cuánto comprueba si el escritor sigue activo.
+     */
+    private static final long FULL_QUEUE_TIMEOUT_MS = 10_000;
+    private static final long FULL_QUEUE_CHECK_MS = 100;
+
+    /**
+     * Escritura pendiente. Se ejecuta en el hilo escritor dentro de la transacción en curso y puede
+     * devolver un resultado (por ejemplo el nuevo total) que se entrega tras el commit.
+     */
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T execute(CachedConnection connection) throws SQLException;
+    }
+
+    private static final class PendingWrite<T> {
+        private final WriteTask<T> task;
+        private final Consumer<T> onCommit;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+
+        private PendingWrite(WriteTask<T> task, Consumer<T> onCommit) {
+            this.task = task;
+            this.onCommit = onCommit;
+        }
+
+        private void execute(CachedConnection connection) throws SQLException {
+            value = task.execute(connection);
+        }
+
+        private void complete() {
+            if (onCommit != null) {
+                try {
+                    onCommit.accept(value);
+                } catch (RuntimeException e) {
+                    GeoWarePlugin.LOGGER.error("Error in points write commit callback", e);
+                }
+            }
+            result.complete(value);
+        }
+    }
+
+    private final CachedConnection connection;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final long batchIntervalNanos;
+    private final int batchMaxEntries;
+    private final Thread writerThread;
+    private volatile boolean accepting = true;
+
+    private final LongAdder committedBatches = new LongAdder();
+    private final LongAdder committedWrites = new LongAdder();
+    private final LongAdder failedWrites = new LongAdder();
+    private final LongAdder saturatedOffers = new LongAdder();
+    private final AtomicLong totalCommitNanos = new AtomicLong();
+    private final AtomicLong lastCommitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private final LatencyHistogram commitLatency = new LatencyHistogram(LatencyHistogram.DISK_BOUNDS);
+
+    public PointsWriter(Connection connection, StorageSettings settings) throws SQLException {
+        connection.setAutoCommit(false);
+        this.connection = new CachedConnection(connection);
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.batchIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.batchIntervalMs());
+        this.batchMaxEntries = settings.batchMaxEntries();
+        this.writerThread = new Thread(this::runLoop, "GeoWare-PointsWriter");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Encola una escritura. Si la cola está llena el hilo llamante espera a que haya hueco; si no lo hay en
+     * {@value #FULL_QUEUE_TIMEOUT_MS} ms, o el escritor se detiene mientras tanto, el futuro falla.
+     *
+     * @param task Escritura a ejecutar en el hilo escritor
+     * @return Futuro que se completa cuando la transacción que contiene la escritura se confirma
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task) {
+        return submit(task, null);
+    }
+
+    /**
+     * Encola una escritura con una acción que se ejecuta en el hilo escritor justo después del commit.
+     * Las acciones se ejecutan en el mismo orden en el que se encolaron las escrituras, por lo que
+     * sirven para mantener estructuras en memoria coherentes con la base de datos.
+     *
+     * @param task     Escritura a ejecutar en el hilo escritor
+     * @param onCommit Acción que recibe el resultado de la escritura una vez confirmada
+     * @return Futuro que se completa cuando la transacción que contiene la escritura se confirma
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task, Consumer<T> onCommit) {
+        PendingWrite<T> write = new PendingWrite<>(task, onCommit);
+        if (!accepting) {
+            write.result.completeExceptionally(new IllegalStateException("Points writer is shut down"));
+            return write.result;
+        }
+
+        if (!queue.offer(write)) {
+            saturatedOffers.increment();
+            try {
+                if (!offerWhileAccepting(write)) {
+                    write.result.completeExceptionally(accepting
+                            ? new IllegalStateException("Points writer queue is full")
+                            : new IllegalStateException("Points writer is shut down"));
+                    return write.result;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write.result.completeExceptionally(e);
+                return write.result;
+            }
+        }
+        // El escritor pudo detenerse y vaciar la cola justo antes de encolarla: nadie más la completaría
+        if (!accepting && queue.remove(write)) {
+            write.result.completeExceptionally(new IllegalStateException("Points writer is shut down"));
+        }
+        return write.result;
+    }
+
+    /**
+     * Espera hueco en la cola mientras el escritor siga aceptando escrituras, como mucho
+     * {@value #FULL_QUEUE_TIMEOUT_MS} ms.
+     *
+     * @return true si la escritura se ha encolado
+     */
+    private boolean offerWhileAccepting(PendingWrite<?> write) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FULL_QUEUE_TIMEOUT_MS);
+        while (accepting) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            if (queue.offer(write, Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(FULL_QUEUE_CHECK_MS)),
+                    TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deja de aceptar escrituras, vacía la cola confirmando todo lo pendiente y espera al hilo escritor.
+     *
+     * @param timeoutMs Tiempo máximo de espera
+     * @return true si todas las escrituras pendientes se confirmaron a tiempo
+     */
+    public boolean shutdown(long timeoutMs) {
+        accepting = false;
+        try {
+            writerThread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !writerThread.isAlive();
+    }
+
+    /**
+     * Un error inesperado en un lote falla solo las escrituras de ese lote; el hilo sigue consumiendo la
+     * cola. Si aun así termina, falla todo lo pendiente para que ningún productor espere para siempre.
+     */
+    private void runLoop() {
+        List<PendingWrite<?>> batch = new ArrayList<>(batchMaxEntries);
+        try {
+            while (accepting || !queue.isEmpty()) {
+                PendingWrite<?> first;
+                try {
+                    first = queue.poll(batchIntervalNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // Interrumpido: se deja de aceptar escrituras pero se vacía lo pendiente
+                    accepting = false;
+                    continue;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                try {
+                    collectBatch(batch);
+                    commit(batch);
+                } catch (RuntimeException e) {
+                    GeoWarePlugin.LOGGER.error("Unexpected error committing batch of {} points writes", batch.size(), e);
+                    rollback();
+                    failAll(batch, e);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            accepting = false;
+            failAll(batch, new IllegalStateException("Points writer stopped"));
+            List<PendingWrite<?>> pending = new ArrayList<>();
+            queue.drainTo(pending);
+            failAll(pending, new IllegalStateException("Points writer stopped"));
+            connection.close();
+        }
+    }
+
+    /**
+     * Falla las escrituras que aún no se han completado.
+     */
+    private void failAll(List<PendingWrite<?>> writes, Throwable cause) {
+        for (PendingWrite<?> write : writes) {
+            if (write.result.completeExceptionally(cause)) {
+                failedWrites.increment();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingWrite<?>> batch) {
+        long deadline = System.nanoTime() + batchIntervalNanos;
+        while (batch.size() < batchMaxEntries) {
+            if (queue.drainTo(batch, batchMaxEntries - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !accepting) {
+                return;
+            }
+            try {
+                PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            } catch (InterruptedException e) {
+                accepting = false;
+                return;
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        BatchCommitEvent event = new BatchCommitEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<PendingWrite<?>> applied = new ArrayList<>(batch.size());
+        for (PendingWrite<?> write : batch) {
+            try {
+                connection.prepare(WRITE_SAVEPOINT).execute();
+            } catch (SQLException e) {
+                failedWrites.increment();
+                write.result.completeExceptionally(e);
+                GeoWarePlugin.LOGGER.error("Error opening savepoint for queued points write", e);
+                continue;
+            }
+            try {
+                write.execute(connection);
+                connection.prepare(WRITE_RELEASE).execute();
+                applied.add(write);
+            } catch (SQLException | RuntimeException e) {
+                undoWrite();
+                failedWrites.increment();
+                write.result.completeExceptionally(e);
+                GeoWarePlugin.LOGGER.error("Error executing queued points write", e);
+            }
+        }
+
+        try {
+            connection.getConnection().commit();
+        } catch (SQLException e) {
+            GeoWarePlugin.LOGGER.error("Error committing batch of {} points writes", applied.size(), e);
+            rollback();
+            failedWrites.add(applied.size());
+            applied.forEach(write -> write.result.completeExceptionally(e));
+            event.record(batch.size(), batch.size(), false);
+            return;
+        }
+
+        recordCommit(System.nanoTime() - start, applied.size());
+        event.record(batch.size(), batch.size() - applied.size(), true);
+        applied.forEach(PendingWrite::complete);
+    }
+
+    /**
+     * Deshace las sentencias de la escritura en curso sin tocar las anteriores del lote. Si ni siquiera eso
+     * funciona, el estado de la transacción es desconocido y se descarta el lote entero.
+     */
+    private void undoWrite() {
+        try {
+            connection.prepare(WRITE_ROLLBACK).execute();
+            connection.prepare(WRITE_RELEASE).execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not roll back a failed points write", e);
+        }
+    }
+
+    private void rollback() {
+        try {
+            connection.getConnection().rollback();
+        } catch (SQLException e) {
+            GeoWarePlugin.LOGGER.error("Error rolling back points batch", e);
+        }
+    }
+
+    private void recordCommit(long elapsedNanos, int writes) {
+        committedBatches.increment();
+        committedWrites.add(writes);
+        totalCommitNanos.addAndGet(elapsedNanos);
+        lastCommitNanos.set(elapsedNanos);
+        maxCommitNanos.accumulateAndGet(elapsedNanos, Math::max);
+        commitLatency.record(elapsedNanos);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getCommittedBatches() {
+        return committedBatches.sum();
+    }
+
+    public long getCommittedWrites() {
+        return committedWrites.sum();
+    }
+
+    public long getFailedWrites() {
+        return failedWrites.sum();
+    }
+
+    /**
+     * @return Número de veces que un productor tuvo que esperar porque la cola estaba llena
+     */
+    public long getSaturatedOffers() {
+        return saturatedOffers.sum();
+    }
+
+    public long getLastCommitNanos() {
+        return lastCommitNanos.get();
+    }
+
+    public long getMaxCommitNanos() {
+        return maxCommitNanos.get();
+    }
+
+    /**
+     * @return Duración de cada lote, desde la primera escritura hasta el commit
+     */
+    public LatencyHistogram getCommitLatency() {
+        return commitLatency;
+    }
+
+    public long getAverageCommitNanos() {
+        long batches = committedBatches.sum();
+        return batches == 0 ? 0 : totalCommitNanos.get() / batches;
+    }
+}
@@ -0,0 +1,408 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.metrics.LatencyHistogram;
+import com.github.razorplay01.geoware.geowareplugin.metrics.RankQueryEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de clasificación en memoria: un treap ordenado por (puntos descendente, uuid) y aumentado
+ * con el tamaño de cada subárbol.
+ * <p>
+ * Actualizar la puntuación de un jugador y consultar su posición cuestan O(log n), y obtener los
+ * primeros N jugadores O(log n + N), sin ordenar la tabla completa en cada consulta. La duración de las
+ * consultas se mide en un {@link LatencyHistogram} que se exporta con el resto de métricas.
+ */
+public class RankIndex {
+    /**
+     * Entrada del ranking.
+     *
+     * @param uuid   UUID del jugador
+     * @param name   Último nombre conocido del jugador
+     * @param points Puntos del jugador
+     */
+    public record RankEntry(UUID uuid, String name, int points) {
+    }
+
+    /**
+     * Puntos y posición de un jugador leídos de forma atómica.
+     *
+     * @param points   Puntos del jugador
+     * @param position Posición empezando en 1
+     */
+    public record Standing(int points, int position) {
+    }
+
+    private static final class Node {
+        private final UUID uuid;
+        private final int priority;
+        private String name;
+        private int points;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(UUID uuid, String name, int points, int priority) {
+            this.uuid = uuid;
+            this.name = name;
+            this.points = points;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    private final LatencyHistogram rankLatency = new LatencyHistogram(LatencyHistogram.MEMORY_BOUNDS);
+    private final LatencyHistogram topLatency = new LatencyHistogram(LatencyHistogram.MEMORY_BOUNDS);
+
+    /**
+     * Inserta o actualiza la puntuación de un jugador.
+     *
+     * @param uuid   UUID del jugador
+     * @param name   Nombre del jugador, o null para conservar el actual
+     * @param points Nuevo total de puntos
+     */
+    public void update(UUID uuid, String name, int points) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            if (node == null) {
+                node = new Node(uuid, name, points, random.nextInt());
+                nodes.put(uuid, node);
+            } else {
+                root = erase(root, node.points, uuid);
+                node.left = null;
+                node.right = null;
+                node.size = 1;
+                node.points = points;
+                if (name != null) {
+                    node.name = name;
+                }
+            }
+            root = insert(root, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Actualiza la puntuación de un jugador solo si ya está en el índice.
+     */
+    public void updateIfPresent(UUID uuid, int points) {
+        lock.writeLock().lock();
+        try {
+            if (nodes.containsKey(uuid)) {
+                update(uuid, null, points);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Pone a cero la puntuación de todos los jugadores manteniéndolos en el índice.
+     */
+    public void resetAll() {
+        lock.writeLock().lock();
+        try {
+            List<Node> all = new ArrayList<>(nodes.values());
+            root = null;
+            for (Node node : all) {
+                node.left = null;
+                node.right = null;
+                node.size = 1;
+                node.points = 0;
+                root = insert(root, node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Posición del jugador empezando en 1, o 0 si no está en el índice
+     */
+    public int rankOf(UUID uuid) {
+        Standing standing = standingOf(uuid);
+        return standing == null ? 0 : standing.position();
+    }
+
+    /**
+     * @return Puntos y posición del jugador, o null si no está en el índice
+     */
+    public Standing standingOf(UUID uuid) {
+        RankQueryEvent event = new RankQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Standing standing;
+        int indexSize;
+        lock.readLock().lock();
+        try {
+            standing = locate(uuid);
+            indexSize = nodes.size();
+        } finally {
+            lock.readLock().unlock();
+            rankLatency.record(System.nanoTime() - start);
+        }
+        event.record("rank", standing == null ? 0 : standing.position(), indexSize, uuid);
+        return standing;
+    }
+
+    /**
+     * Debe llamarse con el bloqueo de lectura adquirido.
+     */
+    private Standing locate(UUID uuid) {
+        Node node = nodes.get(uuid);
+        if (node == null) {
+            return null;
+        }
+        int before = 0;
+        Node current = root;
+        while (current != null) {
+            int comparison = compare(node.points, uuid, current.points, current.uuid);
+            if (comparison == 0) {
+                return new Standing(node.points, before + size(current.left) + 1);
+            }
+            if (comparison < 0) {
+                current = current.left;
+            } else {
+                before += size(current.left) + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Puntos del jugador, o -1 si no está en el índice
+     */
+    public int pointsOf(UUID uuid) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node == null ? -1 : node.points;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Los {@code limit} jugadores con más puntos, de mayor a menor
+     */
+    public List<RankEntry> top(int limit) {
+        RankQueryEvent event = new RankQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<RankEntry> entries;
+        int indexSize;
+        lock.readLock().lock();
+        try {
+            indexSize = nodes.size();
+            entries = new ArrayList<>(Math.min(limit, indexSize));
+            Deque<Node> stack = new ArrayDeque<>();
+            Node current = root;
+            while ((current != null || !stack.isEmpty()) && entries.size() < limit) {
+                while (current != null) {
+                    stack.push(current);
+                    current = current.left;
+                }
+                current = stack.pop();
+                entries.add(toEntry(current));
+                current = current.right;
+            }
+        } finally {
+            lock.readLock().unlock();
+            topLatency.record(System.nanoTime() - start);
+        }
+        event.record("top", entries.size(), indexSize, null);
+        return entries;
+    }
+
+    /**
+     * @return Los {@code limit} jugadores con menos puntos excluyendo los que tienen cero, de menor a mayor
+     */
+    public List<RankEntry> bottom(int limit) {
+        RankQueryEvent event = new RankQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<RankEntry> entries;
+        int indexSize;
+        lock.readLock().lock();
+        try {
+            indexSize = nodes.size();
+            int positive = countAbove(0);
+            entries = new ArrayList<>(Math.min(limit, positive));
+            for (int index = positive - 1; index >= 0 && entries.size() < limit; index--) {
+                entries.add(toEntry(select(index)));
+            }
+        } finally {
+            lock.readLock().unlock();
+            topLatency.record(System.nanoTime() - start);
+        }
+        event.record("bottom", entries.size(), indexSize, null);
+        return entries;
+    }
+
+    /**
+     * @return Duración de las consultas de posición ({@link #rankOf} y {@link #standingOf})
+     */
+    public LatencyHistogram getRankLatency() {
+        return rankLatency;
+    }
+
+    /**
+     * @return Duración de las consultas de {@link #top} y {@link #bottom}
+     */
+    public LatencyHistogram getTopLatency() {
+        return topLatency;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int countAbove(int points) {
+        int count = 0;
+        Node current = root;
+        while (current != null) {
+            if (current.points > points) {
+                count += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return count;
+    }
+
+    private Node select(int index) {
+        Node current = root;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index == leftSize) {
+                return current;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static RankEntry toEntry(Node node) {
+        return new RankEntry(node.uuid, node.name, node.points);
+    }
+
+    private static int compare(int pointsA, UUID uuidA, int pointsB, UUID uuidB) {
+        int byPoints = Integer.compare(pointsB, pointsA);
+        return byPoints != 0 ? byPoints : compareUuids(uuidA, uuidB);
+    }
+
+    /**
+     * Compara dos UUID sin signo, en el mismo orden que sus 16 bytes big-endian, que es como SQLite
+     * ordena la clave BLOB. Así los empates se deshacen igual en memoria y en la base de datos.
+     */
+    public static int compareUuids(UUID a, UUID b) {
+        int byMost = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return byMost != 0 ? byMost : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void refresh(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node tree, Node node) {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node[] parts = split(tree, node.points, node.uuid);
+            node.left = parts[0];
+            node.right = parts[1];
+            refresh(node);
+            return node;
+        }
+        if (compare(node.points, node.uuid, tree.points, tree.uuid) < 0) {
+            tree.left = insert(tree.left, node);
+        } else {
+            tree.right = insert(tree.right, node);
+        }
+        refresh(tree);
+        return tree;
+    }
+
+    private static Node erase(Node tree, int points, UUID uuid) {
+        if (tree == null) {
+            return null;
+        }
+        int comparison = compare(points, uuid, tree.points, tree.uuid);
+        if (comparison == 0) {
+            return merge(tree.left, tree.right);
+        }
+        if (comparison < 0) {
+            tree.left = erase(tree.left, points, uuid);
+        } else {
+            tree.right = erase(tree.right, points, uuid);
+        }
+        refresh(tree);
+        return tree;
+    }
+
+    /**
+     * Divide el árbol en los nodos anteriores a la clave y los posteriores o iguales.
+     */
+    private static Node[] split(Node tree, int points, UUID uuid) {
+        if (tree == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(tree.points, tree.uuid, points, uuid) < 0) {
+            Node[] parts = split(tree.right, points, uuid);
+            tree.right = parts[0];
+            refresh(tree);
+            return new Node[]{tree, parts[1]};
+        }
+        Node[] parts = split(tree.left, points, uuid);
+        tree.left = parts[1];
+        refresh(tree);
+        return new Node[]{parts[0], tree};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            refresh(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        refresh(right);
+        return right;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Exporta el ranking completo a un archivo mientras se recorre, sin tenerlo entero en memoria.
+ * <p>
+ * NDJSON: una línea {@code {"rank":1,"uuid":"...","name":"...","points":0}} por jugador.
+ * Binario: cabecera {@code int magic, int versión, long fecha} y, por jugador, {@code long, long} del
+ * uuid, {@code int} puntos, {@code byte} longitud y el nombre en UTF-8. La posición es el orden.
+ */
+public final class RankingExporter {
+    public static final int BINARY_MAGIC = 0x47575058;
+    public static final int BINARY_VERSION = 1;
+
+    @Getter
+    @AllArgsConstructor
+    public enum Format {
+        NDJSON(".ndjson"),
+        BINARY(".bin"),
+        NONE(null);
+
+        private final String extension;
+    }
+
+    private RankingExporter() {
+    }
+
+    /**
+     * Bloquea hasta terminar; pensado para el hilo de las copias de seguridad.
+     *
+     * @return Número de jugadores exportados
+     */
+    public static int export(PointsStore store, Path target, Format format) throws IOException {
+        try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            int count = switch (format) {
+                case NDJSON -> exportNdjson(store, output);
+                case BINARY -> exportBinary(store, output);
+                case NONE -> throw new IllegalArgumentException("Nothing to export for format NONE");
+            };
+            output.flush();
+            return count;
+        }
+    }
+
+    private static int exportNdjson(PointsStore store, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        int[] rank = {0};
+        int count = await(store.forEachRanked(entry -> {
+            writer.write("{\"rank\":" + (++rank[0]) + ",\"uuid\":\"" + entry.uuid() + "\",\"name\":");
+            writeJsonString(writer, entry.name());
+            writer.write(",\"points\":" + entry.points() + "}\n");
+        }));
+        writer.flush();
+        return count;
+    }
+
+    private static int exportBinary(PointsStore store, OutputStream output) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(BINARY_MAGIC);
+        data.writeInt(BINARY_VERSION);
+        data.writeLong(System.currentTimeMillis());
+        int count = await(store.forEachRanked(entry -> {
+            byte[] name = entry.name() == null ? new byte[0] : entry.name().getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(name.length, 255);
+            data.writeLong(entry.uuid().getMostSignificantBits());
+            data.writeLong(entry.uuid().getLeastSignificantBits());
+            data.writeInt(entry.points());
+            data.writeByte(length);
+            data.write(name, 0, length);
+        }));
+        data.flush();
+        return count;
+    }
+
+    private static void writeJsonString(Writer writer, String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Ranking export failed", cause);
+        }
+    }
+}
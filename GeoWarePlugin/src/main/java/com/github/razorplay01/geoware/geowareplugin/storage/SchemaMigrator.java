@@ -0,0 +1,79 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Aplica en orden las migraciones de esquema pendientes usando {@code PRAGMA user_version} como versión.
+ * Cada migración se ejecuta en su propia transacción junto con el cambio de versión, de modo que una
+ * migración interrumpida se vuelve a intentar completa en el siguiente arranque.
+ */
+public class SchemaMigrator {
+    /**
+     * Paso de migración ejecutado dentro de una transacción.
+     */
+    @FunctionalInterface
+    public interface MigrationStep {
+        void apply(Connection connection) throws SQLException;
+    }
+
+    /**
+     * @param version     Versión de esquema que deja la migración
+     * @param description Descripción para el log
+     * @param step        Cambios a aplicar
+     */
+    public record Migration(int version, String description, MigrationStep step) {
+    }
+
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(Connection connection, List<Migration> migrations) {
+        this.connection = connection;
+        this.migrations = migrations;
+    }
+
+    /**
+     * @return Versión de esquema resultante
+     * @throws SQLException Si alguna migración falla; la transacción de esa migración se revierte
+     */
+    public int migrate() throws SQLException {
+        int current = currentVersion();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (Migration migration : migrations) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                GeoWarePlugin.LOGGER.info("Applying points schema migration {}: {}", migration.version(), migration.description());
+                try {
+                    migration.step().apply(connection);
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("PRAGMA user_version = " + migration.version());
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                current = migration.version();
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    private int currentVersion() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("PRAGMA user_version")) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Puntuación obtenida por un jugador en una partida de un minijuego.
+ *
+ * @param uuid      UUID del jugador
+ * @param name      Nombre del jugador
+ * @param gameId    Identificador del minijuego, {@link #UNKNOWN_GAME} si no se sabe qué juego lo envió
+ * @param points    Puntos obtenidos
+ * @param timestamp Instante del evento en milisegundos desde epoch
+ * @param sessionId Identificador de la partida, 0 si no se conoce
+ */
+public record ScoreEvent(UUID uuid, String name, String gameId, int points, long timestamp, long sessionId) {
+    public static final String UNKNOWN_GAME = "unknown";
+
+    /**
+     * @return Día del evento en la zona horaria del servidor, como días desde epoch
+     */
+    public long epochDay() {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()).toEpochDay();
+    }
+}
@@ -0,0 +1,593 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.metrics.DbStatementEvent;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Backend SQLite: las escrituras pasan por {@link PointsWriter} con commit agrupado y las lecturas por
+ * las conexiones de solo lectura de {@link ConnectionPool}.
+ */
+public class SqlitePointsStore implements PointsStore {
+    private static final String TABLE_NAME = PointsSchema.TABLE_NAME;
+    private static final String POINTS_COLUMN = PointsSchema.POINTS_COLUMN;
+    private static final String INCREMENT_QUERY = "INSERT INTO " + TABLE_NAME + " (uuid, nombre, " + POINTS_COLUMN + ")" +
+            " VALUES (?, ?, max(0, ?)) ON CONFLICT(uuid) DO UPDATE SET nombre = coalesce(excluded.nombre, nombre), " +
+            POINTS_COLUMN + " = max(0, " + POINTS_COLUMN + " + ?) RETURNING " + POINTS_COLUMN;
+    private static final String SELECT_POINTS_QUERY = "SELECT " + POINTS_COLUMN + " FROM " + TABLE_NAME + " WHERE uuid = ?";
+    private static final String SELECT_ALL_QUERY = "SELECT uuid, nombre, " + POINTS_COLUMN + " FROM " + TABLE_NAME;
+    private static final String RANKED_QUERY = SELECT_ALL_QUERY + " ORDER BY " + POINTS_COLUMN + " DESC, uuid";
+    private static final String RANK_QUERY = "SELECT COUNT(*) + 1 FROM " + TABLE_NAME +
+            " WHERE " + POINTS_COLUMN + " > ? OR (" + POINTS_COLUMN + " = ? AND uuid < ?)";
+    private static final String TOP_QUERY = SELECT_ALL_QUERY + " ORDER BY " + POINTS_COLUMN + " DESC, uuid LIMIT ?";
+    private static final String BOTTOM_QUERY = SELECT_ALL_QUERY + " WHERE " + POINTS_COLUMN + " > 0" +
+            " ORDER BY " + POINTS_COLUMN + " ASC, uuid DESC LIMIT ?";
+    private static final String INSERT_EVENT_QUERY = "INSERT INTO " + PointsSchema.EVENTS_TABLE +
+            " (uuid, juego, " + POINTS_COLUMN + ", fecha, sesion) VALUES (?, ?, ?, ?, ?)";
+    private static final String GAME_TOTAL_QUERY = "INSERT INTO " + PointsSchema.GAME_TOTALS_TABLE +
+            " (juego, uuid, nombre, " + POINTS_COLUMN + ", eventos) VALUES (?, ?, ?, ?, 1) ON CONFLICT(juego, uuid)" +
+            " DO UPDATE SET nombre = coalesce(excluded.nombre, nombre), " + POINTS_COLUMN + " = " + POINTS_COLUMN + " + excluded." +
+            POINTS_COLUMN + ", eventos = eventos + 1";
+    private static final String GAME_DAILY_QUERY = "INSERT INTO " + PointsSchema.GAME_DAILY_TABLE +
+            " (juego, dia, " + POINTS_COLUMN + ", eventos) VALUES (?, ?, ?, 1) ON CONFLICT(juego, dia)" +
+            " DO UPDATE SET " + POINTS_COLUMN + " = " + POINTS_COLUMN + " + excluded." + POINTS_COLUMN + ", eventos = eventos + 1";
+    private static final String GAME_TOP_QUERY = "SELECT uuid, nombre, " + POINTS_COLUMN + " FROM " +
+            PointsSchema.GAME_TOTALS_TABLE + " WHERE juego = ? ORDER BY " + POINTS_COLUMN + " DESC, uuid LIMIT ?";
+    private static final String GAME_DAILY_SELECT_QUERY = "SELECT dia, " + POINTS_COLUMN + ", eventos FROM " +
+            PointsSchema.GAME_DAILY_TABLE + " WHERE juego = ? AND dia BETWEEN ? AND ? ORDER BY dia";
+    private static final String WINDOW_INCREMENT_QUERY = "INSERT INTO " + PointsSchema.WINDOW_TABLE +
+            " (ventana, uuid, nombre, " + POINTS_COLUMN + ") VALUES (?, ?, ?, max(0, ?)) ON CONFLICT(ventana, uuid)" +
+            " DO UPDATE SET nombre = coalesce(excluded.nombre, nombre), " + POINTS_COLUMN + " = max(0, " + POINTS_COLUMN + " + ?)" +
+            " RETURNING " + POINTS_COLUMN;
+    private static final String WINDOW_SELECT_QUERY = "SELECT uuid, nombre, " + POINTS_COLUMN + " FROM " +
+            PointsSchema.WINDOW_TABLE + " WHERE ventana = ?";
+    private static final String WINDOW_TOP_QUERY = WINDOW_SELECT_QUERY + " ORDER BY " + POINTS_COLUMN + " DESC, uuid LIMIT ?";
+    /**
+     * Upsert de las operaciones masivas: con multiplicador 1 suma el valor (ADD/SUBTRACT) y con 0 lo
+     * asigna (SET). Un nombre nulo conserva el registrado.
+     */
+    private static final String BULK_QUERY = "INSERT INTO " + TABLE_NAME + " (uuid, nombre, " + POINTS_COLUMN + ")" +
+            " VALUES (?, ?, max(0, ?)) ON CONFLICT(uuid) DO UPDATE SET nombre = coalesce(excluded.nombre, nombre), " +
+            POINTS_COLUMN + " = max(0, " + POINTS_COLUMN + " * ? + ?)";
+    /**
+     * Upsert de las ventanas en las operaciones masivas. Se ejecuta después de {@link #BULK_QUERY}, así que
+     * el total del jugador ya existe y aporta el nombre cuando el cambio no trae uno.
+     */
+    private static final String WINDOW_BULK_QUERY = "INSERT INTO " + PointsSchema.WINDOW_TABLE +
+            " (ventana, uuid, nombre, " + POINTS_COLUMN + ") SELECT ?, uuid, coalesce(?, nombre), max(0, ?) FROM " +
+            TABLE_NAME + " WHERE uuid = ? ON CONFLICT(ventana, uuid) DO UPDATE SET nombre = coalesce(excluded.nombre, nombre), " +
+            POINTS_COLUMN + " = max(0, " + POINTS_COLUMN + " + ?)";
+    private static final String SELECT_ENTRY_QUERY = SELECT_ALL_QUERY + " WHERE uuid = ?";
+    private static final String WINDOW_SELECT_ENTRY_QUERY = WINDOW_SELECT_QUERY + " AND uuid = ?";
+    private static final String VACUUM_INTO_QUERY = "VACUUM INTO ?";
+    private static final String BULK_SAVEPOINT = "SAVEPOINT bulk_points";
+    private static final String BULK_RELEASE = "RELEASE bulk_points";
+    private static final String BULK_ROLLBACK = "ROLLBACK TO bulk_points";
+    private static final String RESET_QUERY = "UPDATE " + TABLE_NAME + " SET " + POINTS_COLUMN + " = 0 WHERE uuid = ?";
+    private static final String RESET_ALL_QUERY = "UPDATE " + TABLE_NAME + " SET " + POINTS_COLUMN + " = 0";
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    @Getter
+    private final ConnectionPool connectionPool;
+
+    /**
+     * Único escritor: todas las escrituras se ejecutan en orden de llegada y se confirman en lotes.
+     */
+    @Getter
+    private final PointsWriter writer;
+    private volatile Listener listener;
+    private volatile Supplier<List<String>> activeWindows = List::of;
+
+    /**
+     * Resultado de una suma o resta: el nuevo total y el nuevo total en cada ventana activa.
+     */
+    private record IncrementResult(int total, List<String> windows, int[] windowTotals) {
+    }
+
+    /**
+     * Resultado de una operación masiva: el total final de cada jugador afectado y, por ventana activa,
+     * el de cada jugador al que se le sumaron o restaron puntos.
+     */
+    private record BulkResult(List<RankIndex.RankEntry> totals, Map<String, List<RankIndex.RankEntry>> windowTotals) {
+    }
+
+    /**
+     * Abre la base de datos, la migra a la última versión del esquema y arranca el escritor.
+     *
+     * @param databaseFile Archivo de la base de datos
+     * @param settings     Parámetros del canal de escritura y de las conexiones de lectura
+     * @throws SQLException Si ocurre un error al conectar con la base de datos o al migrarla
+     */
+    public SqlitePointsStore(File databaseFile, StorageSettings settings) throws SQLException {
+        connectionPool = new ConnectionPool(databaseFile, settings.readerConnections());
+        initializeDatabase();
+        connectionPool.openReaders();
+        writer = new PointsWriter(connectionPool.getWriterConnection(), settings);
+    }
+
+    /**
+     * Configura la conexión y lleva el esquema de la base de datos a la última versión,
+     * migrando en el sitio los archivos existentes.
+     *
+     * @throws SQLException Si ocurre un error al migrar el esquema
+     */
+    private void initializeDatabase() throws SQLException {
+        Connection connection = connectionPool.getWriterConnection();
+        PointsSchema.applyPragmas(connection);
+        int version = new SchemaMigrator(connection, PointsSchema.MIGRATIONS).migrate();
+        GeoWarePlugin.LOGGER.info("Points database schema at version {}", version);
+    }
+
+    @Override
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void setActiveWindows(Supplier<List<String>> activeWindows) {
+        this.activeWindows = activeWindows;
+    }
+
+    @Override
+    public CompletableFuture<Integer> add(UUID uuid, String name, int amount) {
+        return increment(uuid, name, amount);
+    }
+
+    @Override
+    public CompletableFuture<Integer> subtract(UUID uuid, String name, int amount) {
+        return increment(uuid, name, -amount);
+    }
+
+    /**
+     * Suma o resta puntos con un único upsert atómico. El total nunca baja de cero.
+     */
+    private CompletableFuture<Integer> increment(UUID uuid, String name, int delta) {
+        byte[] uuidBytes = UuidCodec.toBytes(uuid);
+        return writer.submit(connection -> {
+            DbStatementEvent event = new DbStatementEvent();
+            event.begin();
+            IncrementResult result = applyIncrement(connection, uuidBytes, name, delta);
+            event.record("increment", 1 + result.windows().size(), uuid, null);
+            return result;
+        }, result -> notifyChanged(uuid, name, result)).thenApply(IncrementResult::total);
+    }
+
+    /**
+     * Registra el evento y actualiza el total y los dos agregados en la misma transacción, de modo que
+     * las clasificaciones por juego nunca necesitan agrupar el historial.
+     */
+    @Override
+    public CompletableFuture<Integer> recordScore(ScoreEvent event) {
+        return writer.submit(connection -> applyScore(connection, event),
+                result -> notifyChanged(event.uuid(), event.name(), result)).thenApply(IncrementResult::total);
+    }
+
+    /**
+     * Todas las puntuaciones van en una sola tarea del escritor, dentro de un savepoint como las
+     * operaciones masivas.
+     */
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> recordScores(List<ScoreEvent> events) {
+        List<ScoreEvent> pending = List.copyOf(events);
+        return writer.submit(connection -> {
+            connection.prepare(BULK_SAVEPOINT).execute();
+            try {
+                List<IncrementResult> results = new ArrayList<>(pending.size());
+                for (ScoreEvent event : pending) {
+                    results.add(applyScore(connection, event));
+                }
+                connection.prepare(BULK_RELEASE).execute();
+                return results;
+            } catch (SQLException e) {
+                connection.prepare(BULK_ROLLBACK).execute();
+                connection.prepare(BULK_RELEASE).execute();
+                throw e;
+            }
+        }, results -> {
+            for (int i = 0; i < pending.size(); i++) {
+                notifyChanged(pending.get(i).uuid(), pending.get(i).name(), results.get(i));
+            }
+        }).thenApply(results -> {
+            List<RankIndex.RankEntry> totals = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                ScoreEvent event = pending.get(i);
+                totals.add(new RankIndex.RankEntry(event.uuid(), event.name(), results.get(i).total()));
+            }
+            return totals;
+        });
+    }
+
+    /**
+     * Se ejecuta dentro de la transacción o el savepoint de quien la llama.
+     */
+    private IncrementResult applyScore(CachedConnection connection, ScoreEvent event) throws SQLException {
+        DbStatementEvent statementEvent = new DbStatementEvent();
+        statementEvent.begin();
+        byte[] uuidBytes = UuidCodec.toBytes(event.uuid());
+        IncrementResult result = applyIncrement(connection, uuidBytes, event.name(), event.points());
+
+        PreparedStatement insertEvent = connection.prepare(INSERT_EVENT_QUERY);
+        insertEvent.setBytes(1, uuidBytes);
+        insertEvent.setString(2, event.gameId());
+        insertEvent.setInt(3, event.points());
+        insertEvent.setLong(4, event.timestamp());
+        insertEvent.setLong(5, event.sessionId());
+        insertEvent.executeUpdate();
+
+        PreparedStatement gameTotal = connection.prepare(GAME_TOTAL_QUERY);
+        gameTotal.setString(1, event.gameId());
+        gameTotal.setBytes(2, uuidBytes);
+        gameTotal.setString(3, event.name());
+        gameTotal.setInt(4, event.points());
+        gameTotal.executeUpdate();
+
+        PreparedStatement gameDaily = connection.prepare(GAME_DAILY_QUERY);
+        gameDaily.setString(1, event.gameId());
+        gameDaily.setLong(2, event.epochDay());
+        gameDaily.setInt(3, event.points());
+        gameDaily.executeUpdate();
+        // Total, ventanas activas, historial y los dos agregados
+        statementEvent.record("score", 4 + result.windows().size(), event.uuid(), event.gameId());
+        return result;
+    }
+
+    /**
+     * Aplica el cambio al total y a cada ventana activa en el momento de ejecutarse la escritura. Si falla
+     * alguna ventana, el savepoint de la escritura en {@link PointsWriter} deshace también el total.
+     */
+    private IncrementResult applyIncrement(CachedConnection connection, byte[] uuidBytes, String name, int delta) throws SQLException {
+        int total = upsert(connection.prepare(INCREMENT_QUERY), 1, uuidBytes, name, delta);
+        List<String> windows = activeWindows.get();
+        int[] windowTotals = new int[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            PreparedStatement statement = connection.prepare(WINDOW_INCREMENT_QUERY);
+            statement.setString(1, windows.get(i));
+            windowTotals[i] = upsert(statement, 2, uuidBytes, name, delta);
+        }
+        return new IncrementResult(total, windows, windowTotals);
+    }
+
+    private static int upsert(PreparedStatement statement, int firstIndex, byte[] uuidBytes, String name, int delta) throws SQLException {
+        statement.setBytes(firstIndex, uuidBytes);
+        statement.setString(firstIndex + 1, name);
+        statement.setInt(firstIndex + 2, delta);
+        statement.setInt(firstIndex + 3, delta);
+        try (ResultSet updated = statement.executeQuery()) {
+            updated.next();
+            return updated.getInt(POINTS_COLUMN);
+        }
+    }
+
+    private void notifyChanged(UUID uuid, String name, IncrementResult result) {
+        Listener current = listener;
+        if (current == null) {
+            return;
+        }
+        for (int i = 0; i < result.windows().size(); i++) {
+            current.onWindowPointsChanged(result.windows().get(i), uuid, name, result.windowTotals()[i]);
+        }
+        current.onPointsChanged(uuid, name, result.total());
+    }
+
+    private void notifyChanged(UUID uuid, String name, int points) {
+        Listener current = listener;
+        if (current != null) {
+            current.onPointsChanged(uuid, name, points);
+        }
+    }
+
+    /**
+     * Envía todos los cambios al escritor como una sola tarea con sentencias en lote. La tarea va dentro de
+     * un savepoint para que un fallo a mitad no deje aplicada solo una parte en el lote confirmado.
+     */
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> applyBulk(List<BulkChange> changes) {
+        List<BulkChange> pending = List.copyOf(changes);
+        return writer.submit(connection -> {
+            DbStatementEvent event = new DbStatementEvent();
+            event.begin();
+            connection.prepare(BULK_SAVEPOINT).execute();
+            try {
+                BulkResult result = applyBulk(connection, pending);
+                event.record("bulk", pending.size(), pending.size() == 1 ? pending.get(0).uuid() : null, null);
+                connection.prepare(BULK_RELEASE).execute();
+                return result;
+            } catch (SQLException e) {
+                connection.prepare(BULK_QUERY).clearBatch();
+                connection.prepare(WINDOW_BULK_QUERY).clearBatch();
+                connection.prepare(BULK_ROLLBACK).execute();
+                connection.prepare(BULK_RELEASE).execute();
+                throw e;
+            }
+        }, this::notifyBulk).thenApply(BulkResult::totals);
+    }
+
+    private BulkResult applyBulk(CachedConnection connection, List<BulkChange> changes) throws SQLException {
+        Set<UUID> affected = new LinkedHashSet<>();
+        Set<UUID> incremented = new LinkedHashSet<>();
+        PreparedStatement upsert = connection.prepare(BULK_QUERY);
+        for (BulkChange change : changes) {
+            boolean set = change.operation() == BulkChange.Operation.SET;
+            int value = set ? change.amount() : change.delta();
+            upsert.setBytes(1, UuidCodec.toBytes(change.uuid()));
+            upsert.setString(2, change.name());
+            upsert.setInt(3, value);
+            upsert.setInt(4, set ? 0 : 1);
+            upsert.setInt(5, value);
+            upsert.addBatch();
+            affected.add(change.uuid());
+            if (!set) {
+                incremented.add(change.uuid());
+            }
+        }
+        upsert.executeBatch();
+
+        List<String> windows = incremented.isEmpty() ? List.of() : activeWindows.get();
+        if (!windows.isEmpty()) {
+            PreparedStatement windowUpsert = connection.prepare(WINDOW_BULK_QUERY);
+            for (String window : windows) {
+                for (BulkChange change : changes) {
+                    if (change.operation() == BulkChange.Operation.SET) {
+                        continue;
+                    }
+                    windowUpsert.setString(1, window);
+                    windowUpsert.setString(2, change.name());
+                    windowUpsert.setInt(3, change.delta());
+                    windowUpsert.setBytes(4, UuidCodec.toBytes(change.uuid()));
+                    windowUpsert.setInt(5, change.delta());
+                    windowUpsert.addBatch();
+                }
+            }
+            windowUpsert.executeBatch();
+        }
+
+        List<RankIndex.RankEntry> totals = new ArrayList<>(affected.size());
+        PreparedStatement selectEntry = connection.prepare(SELECT_ENTRY_QUERY);
+        for (UUID uuid : affected) {
+            selectEntry.setBytes(1, UuidCodec.toBytes(uuid));
+            totals.addAll(readEntries(selectEntry, -1));
+        }
+        Map<String, List<RankIndex.RankEntry>> windowTotals = new LinkedHashMap<>();
+        PreparedStatement selectWindowEntry = connection.prepare(WINDOW_SELECT_ENTRY_QUERY);
+        for (String window : windows) {
+            List<RankIndex.RankEntry> entries = new ArrayList<>(incremented.size());
+            for (UUID uuid : incremented) {
+                selectWindowEntry.setString(1, window);
+                selectWindowEntry.setBytes(2, UuidCodec.toBytes(uuid));
+                entries.addAll(readEntries(selectWindowEntry, -1));
+            }
+            windowTotals.put(window, entries);
+        }
+        return new BulkResult(totals, windowTotals);
+    }
+
+    private void notifyBulk(BulkResult result) {
+        Listener current = listener;
+        if (current == null) {
+            return;
+        }
+        result.windowTotals().forEach((window, entries) -> entries.forEach(entry ->
+                current.onWindowPointsChanged(window, entry.uuid(), entry.name(), entry.points())));
+        for (RankIndex.RankEntry entry : result.totals()) {
+            current.onPointsChanged(entry.uuid(), entry.name(), entry.points());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> reset(UUID uuid) {
+        byte[] uuidBytes = UuidCodec.toBytes(uuid);
+        return writer.submit(connection -> {
+            DbStatementEvent event = new DbStatementEvent();
+            event.begin();
+            PreparedStatement statement = connection.prepare(RESET_QUERY);
+            statement.setBytes(1, uuidBytes);
+            int updated = statement.executeUpdate();
+            event.record("reset", updated, uuid, null);
+            return updated;
+        }, updated -> {
+            if (updated > 0) {
+                notifyChanged(uuid, null, 0);
+            }
+        }).thenApply(updated -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> resetAll() {
+        return writer.submit(connection -> {
+            DbStatementEvent event = new DbStatementEvent();
+            event.begin();
+            int updated = connection.prepare(RESET_ALL_QUERY).executeUpdate();
+            event.record("reset-all", updated, null, null);
+            return updated;
+        }, updated -> {
+            Listener current = listener;
+            if (current != null) {
+                current.onAllPointsReset();
+            }
+        }).thenApply(updated -> null);
+    }
+
+    @Override
+    public CompletableFuture<Integer> get(UUID uuid) {
+        byte[] uuidBytes = UuidCodec.toBytes(uuid);
+        return connectionPool.readAsync(reader -> {
+            PreparedStatement statement = reader.prepare(SELECT_POINTS_QUERY);
+            statement.setBytes(1, uuidBytes);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getInt(POINTS_COLUMN) : 0;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> rank(UUID uuid) {
+        byte[] uuidBytes = UuidCodec.toBytes(uuid);
+        return connectionPool.readAsync(reader -> {
+            PreparedStatement select = reader.prepare(SELECT_POINTS_QUERY);
+            select.setBytes(1, uuidBytes);
+            int points;
+            try (ResultSet result = select.executeQuery()) {
+                if (!result.next()) {
+                    return 0;
+                }
+                points = result.getInt(POINTS_COLUMN);
+            }
+            PreparedStatement count = reader.prepare(RANK_QUERY);
+            count.setInt(1, points);
+            count.setInt(2, points);
+            count.setBytes(3, uuidBytes);
+            try (ResultSet result = count.executeQuery()) {
+                result.next();
+                return result.getInt(1);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> top(int limit) {
+        return connectionPool.readAsync(reader -> readEntries(reader.prepare(TOP_QUERY), limit));
+    }
+
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> bottom(int limit) {
+        return connectionPool.readAsync(reader -> readEntries(reader.prepare(BOTTOM_QUERY), limit));
+    }
+
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> gameTop(String gameId, int limit) {
+        return connectionPool.readAsync(reader -> {
+            PreparedStatement statement = reader.prepare(GAME_TOP_QUERY);
+            statement.setString(1, gameId);
+            statement.setInt(2, limit);
+            return readEntries(statement, -1);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<GameDailyTotal>> gameDaily(String gameId, long fromEpochDay, long toEpochDay) {
+        return connectionPool.readAsync(reader -> {
+            PreparedStatement statement = reader.prepare(GAME_DAILY_SELECT_QUERY);
+            statement.setString(1, gameId);
+            statement.setLong(2, fromEpochDay);
+            statement.setLong(3, toEpochDay);
+            List<GameDailyTotal> totals = new ArrayList<>();
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    totals.add(new GameDailyTotal(gameId, result.getLong("dia"), result.getLong(POINTS_COLUMN), result.getInt("eventos")));
+                }
+            }
+            return totals;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<RankIndex.RankEntry>> windowTop(String window, int limit) {
+        return connectionPool.readAsync(reader -> {
+            PreparedStatement statement = reader.prepare(WINDOW_TOP_QUERY);
+            statement.setString(1, window);
+            statement.setInt(2, limit);
+            return readEntries(statement, -1);
+        });
+    }
+
+    @Override
+    public List<RankIndex.RankEntry> loadWindow(String window) throws SQLException {
+        return connectionPool.read(reader -> {
+            PreparedStatement statement = reader.prepare(WINDOW_SELECT_QUERY);
+            statement.setString(1, window);
+            return readEntries(statement, -1);
+        });
+    }
+
+    @Override
+    public List<RankIndex.RankEntry> loadAll() throws SQLException {
+        return connectionPool.read(reader -> readEntries(reader.prepare(SELECT_ALL_QUERY), -1));
+    }
+
+    /**
+     * Copia la base de datos con {@code VACUUM INTO} desde una conexión de lectura: en modo WAL la copia es
+     * una instantánea coherente y el escritor sigue confirmando lotes mientras tanto. La conexión se abrió
+     * en solo lectura, así que desactivar {@code query_only} solo permite escribir el archivo de destino.
+     */
+    @Override
+    public CompletableFuture<Void> backup(Path target) {
+        String destination = target.toAbsolutePath().toString();
+        return connectionPool.readAsync(reader -> {
+            try (Statement statement = reader.getConnection().createStatement()) {
+                statement.execute("PRAGMA query_only = false");
+                try {
+                    PreparedStatement vacuum = reader.prepare(VACUUM_INTO_QUERY);
+                    vacuum.setString(1, destination);
+                    vacuum.execute();
+                } finally {
+                    statement.execute("PRAGMA query_only = true");
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Recorre el índice del ranking con un cursor en una conexión de lectura, sin materializar la tabla.
+     */
+    @Override
+    public CompletableFuture<Integer> forEachRanked(RankedEntryConsumer consumer) {
+        return connectionPool.readAsync(reader -> {
+            int count = 0;
+            try (ResultSet result = reader.prepare(RANKED_QUERY).executeQuery()) {
+                while (result.next()) {
+                    consumer.accept(new RankIndex.RankEntry(UuidCodec.fromBytes(result.getBytes("uuid")),
+                            result.getString("nombre"), result.getInt(POINTS_COLUMN)));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+    }
+
+    private static List<RankIndex.RankEntry> readEntries(PreparedStatement statement, int limit) throws SQLException {
+        if (limit >= 0) {
+            statement.setInt(1, limit);
+        }
+        List<RankIndex.RankEntry> entries = new ArrayList<>();
+        try (ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                entries.add(new RankIndex.RankEntry(UuidCodec.fromBytes(result.getBytes("uuid")),
+                        result.getString("nombre"), result.getInt(POINTS_COLUMN)));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Confirma las escrituras pendientes y cierra las conexiones de manera segura.
+     */
+    @Override
+    public void close() {
+        if (!writer.shutdown(SHUTDOWN_TIMEOUT_MS)) {
+            GeoWarePlugin.LOGGER.warn("Points writer did not flush {} pending writes in time", writer.getQueueDepth());
+        }
+        connectionPool.close();
+    }
+}
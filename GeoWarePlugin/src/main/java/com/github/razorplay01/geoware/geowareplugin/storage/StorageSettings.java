@@ -0,0 +1,41 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Locale;
+
+/**
+ * Parámetros del almacenamiento de puntos leídos de la sección {@code storage} del config.yml.
+ *
+ * @param backend           Implementación de {@link PointsStore} a usar
+ * @param batchIntervalMs   Tiempo máximo que una escritura espera antes de confirmarse junto a otras
+ * @param batchMaxEntries   Número máximo de escrituras por transacción
+ * @param queueCapacity     Capacidad de la cola de escrituras pendientes
+ * @param readerConnections Número de conexiones de solo lectura
+ */
+public record StorageSettings(PointsStore.Backend backend, long batchIntervalMs, int batchMaxEntries,
+                              int queueCapacity, int readerConnections) {
+    public static final StorageSettings DEFAULTS = new StorageSettings(PointsStore.Backend.SQLITE, 50, 500, 10_000, 2);
+
+    public static StorageSettings fromConfig(ConfigurationSection section) {
+        if (section == null) {
+            return DEFAULTS;
+        }
+        return new StorageSettings(
+                parseBackend(section.getString("backend", DEFAULTS.backend().name())),
+                Math.max(1, section.getLong("batch-interval-ms", DEFAULTS.batchIntervalMs())),
+                Math.max(1, section.getInt("batch-max-entries", DEFAULTS.batchMaxEntries())),
+                Math.max(1, section.getInt("queue-capacity", DEFAULTS.queueCapacity())),
+                Math.max(1, section.getInt("reader-connections", DEFAULTS.readerConnections())));
+    }
+
+    private static PointsStore.Backend parseBackend(String value) {
+        try {
+            return PointsStore.Backend.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            GeoWarePlugin.LOGGER.warn("Unknown storage backend '{}', using {}", value, DEFAULTS.backend());
+            return DEFAULTS.backend();
+        }
+    }
+}
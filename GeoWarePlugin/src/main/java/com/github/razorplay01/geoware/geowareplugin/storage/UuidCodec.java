@@ -0,0 +1,25 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversión entre {@link UUID} y su representación compacta de 16 bytes usada como clave en SQLite.
+ */
+public final class UuidCodec {
+    private UuidCodec() {
+        //[]
+    }
+
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import com.github.razorplay01.geoware.geowareplugin.GeoWarePlugin;
+import com.github.razorplay01.geoware.geowareplugin.season.SeasonManager;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rankings por ventana de tiempo (día, semana ISO y temporada) mantenidos de forma incremental.
+ * <p>
+ * Cada escritura suma también en las ventanas activas ({@link #activeWindows()}), y cada ventana activa
+ * tiene su propio {@link RankIndex}. Cambiar de día, de semana o de temporada no recorre el historial:
+ * basta con empezar a escribir en una clave nueva con un índice vacío. Las ventanas pasadas siguen en el
+ * backend y se consultan con {@link PointsStore#windowTop(String, int)}.
+ */
+public class WindowedRankings {
+    public static final String DAILY_PREFIX = "d:";
+    public static final String WEEKLY_PREFIX = "w:";
+    public static final String SEASON_PREFIX = "s:";
+
+    /**
+     * Claves del día y la semana actuales, válidas hasta la próxima medianoche local.
+     */
+    private record CalendarKeys(String daily, String weekly, long validUntil) {
+    }
+
+    private final PointsStore store;
+    private final SeasonManager seasons;
+    private final Map<String, RankIndex> indices = new ConcurrentHashMap<>();
+    private volatile CalendarKeys calendarKeys;
+
+    /**
+     * Carga desde el backend los índices de las ventanas activas.
+     *
+     * @throws SQLException Si ocurre un error al leer la base de datos
+     * @throws IOException  Si ocurre un error al leer el diario de puntos
+     */
+    public WindowedRankings(PointsStore store, SeasonManager seasons) throws SQLException, IOException {
+        this.store = store;
+        this.seasons = seasons;
+        this.calendarKeys = computeCalendarKeys();
+        for (String window : activeWindows()) {
+            RankIndex index = new RankIndex();
+            for (RankIndex.RankEntry entry : store.loadWindow(window)) {
+                index.update(entry.uuid(), entry.name(), entry.points());
+            }
+            indices.put(window, index);
+        }
+        GeoWarePlugin.LOGGER.info("Loaded {} active leaderboard windows", indices.size());
+    }
+
+    public static String dailyKey(LocalDate date) {
+        return DAILY_PREFIX + date.toEpochDay();
+    }
+
+    public static String weeklyKey(LocalDate date) {
+        return WEEKLY_PREFIX + date.get(IsoFields.WEEK_BASED_YEAR) + "-" + date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+
+    public static String seasonKey(String seasonId) {
+        return SEASON_PREFIX + seasonId.toLowerCase(Locale.ROOT);
+    }
+
+    private static CalendarKeys computeCalendarKeys() {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        long nextMidnight = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new CalendarKeys(dailyKey(today), weeklyKey(today), nextMidnight);
+    }
+
+    /**
+     * Ventanas en las que suma cada escritura. Lo llama el backend al aplicar cada cambio, así que el
+     * caso habitual solo lee campos ya calculados.
+     *
+     * @return Claves del día, de la semana y, si hay una activa, de la temporada
+     */
+    public List<String> activeWindows() {
+        CalendarKeys keys = calendarKeys;
+        if (System.currentTimeMillis() >= keys.validUntil()) {
+            keys = rollCalendar();
+        }
+        SeasonManager.Season season = seasons.getActive();
+        return season == null
+                ? List.of(keys.daily(), keys.weekly())
+                : List.of(keys.daily(), keys.weekly(), seasonKey(season.id()));
+    }
+
+    private synchronized CalendarKeys rollCalendar() {
+        CalendarKeys keys = calendarKeys;
+        if (System.currentTimeMillis() >= keys.validUntil()) {
+            keys = computeCalendarKeys();
+            calendarKeys = keys;
+            pruneInactive();
+        }
+        return keys;
+    }
+
+    /**
+     * Actualiza el índice de una ventana tras un cambio confirmado en el backend.
+     */
+    public void onWindowPointsChanged(String window, UUID uuid, String name, int points) {
+        RankIndex index = indices.get(window);
+        if (index == null) {
+            index = createIndexIfActive(window);
+            if (index == null) {
+                return;
+            }
+        }
+        index.update(uuid, name, points);
+    }
+
+    private synchronized RankIndex createIndexIfActive(String window) {
+        if (!activeWindows().contains(window)) {
+            return null;
+        }
+        return indices.computeIfAbsent(window, key -> new RankIndex());
+    }
+
+    /**
+     * Empieza una temporada nueva con un índice vacío; la anterior queda cerrada y consultable en el backend.
+     *
+     * @return La temporada terminada, o null si no había ninguna activa
+     */
+    public synchronized SeasonManager.Season startSeason(String seasonId) {
+        SeasonManager.Season previous = seasons.start(seasonId);
+        indices.put(seasonKey(seasonId), new RankIndex());
+        pruneInactive();
+        return previous;
+    }
+
+    /**
+     * @return La temporada terminada, o null si no había ninguna activa
+     */
+    public synchronized SeasonManager.Season endSeason() {
+        SeasonManager.Season previous = seasons.end();
+        pruneInactive();
+        return previous;
+    }
+
+    private void pruneInactive() {
+        indices.keySet().retainAll(activeWindows());
+    }
+
+    /**
+     * Los jugadores con más puntos en una ventana: desde memoria si está activa y desde el backend si no.
+     */
+    public CompletableFuture<List<RankIndex.RankEntry>> top(String window, int limit) {
+        RankIndex index = indices.get(window);
+        if (index != null) {
+            return CompletableFuture.completedFuture(index.top(limit));
+        }
+        return store.windowTop(window, limit);
+    }
+
+    /**
+     * Traduce el nombre de una ventana escrito por un usuario a su clave.
+     *
+     * @param name {@code daily}, {@code weekly}, {@code season} (la activa) o {@code season:<id>}
+     * @return La clave de la ventana, o null si el nombre no es válido o no hay temporada activa
+     */
+    public String resolve(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        if (lower.equals("daily")) {
+            return activeWindows().get(0);
+        }
+        if (lower.equals("weekly")) {
+            return activeWindows().get(1);
+        }
+        if (lower.equals("season")) {
+            SeasonManager.Season season = seasons.getActive();
+            return season == null ? null : seasonKey(season.id());
+        }
+        if (lower.startsWith("season:")) {
+            return seasons.find(name.substring("season:".length())).map(season -> seasonKey(season.id())).orElse(null);
+        }
+        return null;
+    }
+}
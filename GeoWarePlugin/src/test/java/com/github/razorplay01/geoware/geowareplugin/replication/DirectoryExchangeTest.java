@@ -0,0 +1,95 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectoryExchangeTest {
+    private static final UUID PLAYER = UUID.fromString("6f1c7a52-3b7e-4b8e-9d2a-0c5e8f1a2b3c");
+
+    @TempDir
+    Path root;
+
+    @Test
+    void gapIsRecoveredFromSnapshot() throws IOException {
+        DirectoryExchange writer = new DirectoryExchange(root, "a");
+        DirectoryExchange reader = new DirectoryExchange(root, "b");
+        writer.restoreOwn(delta -> {
+        });
+        reader.restoreOwn(delta -> {
+        });
+        PnCounter seen = new PnCounter();
+
+        writer.publish(delta(1, 5, 0));
+        assertEquals(1, reader.poll(delta -> merge(seen, delta)));
+        assertEquals(5, seen.value());
+
+        // Los ficheros 2 y 3 se compactan antes de que el lector los vea
+        writer.publish(delta(2, 8, 0));
+        writer.publish(delta(3, 8, 2));
+        writer.compact(delta(3, 8, 2));
+        writer.publish(delta(4, 12, 2));
+
+        assertEquals(2, reader.poll(delta -> merge(seen, delta)));
+        assertEquals(10, seen.value());
+        assertEquals(0, reader.poll(delta -> merge(seen, delta)));
+    }
+
+    @Test
+    void replacedSnapshotIsReadAgain() throws IOException {
+        DirectoryExchange writer = new DirectoryExchange(root, "a");
+        DirectoryExchange reader = new DirectoryExchange(root, "b");
+        writer.restoreOwn(delta -> {
+        });
+        reader.restoreOwn(delta -> {
+        });
+        PnCounter seen = new PnCounter();
+
+        writer.publish(delta(1, 5, 0));
+        writer.compact(delta(1, 5, 0));
+        assertEquals(1, reader.poll(delta -> merge(seen, delta)));
+        assertEquals(5, seen.value());
+
+        // Misma secuencia y ningún fichero nuevo: solo la instantánea delata el cambio
+        writer.compact(delta(1, 9, 1));
+        Path snapshot = root.resolve("a").resolve("snapshot.delta");
+        FileTime written = Files.getLastModifiedTime(snapshot);
+        Files.setLastModifiedTime(snapshot, FileTime.fromMillis(written.toMillis() + 2_000));
+
+        assertEquals(1, reader.poll(delta -> merge(seen, delta)));
+        assertEquals(8, seen.value());
+        assertEquals(0, reader.poll(delta -> merge(seen, delta)));
+    }
+
+    @Test
+    void nodeFolderCanOnlyBeLockedOnce() throws IOException {
+        DirectoryExchange first = new DirectoryExchange(root, "a");
+        DirectoryExchange second = new DirectoryExchange(root, "a");
+
+        assertTrue(first.lock());
+        assertFalse(second.lock());
+        first.unlock();
+        assertTrue(second.lock());
+        second.unlock();
+    }
+
+    private static Delta delta(long sequence, long positive, long negative) {
+        return new Delta("a", sequence, List.of(new Delta.Entry(PLAYER, "Steve", 1, positive, negative)));
+    }
+
+    private static void merge(PnCounter counter, Delta delta) {
+        for (Delta.Entry entry : delta.entries()) {
+            counter.merge(delta.node(), entry.positive(), entry.negative());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class PnCounterTest {
+    private record State(String node, long positive, long negative) {
+    }
+
+    @Test
+    void mergeIsIdempotent() {
+        PnCounter counter = new PnCounter();
+        counter.merge("a", 10, 3);
+        counter.merge("b", 4, 0);
+
+        assertFalse(counter.merge("a", 10, 3));
+        assertFalse(counter.merge("b", 4, 0));
+        // Un estado más antiguo del mismo servidor tampoco cambia nada
+        assertFalse(counter.merge("a", 8, 1));
+        assertEquals(11, counter.value());
+        assertEquals(7, counter.valueOf("a"));
+    }
+
+    @Test
+    void mergeDoesNotDependOnOrder() {
+        Random random = new Random(7);
+        List<State> states = new ArrayList<>();
+        for (String node : List.of("a", "b", "c")) {
+            long positive = 0;
+            long negative = 0;
+            // Estados sucesivos de cada servidor: sus dos contadores solo crecen
+            for (int i = 0; i < 20; i++) {
+                positive += random.nextInt(50);
+                negative += random.nextInt(30);
+                states.add(new State(node, positive, negative));
+            }
+        }
+
+        PnCounter reference = apply(states);
+        for (int round = 0; round < 50; round++) {
+            List<State> shuffled = new ArrayList<>(states);
+            Collections.shuffle(shuffled, random);
+            // Con repeticiones, como cuando un fichero se vuelve a leer tras una instantánea
+            shuffled.addAll(shuffled.subList(0, 10));
+            PnCounter counter = apply(shuffled);
+
+            assertEquals(reference.value(), counter.value());
+            for (String node : List.of("a", "b", "c")) {
+                assertEquals(reference.positive(node), counter.positive(node));
+                assertEquals(reference.negative(node), counter.negative(node));
+            }
+        }
+    }
+
+    private static PnCounter apply(List<State> states) {
+        PnCounter counter = new PnCounter();
+        for (State state : states) {
+            counter.merge(state.node(), state.positive(), state.negative());
+        }
+        return counter;
+    }
+}
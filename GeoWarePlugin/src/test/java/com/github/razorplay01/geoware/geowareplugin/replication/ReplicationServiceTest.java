@@ -0,0 +1,115 @@
+package com.github.razorplay01.geoware.geowareplugin.replication;
+
+import com.github.razorplay01.geoware.geowareplugin.storage.RankIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos servidores que comparten carpeta deben acabar con el mismo ranking de red.
+ */
+class ReplicationServiceTest {
+    private static final UUID ALEX = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID STEVE = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID NOTCH = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @TempDir
+    Path folder;
+    private final RankIndex firstLocal = new RankIndex();
+    private final RankIndex secondLocal = new RankIndex();
+    private ReplicationService first;
+    private ReplicationService second;
+
+    @AfterEach
+    void shutdown() {
+        if (first != null) {
+            first.shutdown();
+        }
+        if (second != null) {
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void twoNodesConvergeOnTheSameRanking() throws InterruptedException {
+        first = start("a", firstLocal);
+        second = start("b", secondLocal);
+
+        change(first, firstLocal, ALEX, "Alex", 10);
+        change(second, secondLocal, ALEX, "Alex", 5);
+        change(first, firstLocal, STEVE, "Steve", 7);
+        change(second, secondLocal, NOTCH, "Notch", 20);
+        // Una bajada local también se replica
+        change(first, firstLocal, ALEX, "Alex", 4);
+
+        List<RankIndex.RankEntry> expected = List.of(
+                new RankIndex.RankEntry(NOTCH, "Notch", 20),
+                new RankIndex.RankEntry(ALEX, "Alex", 9),
+                new RankIndex.RankEntry(STEVE, "Steve", 7));
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline
+                && !(expected.equals(first.getNetworkIndex().top(10)) && expected.equals(second.getNetworkIndex().top(10)))) {
+            Thread.sleep(100);
+        }
+
+        for (ReplicationService node : List.of(first, second)) {
+            RankIndex network = node.getNetworkIndex();
+            assertEquals(expected, network.top(10));
+            assertEquals(1, network.rankOf(NOTCH));
+            assertEquals(2, network.rankOf(ALEX));
+            assertEquals(3, network.rankOf(STEVE));
+            assertEquals(1, node.getKnownNodes());
+        }
+    }
+
+    @Test
+    void emptyNameFromAnotherNodeIsIgnored() throws IOException, InterruptedException {
+        first = start("a", firstLocal);
+        DirectoryExchange other = new DirectoryExchange(folder.resolve("replication"), "b");
+        other.restoreOwn(delta -> {
+        });
+
+        // El otro servidor aún no conoce el nombre del jugador
+        other.publish(new Delta("b", 1, List.of(new Delta.Entry(STEVE, "", 0, 5, 0))));
+        awaitPoints(STEVE, 5);
+        assertNull(first.getNetworkIndex().top(1).get(0).name());
+
+        other.publish(new Delta("b", 2, List.of(new Delta.Entry(STEVE, "Steve", 1, 5, 0))));
+        other.publish(new Delta("b", 3, List.of(new Delta.Entry(STEVE, "", 0, 8, 0))));
+        awaitPoints(STEVE, 8);
+        assertEquals(List.of(new RankIndex.RankEntry(STEVE, "Steve", 8)), first.getNetworkIndex().top(10));
+    }
+
+    private void awaitPoints(UUID uuid, int points) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline && first.getNetworkIndex().pointsOf(uuid) != points) {
+            Thread.sleep(100);
+        }
+        assertEquals(points, first.getNetworkIndex().pointsOf(uuid));
+    }
+
+    private ReplicationService start(String node, RankIndex local) {
+        ReplicationSettings settings = new ReplicationSettings(true, node, "replication", 1, 120);
+        ReplicationService service = new ReplicationService(settings, folder.toFile());
+        assertTrue(service.lockNode());
+        service.start(local);
+        return service;
+    }
+
+    /**
+     * Confirma un cambio en el backend local como lo hace PointsManager: primero el índice y luego el aviso.
+     */
+    private static void change(ReplicationService service, RankIndex local, UUID uuid, String name, int points) {
+        local.update(uuid, name, points);
+        service.onPointsChanged(uuid, name, points);
+    }
+}
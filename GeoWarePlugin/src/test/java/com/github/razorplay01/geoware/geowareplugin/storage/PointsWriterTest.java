@@ -0,0 +1,94 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointsWriterTest {
+    private PointsWriter writer;
+
+    @AfterEach
+    void shutdown() {
+        if (writer != null) {
+            writer.shutdown(5_000);
+        }
+    }
+
+    @Test
+    void failedWriteIsUndoneWithoutLosingTheRestOfTheBatch() throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        connection.createStatement().execute("CREATE TABLE t (x INTEGER)");
+        writer = new PointsWriter(connection, StorageSettings.DEFAULTS);
+
+        CompletableFuture<Integer> first = writer.submit(c -> c.prepare("INSERT INTO t VALUES (1)").executeUpdate());
+        CompletableFuture<Integer> sqlFailure = writer.submit(c -> {
+            c.prepare("INSERT INTO t VALUES (2)").executeUpdate();
+            throw new SQLException("second statement failed");
+        });
+        CompletableFuture<Integer> runtimeFailure = writer.submit(c -> {
+            c.prepare("INSERT INTO t VALUES (3)").executeUpdate();
+            throw new IllegalStateException("task bug");
+        });
+        CompletableFuture<Integer> last = writer.submit(c -> c.prepare("INSERT INTO t VALUES (4)").executeUpdate());
+
+        first.join();
+        last.join();
+        assertTrue(sqlFailure.isCompletedExceptionally());
+        assertTrue(runtimeFailure.isCompletedExceptionally());
+        String rows = writer.submit(c -> {
+            try (ResultSet result = c.prepare("SELECT group_concat(x) FROM (SELECT x FROM t ORDER BY x)").executeQuery()) {
+                result.next();
+                return result.getString(1);
+            }
+        }).join();
+        assertEquals("1,4", rows);
+        assertEquals(2, writer.getFailedWrites());
+    }
+
+    @Test
+    void producerWaitingOnFullQueueIsReleasedAtShutdown() throws Exception {
+        Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        writer = new PointsWriter(connection, new StorageSettings(PointsStore.Backend.SQLITE, 1, 1, 1, 1));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // La primera escritura ocupa al escritor y la segunda llena la cola
+        CompletableFuture<Integer> busy = writer.submit(c -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        running.await();
+        CompletableFuture<Integer> queued = writer.submit(c -> 2);
+
+        AtomicReference<CompletableFuture<Integer>> blocked = new AtomicReference<>();
+        Thread producer = new Thread(() -> blocked.set(writer.submit(c -> 3)));
+        producer.start();
+        Thread.sleep(200);
+        assertTrue(producer.isAlive());
+
+        assertFalse(writer.shutdown(1));
+        producer.join(2_000);
+        assertFalse(producer.isAlive());
+        assertTrue(blocked.get().isCompletedExceptionally());
+
+        release.countDown();
+        assertEquals(1, busy.join());
+        assertEquals(2, queued.join());
+    }
+}
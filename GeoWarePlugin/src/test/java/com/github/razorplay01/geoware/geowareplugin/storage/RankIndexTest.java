@@ -0,0 +1,109 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compara el treap con una lista ordenada como la consulta SQL: puntos descendente y, a igualdad, el UUID
+ * como bytes sin signo.
+ */
+class RankIndexTest {
+    private static final Comparator<Map.Entry<UUID, Integer>> SQL_ORDER =
+            Comparator.<Map.Entry<UUID, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                    .thenComparing((a, b) -> Arrays.compareUnsigned(UuidCodec.toBytes(a.getKey()), UuidCodec.toBytes(b.getKey())));
+
+    @Test
+    void randomUpdatesAndResetsMatchSortedList() {
+        Random random = new Random(42);
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            // Bits altos aleatorios para que haya UUID "negativos" como long y se note el orden sin signo
+            players.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        RankIndex index = new RankIndex();
+        Map<UUID, Integer> expected = new HashMap<>();
+
+        for (int step = 0; step < 5_000; step++) {
+            if (random.nextInt(1_000) == 0) {
+                index.resetAll();
+                expected.replaceAll((uuid, points) -> 0);
+            } else {
+                UUID uuid = players.get(random.nextInt(players.size()));
+                // Pocos valores distintos para forzar empates, y ceros frecuentes
+                int points = random.nextInt(4) == 0 ? 0 : random.nextInt(30);
+                index.update(uuid, random.nextBoolean() ? "p" + step : null, points);
+                expected.put(uuid, points);
+            }
+            if (step % 50 == 0) {
+                assertMatches(index, expected, players);
+            }
+        }
+        assertMatches(index, expected, players);
+    }
+
+    @Test
+    void resetAllKeepsPlayersAtZeroOrderedByUuid() {
+        RankIndex index = new RankIndex();
+        Map<UUID, Integer> expected = new HashMap<>();
+        List<UUID> players = List.of(new UUID(-1, 5), new UUID(1, 5), new UUID(0, 0), new UUID(Long.MIN_VALUE, 0));
+        for (int i = 0; i < players.size(); i++) {
+            index.update(players.get(i), "p" + i, 10 + i);
+            expected.put(players.get(i), 10 + i);
+        }
+        index.resetAll();
+        expected.replaceAll((uuid, points) -> 0);
+        assertMatches(index, expected, players);
+        assertEquals(List.of(), index.bottom(10));
+    }
+
+    private static void assertMatches(RankIndex index, Map<UUID, Integer> expected, List<UUID> players) {
+        List<Map.Entry<UUID, Integer>> sorted = new ArrayList<>(expected.entrySet());
+        sorted.sort(SQL_ORDER);
+        assertEquals(sorted.size(), index.size());
+
+        for (int i = 0; i < sorted.size(); i++) {
+            UUID uuid = sorted.get(i).getKey();
+            assertEquals(i + 1, index.rankOf(uuid), "rank of " + uuid);
+            assertEquals((int) sorted.get(i).getValue(), index.pointsOf(uuid));
+            RankIndex.Standing standing = index.standingOf(uuid);
+            assertEquals(new RankIndex.Standing(sorted.get(i).getValue(), i + 1), standing);
+        }
+        for (UUID uuid : players) {
+            if (!expected.containsKey(uuid)) {
+                assertEquals(0, index.rankOf(uuid));
+                assertEquals(-1, index.pointsOf(uuid));
+                assertNull(index.standingOf(uuid));
+            }
+        }
+
+        List<Map.Entry<UUID, Integer>> positive = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> entry : sorted) {
+            if (entry.getValue() > 0) {
+                positive.add(0, entry);
+            }
+        }
+        for (int limit : new int[]{0, 1, 10, sorted.size(), sorted.size() + 5}) {
+            assertEquals(keys(sorted.subList(0, Math.min(limit, sorted.size()))), uuids(index.top(limit)), "top " + limit);
+            assertEquals(keys(positive.subList(0, Math.min(limit, positive.size()))), uuids(index.bottom(limit)), "bottom " + limit);
+        }
+    }
+
+    private static List<UUID> keys(List<Map.Entry<UUID, Integer>> entries) {
+        return entries.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private static List<UUID> uuids(List<RankIndex.RankEntry> entries) {
+        return entries.stream().map(RankIndex.RankEntry::uuid).toList();
+    }
+}
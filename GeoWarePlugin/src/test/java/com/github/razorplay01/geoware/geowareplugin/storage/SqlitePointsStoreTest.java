@@ -0,0 +1,73 @@
+package com.github.razorplay01.geoware.geowareplugin.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlitePointsStoreTest {
+    @TempDir
+    Path folder;
+    private SqlitePointsStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void incrementFailingAfterTheTotalLeavesNoTrace() throws SQLException {
+        store = new SqlitePointsStore(folder.resolve("puntos.db").toFile(), StorageSettings.DEFAULTS);
+        AtomicInteger notified = new AtomicInteger();
+        store.setListener(new PointsStore.Listener() {
+            @Override
+            public void onPointsChanged(UUID uuid, String name, int points) {
+                notified.incrementAndGet();
+            }
+
+            @Override
+            public void onAllPointsReset() {
+                // Sin uso
+            }
+        });
+        UUID player = UUID.randomUUID();
+
+        // Las ventanas se consultan después de sumar al total, dentro de la misma escritura
+        store.setActiveWindows(() -> {
+            throw new IllegalStateException("windows unavailable");
+        });
+        assertThrows(CompletionException.class, () -> store.add(player, "Steve", 10).join());
+
+        store.setActiveWindows(() -> List.of("d:1"));
+        assertEquals(0, store.get(player).join());
+        assertEquals(0, notified.get());
+        assertEquals(5, store.add(player, "Steve", 5).join());
+        assertEquals(List.of(new RankIndex.RankEntry(player, "Steve", 5)), store.windowTop("d:1", 10).join());
+        assertEquals(1, notified.get());
+    }
+
+    @Test
+    void incrementWithoutNameKeepsTheStoredOne() throws SQLException {
+        store = new SqlitePointsStore(folder.resolve("puntos.db").toFile(), StorageSettings.DEFAULTS);
+        store.setActiveWindows(() -> List.of("d:1"));
+        UUID player = UUID.randomUUID();
+
+        store.add(player, "Steve", 5).join();
+        // Un OfflinePlayer conocido solo por su UUID no tiene nombre
+        assertEquals(8, store.add(player, null, 3).join());
+
+        assertEquals(List.of(new RankIndex.RankEntry(player, "Steve", 8)), store.top(10).join());
+        assertEquals(List.of(new RankIndex.RankEntry(player, "Steve", 8)), store.windowTop("d:1", 10).join());
+    }
+}